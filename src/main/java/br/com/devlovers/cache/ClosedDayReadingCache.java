@@ -0,0 +1,142 @@
+package br.com.devlovers.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.services.reading.PartitionPlanner;
+import br.com.devlovers.services.reading.ReadingBlockStore;
+import br.com.devlovers.services.reading.ReadingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de dias encerrados (partição dispositivo + dia + tipo), que não mudam mais, guardadas
+ * em colunas (momentos e valores) para que relatórios e painéis repetidos não voltem ao Cassandra.
+ *
+ * O tamanho é limitado pelo total de leituras em memória (peso de cada dia) e a remoção segue a
+ * política W-TinyLFU do Caffeine. Uma consulta concorrente ao mesmo dia aguarda a mesma carga.
+ * Gravações tardias (importações) descartam o dia desta instância; o TTL limita a defasagem
+ * para gravações feitas por outras instâncias.
+ */
+@Component
+public class ClosedDayReadingCache implements ReadingListener {
+
+    @Autowired
+    private ReadingBlockStore readingBlockStore;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.closed-day.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.readings.closed-day.max-readings:2000000}")
+    private long maxReadings;
+
+    @Value("${api.readings.closed-day.ttl:PT6H}")
+    private Duration ttl;
+
+    @Value("${api.readings.closed-day.grace:PT1H}")
+    private Duration grace;
+
+    private AsyncCache<DayKey, DayColumns> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxReadings)
+                .weigher((DayKey key, DayColumns day) -> Math.max(1, day.size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "readings.closed-day");
+    }
+
+    /**
+     * Um dia pode ser servido da memória depois de encerrado há pelo menos {@code grace}
+     * (leituras atrasadas) e enquanto não houver partições de um fuso legado em migração.
+     */
+    public boolean isCacheable(LocalDate date) {
+        return enabled
+                && !partitionPlanner.hasLegacyZone()
+                && date.isBefore(partitionPlanner.partitionDate(Instant.now().minus(grace)));
+    }
+
+    /**
+     * Leituras de [start, end] do dia, na ordem da tabela (mais recente primeiro).
+     */
+    public Flux<Reading> find(UUID deviceId, LocalDate date, ReadingType type, Instant start, Instant end) {
+        DayKey key = new DayKey(deviceId, date, type);
+
+        // A carga é compartilhada: o cancelamento de um assinante não a interrompe para os demais
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> load(k).toFuture()), true)
+                .flatMapIterable(day -> day.between(key, start, end));
+    }
+
+    @Override
+    public void onReadingPersisted(Reading reading) {
+        Reading.DeviceReadingKey readingKey = reading.getKey();
+        cache.synchronous().invalidate(
+                new DayKey(readingKey.getDeviceId(), readingKey.getDate(), readingKey.getReadingType()));
+    }
+
+    private Mono<DayColumns> load(DayKey key) {
+        return readingBlockStore.findDay(key.deviceId(), key.date(), key.type())
+                .collectList()
+                .map(DayColumns::of);
+    }
+
+    private record DayKey(UUID deviceId, LocalDate date, ReadingType type) {
+    }
+
+    private record DayColumns(long[] timestamps, double[] values) {
+
+        static DayColumns of(List<Reading> readings) {
+            long[] timestamps = new long[readings.size()];
+            double[] values = new double[readings.size()];
+            for (int i = 0; i < readings.size(); i++) {
+                timestamps[i] = readings.get(i).getTimestamp().toEpochMilli();
+                values[i] = readings.get(i).getValue();
+            }
+            return new DayColumns(timestamps, values);
+        }
+
+        int size() {
+            return timestamps.length;
+        }
+
+        List<Reading> between(DayKey key, Instant start, Instant end) {
+            long from = start.toEpochMilli();
+            long to = end.toEpochMilli();
+
+            List<Reading> readings = new ArrayList<>();
+            for (int i = 0; i < timestamps.length; i++) {
+                if (timestamps[i] >= from && timestamps[i] <= to) {
+                    readings.add(new Reading(new Reading.DeviceReadingKey(key.deviceId(), key.date(), key.type(),
+                            Instant.ofEpochMilli(timestamps[i])), values[i]));
+                }
+            }
+            return readings;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.devlovers.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import br.com.devlovers.domain.device.DeviceIdentity;
+import br.com.devlovers.repositories.DeviceByApiKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache de chave de API -> dispositivo usado no caminho de ingestão.
+ * Chaves desconhecidas também são guardadas (cache negativo) por um período curto,
+ * para que chaves inválidas não gerem uma consulta ao Cassandra a cada requisição.
+ * Buscas concorrentes pela mesma chave compartilham uma única consulta.
+ */
+@Component
+public class DeviceIdentityCache {
+
+    @Autowired
+    private DeviceByApiKeyRepository deviceByApiKeyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.devices.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${api.devices.cache.ttl:PT10M}")
+    private Duration ttl;
+
+    @Value("${api.devices.cache.negative-ttl:PT30S}")
+    private Duration negativeTtl;
+
+    private AsyncCache<String, Optional<DeviceIdentity>> cache;
+    private Timer lookupHitTimer;
+    private Timer lookupMissTimer;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<DeviceIdentity>>() {
+
+                    @Override
+                    public long expireAfterCreate(String apiKey, Optional<DeviceIdentity> device,
+                            long currentTime) {
+                        return device.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String apiKey, Optional<DeviceIdentity> device,
+                            long currentTime, long currentDuration) {
+                        return expireAfterCreate(apiKey, device, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String apiKey, Optional<DeviceIdentity> device,
+                            long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "devices.api-key");
+        lookupHitTimer = lookupTimer("hit");
+        lookupMissTimer = lookupTimer("miss");
+    }
+
+    public Mono<DeviceIdentity> get(String apiKey) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Timer timer = cache.getIfPresent(apiKey) != null ? lookupHitTimer : lookupMissTimer;
+
+            return Mono.fromFuture(cache.get(apiKey, (key, executor) -> load(key)), true)
+                    .doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }).flatMap(Mono::justOrEmpty);
+    }
+
+    public void invalidate(String apiKey) {
+        if (apiKey != null) {
+            cache.synchronous().invalidate(apiKey);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private CompletableFuture<Optional<DeviceIdentity>> load(String apiKey) {
+        return deviceByApiKeyRepository.findByKeyApiKey(apiKey)
+                .map(device -> Optional.of(new DeviceIdentity(device)))
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    private Timer lookupTimer(String result) {
+        return Timer.builder("terrasense.ingest.api-key.lookup")
+                .description("Latência da resolução da chave de API no caminho de ingestão")
+                .tag("cache", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
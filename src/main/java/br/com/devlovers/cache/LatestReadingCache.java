@@ -0,0 +1,119 @@
+package br.com.devlovers.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.repositories.ReadingRepository;
+import br.com.devlovers.services.reading.PartitionPlanner;
+import br.com.devlovers.services.reading.ReadingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Última leitura de cada dispositivo e tipo de leitura, servida da memória para os painéis.
+ * Uma entrada é carregada do Cassandra na primeira consulta (buscando a partição do dia e
+ * as anteriores até lookback-days) e, a partir daí, atualizada a cada gravação bem-sucedida.
+ * O TTL limita a defasagem entre instâncias, já que cada uma só vê as próprias gravações.
+ */
+@Component
+public class LatestReadingCache implements ReadingListener {
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.latest.maximum-size:50000}")
+    private long maximumSize;
+
+    @Value("${api.readings.latest.ttl:PT1M}")
+    private Duration ttl;
+
+    @Value("${api.readings.latest.lookback-days:2}")
+    private int lookbackDays;
+
+    private Cache<LatestKey, Optional<Reading>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "readings.latest");
+    }
+
+    public Mono<Reading> get(UUID deviceId, ReadingType type) {
+        LatestKey key = new LatestKey(deviceId, type);
+        Optional<Reading> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.justOrEmpty(cached);
+        }
+
+        return load(deviceId, type)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(loaded -> cache.asMap().merge(key, loaded, LatestReadingCache::newest))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Atualiza a entrada do dispositivo/tipo, se já estiver em memória, com uma leitura recém-gravada.
+     * Entradas ausentes não são criadas: a leitura pode ser antiga (importação) e a próxima
+     * consulta carrega o valor correto do Cassandra.
+     */
+    @Override
+    public void onReadingPersisted(Reading reading) {
+        Reading.DeviceReadingKey readingKey = reading.getKey();
+        cache.asMap().computeIfPresent(new LatestKey(readingKey.getDeviceId(), readingKey.getReadingType()),
+                (key, current) -> newest(current, Optional.of(reading)));
+    }
+
+    private Mono<Reading> load(UUID deviceId, ReadingType type) {
+        Instant now = Instant.now();
+        List<LocalDate> dates = new ArrayList<>(
+                partitionPlanner.partitions(now.minus(Duration.ofDays(Math.max(1, lookbackDays) - 1)), now));
+        Collections.reverse(dates);
+
+        return Flux.fromIterable(dates)
+                .concatMap(date -> readingRepository.findLatest(deviceId, date, type))
+                .next();
+    }
+
+    private static Optional<Reading> newest(Optional<Reading> current, Optional<Reading> candidate) {
+        if (current.isEmpty()) {
+            return candidate;
+        }
+        if (candidate.isEmpty()) {
+            return current;
+        }
+        return candidate.get().getTimestamp().isAfter(current.get().getTimestamp()) ? candidate : current;
+    }
+
+    private record LatestKey(UUID deviceId, ReadingType type) {
+    }
+}
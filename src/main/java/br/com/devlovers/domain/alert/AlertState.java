@@ -0,0 +1,61 @@
+package br.com.devlovers.domain.alert;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKey;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Estado do alerta de faixa de trabalho de um dispositivo e tipo de leitura.
+ * Uma linha por série; regravada pelo motor de alertas apenas quando muda.
+ */
+@Table("tb_alert_states")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "key")
+public class AlertState {
+
+    @PrimaryKeyClass
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class AlertStateKey {
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.PARTITIONED)
+        private UUID deviceId;
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.CLUSTERED)
+        private ReadingType readingType;
+    }
+
+    @PrimaryKey
+    private AlertStateKey key;
+
+    // Peso acumulado (em leituras nominais) das leituras fora da faixa já consolidadas na sequência atual
+    private Double streakWeight;
+
+    private Instant streakStart;
+
+    private Instant lastTimestamp;
+
+    private Boolean lastOutOfRange;
+
+    private Boolean firing;
+
+    private Instant notifiedAt;
+}
@@ -0,0 +1,30 @@
+package br.com.devlovers.domain.alert;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import br.com.devlovers.domain.alert.enums.AlertStatus;
+import br.com.devlovers.domain.device.enums.Function;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+
+/**
+ * Alerta de leitura fora da faixa de trabalho do dispositivo, disparado (ou encerrado)
+ * pela leitura em {@code timestamp}.
+ */
+public record ReadingAlert(
+
+    UUID deviceId,
+    String deviceName,
+    UUID ownerId,
+    Function function,
+    String sector,
+    ReadingType type,
+    AlertStatus status,
+    Double value,
+    Double minValue,
+    Double maxValue,
+    Instant since,
+    Instant timestamp
+
+) {
+}
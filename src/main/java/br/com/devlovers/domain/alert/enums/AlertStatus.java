@@ -0,0 +1,17 @@
+package br.com.devlovers.domain.alert.enums;
+
+public enum AlertStatus {
+
+    TRIGGERED("triggered"),
+    RESOLVED("resolved");
+
+    private String status;
+
+    AlertStatus(String status) {
+        this.status = status;
+    }
+
+    public String fromString() {
+        return status;
+    }
+}
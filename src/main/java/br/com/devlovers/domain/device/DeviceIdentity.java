@@ -0,0 +1,43 @@
+package br.com.devlovers.domain.device;
+
+import java.util.UUID;
+
+import br.com.devlovers.domain.device.enums.Branch;
+import br.com.devlovers.domain.device.enums.DeviceType;
+import br.com.devlovers.domain.device.enums.Function;
+import br.com.devlovers.domain.device.enums.Sensor;
+
+/**
+ * Visão imutável e enxuta de um dispositivo, resolvida a partir da chave de API.
+ * Contém apenas o necessário para o caminho de ingestão de leituras.
+ *
+ * @since 1.1.0
+ */
+public record DeviceIdentity(
+
+    UUID id,
+    String apiKey,
+    String name,
+    UUID ownerId,
+    Branch branch,
+    Function function,
+    String sector,
+    String typeOfEquipment,
+    DeviceType deviceType,
+    Sensor sensor,
+    Double minWorkingTemp,
+    Double maxWorkingTemp,
+    Double minWorkingHumidity,
+    Double maxWorkingHumidity,
+    boolean isActive
+
+) {
+
+    public DeviceIdentity(DeviceByApiKey device) {
+        this(device.getKey().getId(), device.getKey().getApiKey(), device.getName(), device.getOwnerId(),
+                device.getBranch(), device.getFunction(), device.getSector(), device.getTypeOfEquipment(),
+                device.getDeviceType(), device.getSensor(), device.getMinWorkingTemp(), device.getMaxWorkingTemp(),
+                device.getMinWorkingHumidity(), device.getMaxWorkingHumidity(),
+                Boolean.TRUE.equals(device.getIsActive()));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.devlovers.domain.reading;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKey;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Leituras de um dispositivo e tipo em um dia já encerrado, compactadas em um único blob
+ * (ver {@code ReadingBlockCodec}). O dia é o mesmo da partição de {@code tb_sensor_readings}
+ * de onde as leituras saíram; os dias de um dispositivo e tipo ficam na mesma partição, então
+ * uma consulta de vários dias lê um único intervalo de linhas.
+ *
+ * {@code dirty} indica linhas brutas gravadas no dia depois da última compactação; uma linha
+ * só com a marca (sem {@code data}) é um dia ainda não compactado que recebeu gravações tardias.
+ */
+@Table("tb_reading_blocks")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "key")
+public class ReadingBlock {
+
+    @PrimaryKeyClass
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class ReadingBlockKey {
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.PARTITIONED)
+        private UUID deviceId;
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.PARTITIONED)
+        private ReadingType readingType;
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.CLUSTERED, ordering = Ordering.DESCENDING)
+        private LocalDate date;
+    }
+
+    @PrimaryKey
+    private ReadingBlockKey key;
+
+    private Integer encoding;
+
+    private Integer count;
+
+    private Instant firstTimestamp;
+
+    private Instant lastTimestamp;
+
+    private ByteBuffer data;
+
+    private Boolean dirty;
+}
@@ -0,0 +1,17 @@
+package br.com.devlovers.domain.reading;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Representa a chave de partição da tabela de leituras (dispositivo + dia).
+ * Leituras da mesma partição podem ser gravadas juntas em um único batch.
+ *
+ * @since 1.1.0
+ */
+public record ReadingPartition(UUID deviceId, LocalDate date) {
+
+    public static ReadingPartition of(Reading reading) {
+        return new ReadingPartition(reading.getKey().getDeviceId(), reading.getKey().getDate());
+    }
+}
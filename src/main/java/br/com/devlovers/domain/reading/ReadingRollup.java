@@ -0,0 +1,74 @@
+package br.com.devlovers.domain.reading;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKey;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Agregado das leituras de um dispositivo e tipo em uma hora ou em um dia (no fuso das partições).
+ * Soma e soma dos quadrados permitem combinar agregados e obter média e desvio padrão sem
+ * reler as leituras; {@code inRangeCount} conta as leituras dentro da faixa de trabalho do
+ * dispositivo no momento do cálculo.
+ */
+@Table("tb_reading_rollups")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "key")
+public class ReadingRollup {
+
+    @PrimaryKeyClass
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class ReadingRollupKey {
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.PARTITIONED)
+        private UUID deviceId;
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.PARTITIONED)
+        private ReadingType readingType;
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.PARTITIONED)
+        private RollupGranularity granularity;
+
+        @PrimaryKeyColumn(type = PrimaryKeyType.CLUSTERED, ordering = Ordering.DESCENDING)
+        private Instant bucket;
+    }
+
+    @PrimaryKey
+    private ReadingRollupKey key;
+
+    private Long count;
+
+    private Double sum;
+
+    private Double sumOfSquares;
+
+    private Double min;
+
+    private Double max;
+
+    private Instant firstTimestamp;
+
+    private Instant lastTimestamp;
+
+    private Long inRangeCount;
+}
@@ -0,0 +1,27 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record FleetReadingDTO(
+
+    UUID deviceId,
+    Instant timestamp,
+    Double value,
+
+    // Presente apenas no último item de um dispositivo cuja consulta foi interrompida
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Boolean truncated
+
+) {
+
+    public FleetReadingDTO(UUID deviceId, Instant timestamp, Double value) {
+        this(deviceId, timestamp, value, null);
+    }
+
+    public static FleetReadingDTO truncated(UUID deviceId) {
+        return new FleetReadingDTO(deviceId, null, null, true);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+
+public record LatestReadingDTO(
+
+    UUID deviceId,
+    ReadingType type,
+    Instant timestamp,
+    Double value
+
+) {
+
+    public LatestReadingDTO(Reading reading) {
+        this(reading.getKey().getDeviceId(), reading.getKey().getReadingType(), reading.getTimestamp(),
+                reading.getValue());
+    }
+}
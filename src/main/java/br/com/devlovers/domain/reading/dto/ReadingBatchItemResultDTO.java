@@ -0,0 +1,16 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.time.Instant;
+
+import br.com.devlovers.domain.reading.enums.ReadingBatchItemStatus;
+
+public record ReadingBatchItemResultDTO(
+
+    int index,
+    ReadingBatchItemStatus status,
+    Instant timestamp,
+    String message
+
+) {
+
+}
@@ -0,0 +1,30 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.util.List;
+
+import br.com.devlovers.domain.reading.enums.ReadingBatchItemStatus;
+
+public record ReadingBatchResponseDTO(
+
+    long created,
+    long duplicate,
+    long suppressed,
+    long rejected,
+    long failed,
+    List<ReadingBatchItemResultDTO> results
+
+) {
+
+    public ReadingBatchResponseDTO(List<ReadingBatchItemResultDTO> results) {
+        this(count(results, ReadingBatchItemStatus.CREATED),
+                count(results, ReadingBatchItemStatus.DUPLICATE),
+                count(results, ReadingBatchItemStatus.SUPPRESSED),
+                count(results, ReadingBatchItemStatus.REJECTED),
+                count(results, ReadingBatchItemStatus.FAILED),
+                results);
+    }
+
+    private static long count(List<ReadingBatchItemResultDTO> results, ReadingBatchItemStatus status) {
+        return results.stream().filter(result -> result.status() == status).count();
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.time.Instant;
+
+/**
+ * Agregado das leituras de um intervalo (bucket) da consulta reamostrada.
+ * {@code timestamp} é o início do bucket.
+ */
+public record ReadingBucketDTO(
+
+    Instant timestamp,
+    Double min,
+    Double max,
+    Double mean,
+    long count
+
+) {
+}
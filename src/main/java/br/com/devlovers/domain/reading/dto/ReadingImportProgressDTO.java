@@ -0,0 +1,16 @@
+package br.com.devlovers.domain.reading.dto;
+
+public record ReadingImportProgressDTO(
+
+    long parsed,
+    long written,
+    long rejected,
+    long failed,
+    long elapsedMillis,
+    double readingsPerSecond,
+    boolean done,
+    String lastError
+
+) {
+
+}
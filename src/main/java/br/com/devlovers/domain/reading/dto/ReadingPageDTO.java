@@ -0,0 +1,15 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.util.List;
+
+/**
+ * Página de leituras. {@code nextCursor} é nulo na última página; caso contrário deve ser
+ * enviado como {@code cursor} (com os mesmos parâmetros de consulta) para obter a próxima.
+ */
+public record ReadingPageDTO(
+
+    List<ReadingResponseDTO> readings,
+    String nextCursor
+
+) {
+}
@@ -1,7 +1,10 @@
 package br.com.devlovers.domain.reading.dto;
 
+import java.time.Instant;
+
 import br.com.devlovers.domain.reading.enums.ReadingType;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public record ReadingRegisterDTO(
 
@@ -9,7 +12,17 @@ public record ReadingRegisterDTO(
     ReadingType type,
     
     @NotNull
-    Double value
+    Double value,
+
+    // Momento da medição no dispositivo (opcional, padrão: momento do recebimento)
+    Instant timestamp,
+
+    // Sequência monotônica do dispositivo (opcional), usada para descartar retransmissões
+    @PositiveOrZero
+    Long sequence
 ) {
 
+    public ReadingRegisterDTO(ReadingType type, Double value, Instant timestamp) {
+        this(type, value, timestamp, null);
+    }
 }
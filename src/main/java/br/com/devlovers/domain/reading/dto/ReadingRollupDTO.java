@@ -0,0 +1,39 @@
+package br.com.devlovers.domain.reading.dto;
+
+import java.time.Instant;
+
+import br.com.devlovers.domain.reading.ReadingRollup;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+
+public record ReadingRollupDTO(
+
+    Instant bucket,
+    RollupGranularity granularity,
+    long count,
+    Double min,
+    Double max,
+    Double mean,
+    Double standardDeviation,
+    Instant firstTimestamp,
+    Instant lastTimestamp,
+    Long inRangeCount
+
+) {
+
+    public ReadingRollupDTO(ReadingRollup rollup) {
+        this(rollup.getKey().getBucket(), rollup.getKey().getGranularity(), rollup.getCount(), rollup.getMin(),
+                rollup.getMax(), rollup.getSum() / rollup.getCount(), standardDeviation(rollup),
+                rollup.getFirstTimestamp(), rollup.getLastTimestamp(), rollup.getInRangeCount());
+    }
+
+    // Desvio padrão amostral a partir da soma e da soma dos quadrados
+    private static Double standardDeviation(ReadingRollup rollup) {
+        long n = rollup.getCount();
+        if (n < 2) {
+            return 0.0;
+        }
+
+        double variance = (rollup.getSumOfSquares() - rollup.getSum() * rollup.getSum() / n) / (n - 1);
+        return Math.sqrt(Math.max(0, variance));
+    }
+}
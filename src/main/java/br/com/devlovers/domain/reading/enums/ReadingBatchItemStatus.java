@@ -0,0 +1,20 @@
+package br.com.devlovers.domain.reading.enums;
+
+public enum ReadingBatchItemStatus {
+
+    CREATED("created"),
+    DUPLICATE("duplicate"),
+    SUPPRESSED("suppressed"),
+    REJECTED("rejected"),
+    FAILED("failed");
+
+    private String status;
+
+    ReadingBatchItemStatus(String status) {
+        this.status = status;
+    }
+
+    public String fromString() {
+        return status;
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.devlovers.domain.reading.enums;
+
+public enum ReadingImportFormat {
+
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private String format;
+
+    ReadingImportFormat(String format) {
+        this.format = format;
+    }
+
+    public String fromString() {
+        return format;
+    }
+
+    public static ReadingImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String mediaType = contentType.split(";")[0].trim();
+            for (ReadingImportFormat value : values()) {
+                if (value.format.equalsIgnoreCase(mediaType)) {
+                    return value;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Formato de importação não suportado: " + contentType);
+    }
+}
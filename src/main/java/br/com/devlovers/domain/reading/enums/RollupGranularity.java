@@ -0,0 +1,17 @@
+package br.com.devlovers.domain.reading.enums;
+
+public enum RollupGranularity {
+
+    HOUR("hour"),
+    DAY("day");
+
+    private String granularity;
+
+    RollupGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public String fromString() {
+        return granularity;
+    }
+}
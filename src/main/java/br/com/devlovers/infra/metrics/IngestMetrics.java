@@ -0,0 +1,147 @@
+package br.com.devlovers.infra.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.device.DeviceIdentity;
+import br.com.devlovers.services.exceptions.IngestBufferFullException;
+import br.com.devlovers.services.exceptions.InvalidBatchException;
+import br.com.devlovers.services.exceptions.InvalidReadingException;
+import br.com.devlovers.services.exceptions.RateLimitExceededException;
+import br.com.devlovers.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Métricas do caminho de ingestão de leituras, com tags de baixa cardinalidade
+ * (canal, resultado, motivo, tipo de dispositivo e filial).
+ *
+ * <ul>
+ * <li>terrasense.ingest.requests: latência de ponta a ponta por canal e resultado</li>
+ * <li>terrasense.ingest.in-flight: requisições de ingestão em andamento por canal</li>
+ * <li>terrasense.ingest.rejected: requisições e leituras recusadas por motivo</li>
+ * <li>terrasense.ingest.readings: leituras aceitas por tipo de dispositivo e filial</li>
+ * </ul>
+ *
+ * A latência da resolução da chave de API e a das escritas no Cassandra ficam em
+ * terrasense.ingest.api-key.lookup e terrasense.readings.write.
+ */
+@Component
+public class IngestMetrics {
+
+    public static final String SINGLE = "single";
+    public static final String BATCH = "batch";
+    public static final String TASMOTA = "tasmota";
+    public static final String MQTT = "mqtt";
+    public static final String UDP = "udp";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> readingCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Mede uma requisição de ingestão do canal informado. Uma conclusão vazia é contada
+     * como retransmissão descartada.
+     */
+    public <T> Mono<T> instrument(String channel, Mono<T> ingestion) {
+        return Mono.defer(() -> {
+            AtomicInteger requests = inFlight(channel);
+            requests.incrementAndGet();
+            long start = System.nanoTime();
+
+            return ingestion
+                    .doOnSuccess(result -> record(channel, result != null ? "success" : "duplicate", start))
+                    .doOnError(e -> {
+                        String reason = reason(e);
+                        record(channel, reason, start);
+                        rejected(reason);
+                    })
+                    .doOnCancel(() -> record(channel, "cancelled", start))
+                    .doFinally(signal -> requests.decrementAndGet());
+        });
+    }
+
+    public void recordReadings(DeviceIdentity device, long count) {
+        if (count <= 0) {
+            return;
+        }
+
+        String deviceType = device.deviceType() != null ? device.deviceType().fromString() : "unknown";
+        String branch = device.branch() != null ? device.branch().name() : "unknown";
+
+        readingCounters.computeIfAbsent(deviceType + "|" + branch, key -> Counter
+                .builder("terrasense.ingest.readings")
+                .description("Leituras aceitas na ingestão")
+                .tag("device.type", deviceType)
+                .tag("branch", branch)
+                .register(meterRegistry))
+                .increment(count);
+    }
+
+    public void rejected(String reason) {
+        rejected(reason, 1);
+    }
+
+    public void rejected(String reason, long count) {
+        if (count <= 0) {
+            return;
+        }
+
+        rejectedCounters.computeIfAbsent(reason, key -> Counter
+                .builder("terrasense.ingest.rejected")
+                .description("Requisições e leituras recusadas na ingestão")
+                .tag("reason", reason)
+                .register(meterRegistry))
+                .increment(count);
+    }
+
+    private void record(String channel, String outcome, long start) {
+        requestTimers.computeIfAbsent(channel + "|" + outcome, key -> Timer
+                .builder("terrasense.ingest.requests")
+                .description("Latência de ponta a ponta das requisições de ingestão")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private AtomicInteger inFlight(String channel) {
+        return inFlight.computeIfAbsent(channel, key -> {
+            AtomicInteger requests = new AtomicInteger();
+            Gauge.builder("terrasense.ingest.in-flight", requests, AtomicInteger::get)
+                    .description("Requisições de ingestão em andamento")
+                    .tag("channel", key)
+                    .register(meterRegistry);
+            return requests;
+        });
+    }
+
+    private static String reason(Throwable e) {
+        if (e instanceof ResourceNotFoundException) {
+            return "unknown_api_key";
+        }
+        if (e instanceof InvalidReadingException || e instanceof InvalidBatchException) {
+            return "invalid";
+        }
+        if (e instanceof RateLimitExceededException) {
+            return "rate_limited";
+        }
+        if (e instanceof IngestBufferFullException) {
+            return "buffer_full";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,295 @@
+package br.com.devlovers.infra.mqtt;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.reading.dto.ReadingBatchResponseDTO;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.services.DeviceService;
+import br.com.devlovers.services.exceptions.InvalidBatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Assinante MQTT para telemetria do Tasmota (tele/<topic>/SENSOR).
+ * O nível do tópico configurado em api.mqtt.device-topic-level contém o ID do dispositivo
+ * (ex.: comando Tasmota "Topic <id>"), cuja chave de API é resolvida pelo mesmo cache usado
+ * pela API HTTP. O tópico não autentica o dispositivo: o broker deve exigir credenciais por
+ * dispositivo e ACLs que só permitam publicar no próprio tópico e só à API assinar tele/#.
+ * O modo legado API_KEY (chave de API no tópico) expõe as chaves a qualquer assinante de
+ * tele/#. As leituras seguem para o buffer de ingestão quando habilitado, ou são gravadas em
+ * um batch por mensagem.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.mqtt.enabled", havingValue = "true")
+public class MqttIngestListener implements MqttCallbackExtended {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
+    @Value("${api.mqtt.broker-url:tcp://localhost:1883}")
+    private String brokerUrl;
+
+    @Value("${api.mqtt.client-id:terrasense-api}")
+    private String clientId;
+
+    @Value("${api.mqtt.username:}")
+    private String username;
+
+    @Value("${api.mqtt.password:}")
+    private String password;
+
+    @Value("${api.mqtt.topics:tele/+/SENSOR}")
+    private String[] topics;
+
+    @Value("${api.mqtt.qos:1}")
+    private int qos;
+
+    @Value("${api.mqtt.device-topic-level:1}")
+    private int deviceTopicLevel;
+
+    @Value("${api.mqtt.topic-identifier:DEVICE_ID}")
+    private TopicIdentifier topicIdentifier = TopicIdentifier.DEVICE_ID;
+
+    @Value("${api.mqtt.api-key-ttl:PT1M}")
+    private Duration apiKeyTtl = Duration.ofMinutes(1);
+
+    @Value("${api.mqtt.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${api.mqtt.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    private MqttAsyncClient client;
+    private Semaphore inFlight;
+    private final AtomicInteger connected = new AtomicInteger();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private Cache<UUID, String> apiKeys;
+    private Counter connectionCounter;
+    private volatile boolean stopping;
+
+    @PostConstruct
+    public void start() throws MqttException {
+        inFlight = new Semaphore(maxInFlight);
+        init();
+
+        Gauge.builder("terrasense.mqtt.connected", connected, AtomicInteger::get)
+                .description("Conexões ativas com o broker MQTT")
+                .tag("broker", brokerUrl)
+                .register(meterRegistry);
+        Gauge.builder("terrasense.mqtt.in-flight", () -> maxInFlight - inFlight.availablePermits())
+                .description("Mensagens MQTT em processamento")
+                .register(meterRegistry);
+        connectionCounter = meterRegistry.counter("terrasense.mqtt.connections", "broker", brokerUrl);
+
+        client = new MqttAsyncClient(brokerUrl, clientId, new MemoryPersistence());
+        client.setCallback(this);
+        connect();
+    }
+
+    void init() {
+        apiKeys = Caffeine.newBuilder()
+                .expireAfterWrite(apiKeyTtl)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        try {
+            if (client.isConnected()) {
+                client.disconnect().waitForCompletion(5000);
+            }
+            client.close();
+        } catch (MqttException e) {
+            log.warn("Falha ao encerrar conexão MQTT: {}", e.getMessage());
+        }
+    }
+
+    private void connect() {
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        if (!username.isBlank()) {
+            options.setUserName(username);
+            options.setPassword(password.toCharArray());
+        }
+
+        try {
+            client.connect(options, null, new IMqttActionListener() {
+
+                @Override
+                public void onSuccess(IMqttToken token) {
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable e) {
+                    log.warn("Falha ao conectar ao broker MQTT {}: {}", brokerUrl, e.getMessage());
+                    scheduleReconnect();
+                }
+            });
+        } catch (MqttException e) {
+            log.warn("Falha ao conectar ao broker MQTT {}: {}", brokerUrl, e.getMessage());
+            scheduleReconnect();
+        }
+    }
+
+    private void scheduleReconnect() {
+        if (!stopping) {
+            Mono.delay(reconnectDelay).subscribe(tick -> connect());
+        }
+    }
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        connected.set(1);
+        connectionCounter.increment();
+        log.info("Conectado ao broker MQTT {} (reconexão: {})", serverURI, reconnect);
+
+        int[] qosLevels = new int[topics.length];
+        Arrays.fill(qosLevels, qos);
+        try {
+            client.subscribe(topics, qosLevels);
+        } catch (MqttException e) {
+            log.error("Falha ao assinar tópicos MQTT {}: {}", String.join(", ", topics), e.getMessage());
+        }
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        connected.set(0);
+        log.warn("Conexão com o broker MQTT perdida: {}", cause != null ? cause.getMessage() : "desconhecido");
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) throws InterruptedException {
+        String[] levels = topic.split("/");
+        if (levels.length <= deviceTopicLevel) {
+            count(topic, "rejected");
+            return;
+        }
+
+        String identifier = levels[deviceTopicLevel];
+        levels[deviceTopicLevel] = "+";
+        String topicTag = String.join("/", levels);
+
+        UUID deviceId = null;
+        if (topicIdentifier == TopicIdentifier.DEVICE_ID) {
+            try {
+                deviceId = UUID.fromString(identifier);
+            } catch (IllegalArgumentException e) {
+                count(topicTag, "rejected");
+                return;
+            }
+        }
+
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(message.getPayload());
+        } catch (Exception e) {
+            count(topicTag, "rejected");
+            return;
+        }
+
+        // Bloquear a thread de callback do cliente aplica backpressure ao broker
+        inFlight.acquire();
+
+        Mono<String> apiKey = deviceId != null ? apiKey(deviceId) : Mono.just(identifier);
+        Mono<?> ingestion = apiKey.flatMap(key -> deviceService.isBufferedIngest()
+                ? ingestMetrics.instrument(IngestMetrics.MQTT, deviceService.enqueueTasmotaTelemetry(key, payload))
+                : ingestMetrics.instrument(IngestMetrics.MQTT, deviceService.insertTasmotaTelemetry(key, payload)));
+
+        ingestion.doFinally(signal -> inFlight.release())
+                .subscribe(
+                        result -> count(topicTag, outcome(result)),
+                        e -> {
+                            // Telemetria sem medição do sensor do dispositivo não é falha de gravação
+                            count(topicTag, e instanceof InvalidBatchException ? "empty" : "failed");
+                            log.debug("Falha ao processar mensagem MQTT do tópico {}: {}", topicTag, e.getMessage());
+                        });
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+    }
+
+    // A chave fica em cache por api-key-ttl: uma chave regenerada passa a valer após esse prazo
+    private Mono<String> apiKey(UUID deviceId) {
+        String cached = apiKeys.getIfPresent(deviceId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return deviceService.findDeviceById(deviceId)
+                .map(DeviceById::getApiKey)
+                .doOnNext(key -> apiKeys.put(deviceId, key));
+    }
+
+    // "empty" quando nenhuma leitura foi aceita: payload sem medições, só retransmissões ou todas recusadas
+    private static String outcome(Object result) {
+        if (result instanceof List<?> readings && readings.isEmpty()) {
+            return "empty";
+        }
+        if (result instanceof ReadingBatchResponseDTO response) {
+            if (response.failed() > 0) {
+                return "failed";
+            }
+            if (response.created() + response.suppressed() == 0) {
+                return "empty";
+            }
+        }
+        return "ingested";
+    }
+
+    public enum TopicIdentifier {
+        DEVICE_ID, API_KEY
+    }
+
+    private void count(String topic, String outcome) {
+        counters.computeIfAbsent(topic + "|" + outcome,
+                key -> meterRegistry.counter("terrasense.mqtt.messages", "topic", topic, "outcome", outcome))
+                .increment();
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.devlovers.infra.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.device.DeviceIdentity;
+import br.com.devlovers.domain.device.enums.DeviceType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limite de envio de leituras por chave de API, para que um dispositivo mal configurado
+ * (ex.: TelePeriod de 1s) não sature a tabela de leituras.
+ * O limite padrão pode ser sobrescrito por tipo de dispositivo ou por dispositivo (ID),
+ * no formato {@code <nome>=<capacidade>/<leituras por segundo>}.
+ * A capacidade padrão é o tamanho máximo de um lote, para que um lote cheio seja admitido
+ * com o bucket cheio sem deixar o dispositivo em débito.
+ */
+@Slf4j
+@Component
+public class IngestRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.readings.rate-limit.capacity:${api.readings.batch.max-size:1000}}")
+    private long capacity;
+
+    @Value("${api.readings.rate-limit.per-second:1}")
+    private double perSecond;
+
+    @Value("${api.readings.rate-limit.device-types:}")
+    private List<String> deviceTypeLimits;
+
+    @Value("${api.readings.rate-limit.devices:}")
+    private List<String> deviceLimits;
+
+    @Value("${api.readings.rate-limit.idle-timeout:PT10M}")
+    private Duration idleTimeout;
+
+    private Cache<String, TokenBucket> buckets;
+    private final Map<DeviceType, Limit> limitsByDeviceType = new EnumMap<>(DeviceType.class);
+    private final Map<UUID, Limit> limitsByDevice = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .build();
+
+        for (String entry : deviceTypeLimits) {
+            if (!entry.isBlank()) {
+                String[] parts = split(entry);
+                limitsByDeviceType.put(DeviceType.valueOf(parts[0]), Limit.parse(parts[1]));
+            }
+        }
+
+        for (String entry : deviceLimits) {
+            if (!entry.isBlank()) {
+                String[] parts = split(entry);
+                limitsByDevice.put(UUID.fromString(parts[0]), Limit.parse(parts[1]));
+            }
+        }
+    }
+
+    /**
+     * Consome {@code readings} tokens do bucket do dispositivo.
+     *
+     * @return 0 se o envio foi admitido, ou os segundos até que possa ser tentado novamente
+     */
+    public long tryAcquire(DeviceIdentity device, int readings) {
+        if (!enabled) {
+            return 0;
+        }
+
+        TokenBucket bucket = buckets.getIfPresent(device.apiKey());
+        if (bucket == null) {
+            bucket = buckets.get(device.apiKey(), apiKey -> newBucket(device));
+        }
+
+        long waitNanos = bucket.tryAcquire(readings);
+        if (waitNanos == 0) {
+            return 0;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        // O ID do dispositivo vai só para o log: como tag, cada dispositivo criaria uma série nova
+        String deviceType = device.deviceType() != null ? device.deviceType().fromString() : "unknown";
+        String branch = device.branch() != null ? device.branch().name() : "unknown";
+        meterRegistry.counter("terrasense.ingest.throttled", "device.type", deviceType, "branch", branch).increment();
+        log.info("Envio de {} leituras do dispositivo {} limitado, nova tentativa em {}s", readings, device.id(),
+                retryAfterSeconds);
+
+        return retryAfterSeconds;
+    }
+
+    private TokenBucket newBucket(DeviceIdentity device) {
+        Limit limit = limitsByDevice.get(device.id());
+        if (limit == null && device.deviceType() != null) {
+            limit = limitsByDeviceType.get(device.deviceType());
+        }
+        if (limit == null) {
+            limit = new Limit(capacity, perSecond);
+        }
+        return new TokenBucket(limit.capacity(), limit.perSecond());
+    }
+
+    private static String[] split(String entry) {
+        String[] parts = entry.trim().split("=");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Limite de envio inválido: " + entry);
+        }
+        return parts;
+    }
+
+    private record Limit(long capacity, double perSecond) {
+
+        static Limit parse(String value) {
+            String[] parts = value.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Limite de envio inválido: " + value);
+            }
+            return new Limit(Long.parseLong(parts[0]), Double.parseDouble(parts[1]));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.devlovers.infra.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks, implementado como GCRA (Generic Cell Rate Algorithm):
+ * todo o estado é um único instante teórico de chegada (TAT) atualizado por CAS,
+ * o que mantém o custo de uma verificação em poucas operações atômicas.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param capacity quantidade máxima de requisições em rajada
+     * @param tokensPerSecond taxa de reposição sustentada
+     */
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacidade e taxa do token bucket devem ser positivas");
+        }
+
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime() - burstToleranceNanos);
+    }
+
+    /**
+     * Tenta consumir um token.
+     *
+     * @return 0 se o token foi consumido, ou o tempo em nanossegundos até haver um token disponível
+     */
+    public long tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Tenta consumir {@code permits} tokens de uma vez (ex.: um lote de leituras).
+     * Um pedido maior que a capacidade é aceito apenas com o bucket cheio e o esvazia,
+     * sem deixar débito: o próximo token volta após um intervalo de reposição.
+     *
+     * @return 0 se os tokens foram consumidos, ou o tempo em nanossegundos até poder tentar novamente
+     */
+    public long tryAcquire(long permits) {
+        long costNanos = Math.min(emissionIntervalNanos * permits, burstToleranceNanos);
+
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long start = Math.max(tat, now);
+            long waitNanos = start + costNanos - now - burstToleranceNanos;
+
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+
+            if (theoreticalArrivalTime.compareAndSet(tat, start + costNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,17 +1,24 @@
 package br.com.devlovers.infra.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
 
 @Configuration
 @EnableWebFluxSecurity
@@ -26,6 +33,48 @@ public class SecurityConfig {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Value("${api.metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${api.metrics.scrape.password:}")
+    private String scrapePassword;
+
+    /**
+     * Actuator: só o health é público. Métricas e o endpoint de scraping exigem HTTP Basic com
+     * a credencial de api.metrics.scrape.*; sem senha configurada, ficam fechados.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain actuatorSecurityWebFilterChain(ServerHttpSecurity httpSecurity) {
+        httpSecurity
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/**"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        if (scrapePassword.isBlank()) {
+            return httpSecurity
+                    .authorizeExchange(exchanges -> exchanges
+                            .pathMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                            .anyExchange().denyAll())
+                    .build();
+        }
+
+        UserDetails scraper = User.withUsername(scrapeUsername)
+                .password(passwordEncoder.encode(scrapePassword))
+                .roles("METRICS")
+                .build();
+        UserDetailsRepositoryReactiveAuthenticationManager scrapeAuthenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(new MapReactiveUserDetailsService(scraper));
+        scrapeAuthenticationManager.setPasswordEncoder(passwordEncoder);
+
+        return httpSecurity
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .anyExchange().hasRole("METRICS"))
+                .httpBasic(basic -> basic.authenticationManager(scrapeAuthenticationManager))
+                .build();
+    }
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity httpSecurity) {
         return httpSecurity
@@ -33,6 +82,7 @@ public class SecurityConfig {
                 .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/devices/*/readings/import").hasRole("USER")
                         .pathMatchers(HttpMethod.POST, "/api/auth/verify-email", "/api/auth/sign-in", "/api/auth/sign-up", "/api/devices/**", "/api/password/request-reset", "/api/password/reset").permitAll()
                         .pathMatchers(HttpMethod.GET, "/api/validate-token", "/api/auth/isVerifiedEmail", "/api/auth/isVerifiedToken").permitAll()
 
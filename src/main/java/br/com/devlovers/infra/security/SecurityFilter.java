@@ -21,9 +21,9 @@ import org.springframework.web.server.WebFilterChain;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import br.com.devlovers.cache.DeviceIdentityCache;
 import br.com.devlovers.infra.security.exceptions.TokenHasExpiredException;
 import br.com.devlovers.infra.security.exceptions.TokenVerificationException;
-import br.com.devlovers.repositories.DeviceByApiKeyRepository;
 import br.com.devlovers.repositories.UserRepository;
 import br.com.devlovers.resources.exceptions.StandardError;
 import reactor.core.publisher.Mono;
@@ -40,7 +40,7 @@ public class SecurityFilter implements WebFilter {
     private UserRepository userRepository;
 
     @Autowired
-    private DeviceByApiKeyRepository deviceByApiKeyRepository;
+    private DeviceIdentityCache deviceIdentityCache;
 
     @Override
     @NonNull
@@ -59,7 +59,7 @@ public class SecurityFilter implements WebFilter {
     }
 
     private Mono<Void> authenticateWithApiKey(String apiKey, ServerWebExchange exchange, WebFilterChain chain) {
-        return deviceByApiKeyRepository.findByKeyApiKey(apiKey)
+        return deviceIdentityCache.get(apiKey)
                 .flatMap(device -> chain.filter(exchange))
                 .switchIfEmpty(handleException(exchange, HttpStatus.UNAUTHORIZED, "Access prohibited",
                         "Chave de API inválida"));
@@ -0,0 +1,64 @@
+package br.com.devlovers.infra.udp;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Datagrama binário compacto de leitura (big-endian):
+ *
+ * <pre>
+ * [1 byte]  versão (1)
+ * [1 byte]  tamanho N da chave de API
+ * [N bytes] chave de API (ASCII)
+ * [1 byte]  métrica (0 = temperatura, 1 = umidade)
+ * [4 bytes] valor (float32)
+ * [8 bytes] momento da medição em epoch millis (0 = momento do recebimento)
+ * </pre>
+ */
+public record ReadingDatagram(String apiKey, ReadingType type, double value, long timestampMillis) {
+
+    public static final int VERSION = 1;
+
+    private static final int MAX_API_KEY_LENGTH = 64;
+
+    public static ReadingDatagram decode(ByteBuf buffer) {
+        if (buffer.readableBytes() < 2 || buffer.readUnsignedByte() != VERSION) {
+            throw new IllegalArgumentException("Versão de datagrama não suportada");
+        }
+
+        int keyLength = buffer.readUnsignedByte();
+        if (keyLength == 0 || keyLength > MAX_API_KEY_LENGTH || buffer.readableBytes() != keyLength + 13) {
+            throw new IllegalArgumentException("Tamanho de datagrama inválido");
+        }
+
+        String apiKey = buffer.readCharSequence(keyLength, StandardCharsets.US_ASCII).toString();
+
+        int metric = buffer.readUnsignedByte();
+        ReadingType[] types = ReadingType.values();
+        if (metric >= types.length) {
+            throw new IllegalArgumentException("Métrica desconhecida: " + metric);
+        }
+
+        float value = buffer.readFloat();
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException("Valor de leitura inválido");
+        }
+
+        long timestampMillis = buffer.readLong();
+
+        // float32 carrega ~7 dígitos significativos: arredonda para não gravar ruído da conversão
+        return new ReadingDatagram(apiKey, types[metric], Math.round(value * 1000d) / 1000d, timestampMillis);
+    }
+
+    public boolean hasTimestamp() {
+        return timestampMillis > 0;
+    }
+
+    public ReadingRegisterDTO toRegister() {
+        return new ReadingRegisterDTO(type, value, hasTimestamp() ? Instant.ofEpochMilli(timestampMillis) : null);
+    }
+}
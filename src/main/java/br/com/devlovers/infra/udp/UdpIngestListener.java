@@ -0,0 +1,177 @@
+package br.com.devlovers.infra.udp;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.reading.dto.ReadingBatchResponseDTO;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.infra.ratelimit.TokenBucket;
+import br.com.devlovers.services.DeviceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.socket.DatagramPacket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.udp.UdpServer;
+
+/**
+ * Listener UDP para dispositivos restritos (ESP8266/ESP12), que enviam um datagrama binário
+ * por leitura (ver {@link ReadingDatagram}) sem o custo de TLS/HTTP.
+ * Cada origem tem seu próprio limite de taxa e retransmissões de uma mesma leitura
+ * (mesma chave, métrica e momento) são descartadas dentro da janela de deduplicação.
+ * O protocolo é próprio e não é CoAP: a porta padrão evita a 5683/5684 reservada ao CoAP.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.udp.enabled", havingValue = "true")
+public class UdpIngestListener {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
+    @Value("${api.udp.host:0.0.0.0}")
+    private String host;
+
+    @Value("${api.udp.port:9683}")
+    private int port;
+
+    @Value("${api.udp.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${api.udp.rate-limit.capacity:10}")
+    private long rateLimitCapacity;
+
+    @Value("${api.udp.rate-limit.per-second:1}")
+    private double rateLimitPerSecond;
+
+    @Value("${api.udp.dedupe-window:PT5M}")
+    private Duration dedupeWindow;
+
+    private Connection connection;
+    private Cache<InetAddress, TokenBucket> buckets;
+    private Cache<String, Boolean> recentReadings;
+
+    private Counter acceptedCounter;
+    private Counter malformedCounter;
+    private Counter throttledCounter;
+    private Counter duplicateCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void start() {
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .maximumSize(100_000)
+                .build();
+        recentReadings = Caffeine.newBuilder()
+                .expireAfterWrite(dedupeWindow)
+                .maximumSize(1_000_000)
+                .build();
+
+        acceptedCounter = meterRegistry.counter("terrasense.udp.datagrams", "outcome", "accepted");
+        malformedCounter = meterRegistry.counter("terrasense.udp.datagrams", "outcome", "malformed");
+        throttledCounter = meterRegistry.counter("terrasense.udp.datagrams", "outcome", "throttled");
+        duplicateCounter = meterRegistry.counter("terrasense.udp.datagrams", "outcome", "duplicate");
+        failedCounter = meterRegistry.counter("terrasense.udp.datagrams", "outcome", "failed");
+
+        connection = UdpServer.create()
+                .host(host)
+                .port(port)
+                .handle((in, out) -> in.receiveObject()
+                        .ofType(DatagramPacket.class)
+                        // A decodificação precisa ser síncrona: o buffer é liberado após o onNext
+                        .flatMapIterable(this::decode)
+                        .flatMap(this::ingest, maxInFlight)
+                        .then())
+                .bindNow(Duration.ofSeconds(10));
+
+        log.info("Listener UDP de leituras ativo em {}:{}", host, port);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (connection != null) {
+            connection.disposeNow(Duration.ofSeconds(10));
+        }
+    }
+
+    private List<ReadingDatagram> decode(DatagramPacket packet) {
+        InetAddress source = packet.sender().getAddress();
+        if (buckets.get(source, address -> new TokenBucket(rateLimitCapacity, rateLimitPerSecond)).tryAcquire() > 0) {
+            throttledCounter.increment();
+            return List.of();
+        }
+
+        ReadingDatagram datagram;
+        try {
+            datagram = ReadingDatagram.decode(packet.content());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            malformedCounter.increment();
+            return List.of();
+        }
+
+        // A chave é reservada já aqui para descartar retransmissões concorrentes e liberada em ingest()
+        // se a gravação não der certo, para que o dispositivo possa reenviar a mesma leitura
+        if (datagram.hasTimestamp() && recentReadings.asMap().putIfAbsent(readingKey(datagram), Boolean.TRUE) != null) {
+            duplicateCounter.increment();
+            return List.of();
+        }
+
+        return List.of(datagram);
+    }
+
+    private Mono<Void> ingest(ReadingDatagram datagram) {
+        Mono<?> ingestion = deviceService.isBufferedIngest()
+                ? ingestMetrics.instrument(IngestMetrics.UDP,
+                        deviceService.enqueueReadings(datagram.apiKey(), List.of(datagram.toRegister())))
+                : ingestMetrics.instrument(IngestMetrics.UDP,
+                        deviceService.insertReadings(datagram.apiKey(), Flux.just(datagram.toRegister())));
+
+        return ingestion
+                .doOnSuccess(result -> {
+                    if (result instanceof ReadingBatchResponseDTO response
+                            && (response.rejected() > 0 || response.failed() > 0)) {
+                        release(datagram);
+                        failedCounter.increment();
+                        return;
+                    }
+                    acceptedCounter.increment();
+                })
+                .onErrorResume(e -> {
+                    release(datagram);
+                    failedCounter.increment();
+                    log.debug("Falha ao processar datagrama de leitura: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void release(ReadingDatagram datagram) {
+        if (datagram.hasTimestamp()) {
+            recentReadings.invalidate(readingKey(datagram));
+        }
+    }
+
+    private static String readingKey(ReadingDatagram datagram) {
+        return datagram.apiKey() + "|" + datagram.type() + "|" + datagram.timestampMillis();
+    }
+}
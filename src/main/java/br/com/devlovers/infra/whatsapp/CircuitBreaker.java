@@ -0,0 +1,68 @@
+package br.com.devlovers.infra.whatsapp;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker por falhas consecutivas: após {@code failureThreshold} falhas seguidas o
+ * circuito abre e as chamadas são recusadas até {@code openDuration}; depois disso uma única
+ * chamada de teste é liberada, que fecha o circuito se tiver sucesso ou o reabre se falhar.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1 || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("Limite de falhas e tempo de abertura do circuito devem ser positivos");
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return se a chamada pode ser feita agora
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        // Uma chamada de teste que não terminou (ex.: cancelada) libera outra após o mesmo intervalo
+        long now = System.nanoTime();
+        if (now - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            openedAt = now;
+            return true;
+        }
+
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
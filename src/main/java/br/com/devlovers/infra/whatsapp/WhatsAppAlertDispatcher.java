@@ -0,0 +1,170 @@
+package br.com.devlovers.infra.whatsapp;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.alert.ReadingAlert;
+import br.com.devlovers.domain.alert.enums.AlertStatus;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.services.alert.ReadingAlertListener;
+import br.com.devlovers.util.WppLoader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Envia os alertas de faixa de trabalho para o chat de WhatsApp do setor do dispositivo
+ * (wpp.api/chats.yml). Os alertas entram em uma fila limitada sem bloquear a ingestão e são
+ * agrupados por chat dentro de uma janela, de modo que uma rajada de alertas de vários
+ * dispositivos do mesmo setor gera uma única mensagem por janela.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.whatsapp.alerts.enabled", havingValue = "true")
+public class WhatsAppAlertDispatcher implements ReadingAlertListener {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM HH:mm")
+            .withZone(ZoneId.of("America/Sao_Paulo"));
+
+    @Autowired
+    private WhatsAppClient whatsAppClient;
+
+    @Autowired
+    private WppLoader wppLoader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.whatsapp.alerts.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${api.whatsapp.alerts.window:PT1M}")
+    private Duration window;
+
+    @Value("${api.whatsapp.alerts.max-alerts-per-window:500}")
+    private int maxAlertsPerWindow;
+
+    @Value("${api.whatsapp.alerts.max-lines:20}")
+    private int maxLines;
+
+    @Value("${api.whatsapp.alerts.default-chat:}")
+    private String defaultChat;
+
+    private Queue<ChatAlert> queue;
+    private Sinks.Many<ChatAlert> sink;
+    private Disposable subscription;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sink = Sinks.many().unicast().onBackpressureBuffer(queue);
+
+        Gauge.builder("terrasense.whatsapp.queue", queue, Queue::size)
+                .description("Alertas aguardando envio para o WhatsApp")
+                .register(meterRegistry);
+
+        // A thread de ingestão só enfileira. Um grupo por chat (poucos, um por setor),
+        // e cada chat envia suas mensagens em ordem
+        subscription = sink.asFlux()
+                .publishOn(Schedulers.parallel())
+                .groupBy(ChatAlert::chatId)
+                .flatMap(chat -> chat
+                        .bufferTimeout(maxAlertsPerWindow, window, true)
+                        .concatMap(alerts -> send(chat.key(), alerts)), Integer.MAX_VALUE)
+                .subscribe();
+    }
+
+    @Override
+    public void onAlert(ReadingAlert alert) {
+        String chatId = chatFor(alert);
+        if (chatId == null) {
+            count("no_chat", 1);
+            return;
+        }
+
+        Sinks.EmitResult result;
+        synchronized (sink) {
+            result = sink.tryEmitNext(new ChatAlert(chatId, alert));
+        }
+
+        if (result.isFailure()) {
+            count("dropped", 1);
+            log.warn("Fila de alertas do WhatsApp cheia ({}), alerta do dispositivo {} descartado",
+                    queueCapacity, alert.deviceName());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (sink) {
+            sink.tryEmitComplete();
+        }
+        subscription.dispose();
+    }
+
+    private String chatFor(ReadingAlert alert) {
+        String chatId = alert.sector() != null ? wppLoader.getChatIdBySector(alert.sector()) : null;
+        return chatId != null ? chatId : (defaultChat.isBlank() ? null : defaultChat);
+    }
+
+    private Mono<Void> send(String chatId, List<ChatAlert> alerts) {
+        return whatsAppClient.sendMessage(chatId, format(alerts))
+                .doOnSuccess(v -> count("sent", alerts.size()))
+                .onErrorResume(e -> {
+                    count("failed", alerts.size());
+                    log.warn("Falha ao enviar {} alertas para o chat {}: {}", alerts.size(), chatId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String format(List<ChatAlert> alerts) {
+        StringBuilder message = new StringBuilder("*TerraSense - alertas de faixa de trabalho*\n");
+
+        for (int i = 0; i < Math.min(alerts.size(), maxLines); i++) {
+            message.append('\n').append(line(alerts.get(i).alert()));
+        }
+
+        if (alerts.size() > maxLines) {
+            message.append("\n\n... e mais ").append(alerts.size() - maxLines).append(" alertas");
+        }
+
+        return message.toString();
+    }
+
+    private static String line(ReadingAlert alert) {
+        String type = alert.type() == ReadingType.HUMIDITY ? "umidade" : "temperatura";
+        String unit = alert.type() == ReadingType.HUMIDITY ? "%" : "°C";
+
+        if (alert.status() == AlertStatus.RESOLVED) {
+            return String.format(Locale.forLanguageTag("pt-BR"), "✅ %s: %s normalizada em %.1f%s (%s)",
+                    alert.deviceName(), type, alert.value(), unit, TIME_FORMATTER.format(alert.timestamp()));
+        }
+
+        return String.format(Locale.forLanguageTag("pt-BR"), "⚠️ %s: %s em %.1f%s, fora da faixa de %.1f a %.1f%s desde %s",
+                alert.deviceName(), type, alert.value(), unit, alert.minValue(), alert.maxValue(), unit,
+                TIME_FORMATTER.format(alert.since()));
+    }
+
+    private void count(String outcome, int alerts) {
+        meterRegistry.counter("terrasense.whatsapp.alerts", "outcome", outcome).increment(alerts);
+    }
+
+    private record ChatAlert(String chatId, ReadingAlert alert) {
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.devlovers.infra.whatsapp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import br.com.devlovers.infra.whatsapp.exceptions.WhatsAppUnavailableException;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+/**
+ * Cliente do gateway de WhatsApp (POST {url}/client/sendMessage/{sessão}, autenticado pelo
+ * header x-api-key). Usa um pool de conexões próprio, repete falhas transitórias (5xx, 429,
+ * rede) com backoff exponencial e jitter e protege o gateway com um {@link CircuitBreaker}.
+ */
+@Component
+public class WhatsAppClient {
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final CircuitBreaker circuitBreaker;
+    private final String sessionId;
+
+    @Value("${api.whatsapp.retry.max-attempts:3}")
+    private int maxRetries = 3;
+
+    @Value("${api.whatsapp.retry.min-backoff:PT1S}")
+    private Duration minBackoff = Duration.ofSeconds(1);
+
+    @Value("${api.whatsapp.retry.max-backoff:PT30S}")
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    public WhatsAppClient(WebClient.Builder webClientBuilder,
+            @Value("${api.whatsapp.url}") String baseUrl,
+            @Value("${api.whatsapp.session.id}") String sessionId,
+            @Value("${api.whatsapp.token.secret}") String token,
+            @Value("${api.whatsapp.pool.max-connections:4}") int maxConnections,
+            @Value("${api.whatsapp.timeout:PT10S}") Duration timeout,
+            @Value("${api.whatsapp.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${api.whatsapp.circuit-breaker.open-duration:PT1M}") Duration openDuration) {
+        this.connectionProvider = ConnectionProvider.builder("whatsapp")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxConnections * 8)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(timeout.toMillis(), Integer.MAX_VALUE))
+                .responseTimeout(timeout);
+
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader("x-api-key", token)
+                .build();
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Envia uma mensagem de texto para o chat (contato ou grupo).
+     * Falha com {@link WhatsAppUnavailableException} enquanto o circuito estiver aberto.
+     */
+    public Mono<Void> sendMessage(String chatId, String content) {
+        return Mono.defer(() -> {
+                    if (!circuitBreaker.tryAcquire()) {
+                        return Mono.error(new WhatsAppUnavailableException("Gateway de WhatsApp indisponível (circuito aberto)"));
+                    }
+
+                    return webClient.post()
+                            .uri("/client/sendMessage/{sessionId}", sessionId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(Map.of("chatId", chatId, "contentType", "string", "content", content))
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess(response -> circuitBreaker.onSuccess())
+                            .doOnError(e -> {
+                                // Erros do cliente (ex.: chat inexistente) não indicam gateway indisponível
+                                if (isTransient(e)) {
+                                    circuitBreaker.onFailure();
+                                }
+                            })
+                            .then();
+                })
+                .retryWhen(Retry.backoff(maxRetries, minBackoff)
+                        .maxBackoff(maxBackoff)
+                        .jitter(0.5)
+                        .filter(WhatsAppClient::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+
+        return e instanceof WebClientRequestException || e instanceof IOException || e instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.devlovers.infra.whatsapp.exceptions;
+
+public class WhatsAppUnavailableException extends RuntimeException {
+    public WhatsAppUnavailableException(String message) {
+        super(message);
+    }
+}
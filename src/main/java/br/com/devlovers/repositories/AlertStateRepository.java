@@ -0,0 +1,8 @@
+package br.com.devlovers.repositories;
+
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+
+import br.com.devlovers.domain.alert.AlertState;
+
+public interface AlertStateRepository extends ReactiveCassandraRepository<AlertState, AlertState.AlertStateKey> {
+}
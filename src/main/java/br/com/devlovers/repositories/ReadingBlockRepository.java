@@ -0,0 +1,17 @@
+package br.com.devlovers.repositories;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import reactor.core.publisher.Flux;
+
+public interface ReadingBlockRepository extends ReactiveCassandraRepository<ReadingBlock, ReadingBlock.ReadingBlockKey> {
+
+    @Query("SELECT * FROM tb_reading_blocks WHERE deviceid = :deviceId AND readingtype = :readingType AND date >= :first AND date <= :last")
+    Flux<ReadingBlock> findByDateRange(UUID deviceId, ReadingType readingType, LocalDate first, LocalDate last);
+}
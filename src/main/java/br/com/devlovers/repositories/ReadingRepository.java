@@ -10,6 +10,7 @@ import org.springframework.data.cassandra.repository.ReactiveCassandraRepository
 import br.com.devlovers.domain.reading.Reading;
 import br.com.devlovers.domain.reading.enums.ReadingType;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface ReadingRepository extends ReactiveCassandraRepository<Reading, Reading.DeviceReadingKey> {
     
@@ -17,4 +18,15 @@ public interface ReadingRepository extends ReactiveCassandraRepository<Reading,
 
     @Query("SELECT * FROM tb_sensor_readings WHERE deviceid = :deviceId AND date = :date AND readingtype = :readingType AND timestamp >= :start AND timestamp <= :end")
     Flux<Reading> findByAllCriteria(UUID deviceId, LocalDate date, ReadingType readingType, Instant start, Instant end);
+
+    // Ordem inversa à da tabela (readingtype ASC, timestamp DESC): leituras em ordem crescente de momento
+    @Query("SELECT * FROM tb_sensor_readings WHERE deviceid = :deviceId AND date = :date AND readingtype = :readingType AND timestamp >= :start AND timestamp <= :end ORDER BY readingtype DESC, timestamp ASC")
+    Flux<Reading> findByAllCriteriaAscending(UUID deviceId, LocalDate date, ReadingType readingType, Instant start, Instant end);
+
+    @Query("SELECT * FROM tb_sensor_readings WHERE deviceid = :deviceId AND date = :date AND readingtype = :readingType")
+    Flux<Reading> findByPartition(UUID deviceId, LocalDate date, ReadingType readingType);
+
+    // As leituras de um tipo são ordenadas por timestamp DESC na partição: a primeira é a mais recente
+    @Query("SELECT * FROM tb_sensor_readings WHERE deviceid = :deviceId AND date = :date AND readingtype = :readingType LIMIT 1")
+    Mono<Reading> findLatest(UUID deviceId, LocalDate date, ReadingType readingType);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package br.com.devlovers.repositories;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+
+import br.com.devlovers.domain.reading.ReadingRollup;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import reactor.core.publisher.Flux;
+
+public interface ReadingRollupRepository extends ReactiveCassandraRepository<ReadingRollup, ReadingRollup.ReadingRollupKey> {
+
+    @Query("SELECT * FROM tb_reading_rollups WHERE deviceid = :deviceId AND readingtype = :readingType AND granularity = :granularity AND bucket >= :start AND bucket < :end")
+    Flux<ReadingRollup> findByBucketRange(UUID deviceId, ReadingType readingType, RollupGranularity granularity, Instant start, Instant end);
+}
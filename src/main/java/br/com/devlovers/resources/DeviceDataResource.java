@@ -1,13 +1,22 @@
 package br.com.devlovers.resources;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,6 +29,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import br.com.devlovers.domain.device.Device;
 import br.com.devlovers.domain.device.Device.DeviceKey;
 import br.com.devlovers.domain.device.dto.DeviceRegisterDTO;
@@ -27,9 +38,20 @@ import br.com.devlovers.domain.device.dto.DeviceResponseDTO;
 import br.com.devlovers.domain.device.dto.DeviceUpdateDTO;
 import br.com.devlovers.domain.device.enums.Branch;
 import br.com.devlovers.domain.device.enums.Function;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.dto.FleetReadingDTO;
+import br.com.devlovers.domain.reading.dto.LatestReadingDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBatchResponseDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBucketDTO;
+import br.com.devlovers.domain.reading.dto.ReadingImportProgressDTO;
+import br.com.devlovers.domain.reading.dto.ReadingPageDTO;
 import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
 import br.com.devlovers.domain.reading.dto.ReadingResponseDTO;
+import br.com.devlovers.domain.reading.dto.ReadingRollupDTO;
+import br.com.devlovers.domain.reading.enums.ReadingImportFormat;
 import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import br.com.devlovers.infra.metrics.IngestMetrics;
 import br.com.devlovers.infra.security.KeyGeneratorService;
 import br.com.devlovers.resources.exceptions.StandardError;
 import br.com.devlovers.services.DeviceService;
@@ -53,6 +75,11 @@ public class DeviceDataResource {
     @Autowired
     private KeyGeneratorService keyGeneratorService;
 
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
+    private static final Duration SSE_KEEP_ALIVE = Duration.ofSeconds(15);
+
     @PostMapping
     @SecurityRequirement(name = "bearer-key")
     @Operation(summary = "Insere um novo dispositivo")
@@ -85,20 +112,84 @@ public class DeviceDataResource {
     @SecurityRequirement(name = "api-key-scheme")
     @Operation(summary = "Insere uma nova leitura")
     @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leitura já recebida anteriormente (retransmissão com a mesma sequência)"),
             @ApiResponse(responseCode = "201", description = "Leitura criada com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingResponseDTO.class, name = "ReadResponse"))),
+            @ApiResponse(responseCode = "202", description = "Leitura aceita para gravação assíncrona (buffer de ingestão habilitado)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingResponseDTO.class, name = "ReadResponse"))),
             @ApiResponse(responseCode = "400", description = "Erro de validação", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
-            @ApiResponse(responseCode = "401", description = "Chave de API inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+            @ApiResponse(responseCode = "401", description = "Chave de API inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "429", description = "Buffer de ingestão cheio ou limite de envio do dispositivo excedido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
     })
     public Mono<ResponseEntity<ReadingResponseDTO>> insertReading(
             @Valid @RequestBody ReadingRegisterDTO data,
             @RequestHeader("X-API-KEY") String apiKey) {
 
-        return service.findDeviceByApiKey(apiKey)
-                .flatMap(device -> service.insertReading(apiKey, data.type(), data.value()))
+        if (service.isBufferedIngest()) {
+            return ingestMetrics.instrument(IngestMetrics.SINGLE, service.enqueueReading(apiKey, data))
+                    .map(reading -> {
+                        ReadingResponseDTO response = new ReadingResponseDTO(reading);
+                        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+                    })
+                    .defaultIfEmpty(ResponseEntity.ok().build());
+        }
+
+        return ingestMetrics.instrument(IngestMetrics.SINGLE, service.insertReading(apiKey, data))
                 .map(reading -> {
                     ReadingResponseDTO response = new ReadingResponseDTO(reading);
                     return ResponseEntity.status(HttpStatus.CREATED).body(response);
-                });
+                })
+                // Retransmissão de uma leitura já recebida (mesma sequência): nada a gravar
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    @PostMapping(value = "/readings/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @SecurityRequirement(name = "api-key-scheme")
+    @Operation(summary = "Insere um lote de leituras (array JSON ou NDJSON)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado, com o resultado de cada leitura", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingBatchResponseDTO.class, name = "ReadingBatchResponse"))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "401", description = "Chave de API inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "429", description = "Limite de envio do dispositivo excedido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Mono<ResponseEntity<ReadingBatchResponseDTO>> insertReadings(
+            @RequestBody Flux<ReadingRegisterDTO> data,
+            @RequestHeader("X-API-KEY") String apiKey) {
+
+        return ingestMetrics.instrument(IngestMetrics.BATCH, service.insertReadings(apiKey, data))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/readings/tasmota", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @SecurityRequirement(name = "api-key-scheme")
+    @Operation(summary = "Insere as leituras de uma mensagem de telemetria do Tasmota (tele/<topic>/SENSOR)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Telemetria processada, com o resultado de cada leitura", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingBatchResponseDTO.class, name = "ReadingBatchResponse"))),
+            @ApiResponse(responseCode = "400", description = "Nenhuma medição do sensor do dispositivo na telemetria", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "401", description = "Chave de API inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "429", description = "Limite de envio do dispositivo excedido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Mono<ResponseEntity<ReadingBatchResponseDTO>> insertTasmotaTelemetry(
+            @RequestBody JsonNode payload,
+            @RequestHeader("X-API-KEY") String apiKey) {
+
+        return ingestMetrics.instrument(IngestMetrics.TASMOTA, service.insertTasmotaTelemetry(apiKey, payload))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/{deviceId}/readings/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Importa leituras históricas em massa (CSV timestamp,type,value ou NDJSON), retornando o progresso como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação iniciada; o progresso é enviado periodicamente até a conclusão", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ReadingImportProgressDTO.class, name = "ReadingImportProgress"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<ReadingImportProgressDTO> importReadings(@PathVariable UUID deviceId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody Flux<DataBuffer> body) {
+        Flux<String> lines = StringDecoder.textPlainOnly()
+                .decode(body, ResolvableType.forClass(String.class), null, Collections.emptyMap());
+
+        return service.importReadings(deviceId, lines, ReadingImportFormat.fromContentType(contentType));
     }
 
     @GetMapping(value = "/{deviceId}/readings")
@@ -119,6 +210,161 @@ public class DeviceDataResource {
         return ResponseEntity.ok(readings);
     }
 
+    @GetMapping(value = "/{deviceId}/readings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Transmite leituras de um dispositivo em NDJSON (uma leitura por linha, à medida que são lidas)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leituras obtidas com sucesso", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ReadingResponseDTO.class, name = "ReadResponse"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<ReadingResponseDTO> streamReadingsByDevice(@PathVariable UUID deviceId,
+            @RequestParam ReadingType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        return service.findReadings(deviceId, type, start, end)
+                .map(reading -> new ReadingResponseDTO(reading));
+    }
+
+    @GetMapping(value = "/{deviceId}/readings", produces = "text/csv")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Transmite leituras de um dispositivo em CSV (timestamp,value)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leituras obtidas com sucesso", content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<String> findReadingsByDeviceAsCsv(@PathVariable UUID deviceId,
+            @RequestParam ReadingType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        // Cabeçalho só após a primeira página, para que um 404 ainda possa ser respondido como JSON
+        return service.findReadings(deviceId, type, start, end)
+                .map(reading -> reading.getTimestamp() + "," + reading.getValue() + "\n")
+                .switchOnFirst((first, rows) -> first.hasValue()
+                        ? Flux.concat(Mono.just("timestamp,value\n"), rows)
+                        : rows.defaultIfEmpty("timestamp,value\n"));
+    }
+
+    @GetMapping(value = "/{deviceId}/readings/page")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Busca leituras de um dispositivo paginadas por cursor (ordem crescente de momento)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de leituras obtida com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingPageDTO.class, name = "ReadingPage"))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou de outra consulta", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Mono<ReadingPageDTO> findReadingsPageByDevice(@PathVariable UUID deviceId,
+            @RequestParam ReadingType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "500") int pageSize,
+            @RequestParam(required = false) String cursor) {
+        return service.findReadingsPage(deviceId, type, start, end, pageSize, cursor);
+    }
+
+    @GetMapping(value = "/{deviceId}/readings/downsampled")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Busca leituras reamostradas (mínimo, máximo e média por intervalo) para gráficos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leituras obtidas com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingBucketDTO.class, name = "ReadingBucket"))),
+            @ApiResponse(responseCode = "400", description = "Período, resolução ou quantidade de pontos inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<ReadingBucketDTO> findDownsampledReadingsByDevice(@PathVariable UUID deviceId,
+            @RequestParam ReadingType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(required = false) Duration resolution,
+            @RequestParam(required = false) Integer maxPoints) {
+        return service.findDownsampledReadings(deviceId, type, start, end, resolution, maxPoints);
+    }
+
+    @GetMapping(value = "/{deviceId}/readings/rollups")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Busca os agregados por hora ou por dia (contagem, mínimo, máximo, média, desvio padrão) de um dispositivo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Agregados obtidos com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingRollupDTO.class, name = "ReadingRollup"))),
+            @ApiResponse(responseCode = "400", description = "Período inválido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<ReadingRollupDTO> findRollupsByDevice(@PathVariable UUID deviceId,
+            @RequestParam ReadingType type,
+            @RequestParam RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        return service.findRollups(deviceId, type, granularity, start, end);
+    }
+
+    @GetMapping(value = "/{deviceId}/readings/latest")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Busca a última leitura de cada tipo de um dispositivo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Últimas leituras obtidas com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = LatestReadingDTO.class, name = "LatestReading"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<LatestReadingDTO> findLatestReadings(@PathVariable UUID deviceId) {
+        return service.findLatestReadings(deviceId)
+                .map(reading -> new LatestReadingDTO(reading));
+    }
+
+    @GetMapping(value = "/user/{userId}/readings", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Busca leituras de todos os dispositivos do usuário (opcionalmente de um setor ou filial) em uma única requisição")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leituras obtidas com sucesso; um item com truncated=true indica que as leituras daquele dispositivo estão incompletas", content = @Content(mediaType = "application/json", schema = @Schema(implementation = FleetReadingDTO.class, name = "FleetReading"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<FleetReadingDTO> findFleetReadings(@PathVariable UUID userId,
+            @RequestParam ReadingType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) Branch branch) {
+        return service.findFleetReadings(userId, type, start, end, sector, branch);
+    }
+
+    @GetMapping(value = "/user/{userId}/readings/latest")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Busca a última leitura de cada tipo de todos os dispositivos do usuário")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Últimas leituras obtidas com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = LatestReadingDTO.class, name = "LatestReading"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<LatestReadingDTO> findLatestReadingsByUserId(@PathVariable UUID userId) {
+        return service.findLatestReadingsByUserId(userId)
+                .map(reading -> new LatestReadingDTO(reading));
+    }
+
+    @GetMapping(value = "/readings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Transmite ao vivo (SSE) as leituras gravadas dos dispositivos informados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de leituras iniciado", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = LatestReadingDTO.class, name = "LatestReading"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<ServerSentEvent<LatestReadingDTO>> streamReadings(@RequestParam Set<UUID> deviceIds) {
+        return toServerSentEvents(service.streamReadings(deviceIds));
+    }
+
+    @GetMapping(value = "/user/{userId}/readings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(summary = "Transmite ao vivo (SSE) as leituras gravadas de todos os dispositivos do usuário")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de leituras iniciado", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = LatestReadingDTO.class, name = "LatestReading"))),
+            @ApiResponse(responseCode = "401", description = "Token expirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public Flux<ServerSentEvent<LatestReadingDTO>> streamReadingsByUserId(@PathVariable UUID userId) {
+        return toServerSentEvents(service.streamReadingsByUserId(userId));
+    }
+
     @GetMapping(value = "/{id}")
     @SecurityRequirement(name = "bearer-key")
     @Operation(summary = "Busca um dispositivo a partir de seu id")
@@ -201,4 +447,18 @@ public class DeviceDataResource {
         return service.deleteDevice(id)
                 .then(Mono.just(ResponseEntity.noContent().build()));
     }
-}
\ No newline at end of file
+
+    // Comentários periódicos mantêm a conexão aberta em proxies com timeout de inatividade
+    private Flux<ServerSentEvent<LatestReadingDTO>> toServerSentEvents(Flux<Reading> readings) {
+        Flux<ServerSentEvent<LatestReadingDTO>> events = readings
+                .map(reading -> ServerSentEvent.builder(new LatestReadingDTO(reading))
+                        .event("reading")
+                        .build());
+        Flux<ServerSentEvent<LatestReadingDTO>> keepAlive = Flux.interval(SSE_KEEP_ALIVE)
+                .map(tick -> ServerSentEvent.<LatestReadingDTO>builder()
+                        .comment("keep-alive")
+                        .build());
+
+        return Flux.merge(events, keepAlive);
+    }
+}
@@ -12,6 +12,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
 
+import br.com.devlovers.services.exceptions.InvalidBatchException;
+import br.com.devlovers.services.exceptions.InvalidCursorException;
+import br.com.devlovers.services.exceptions.InvalidReadingException;
 import br.com.devlovers.services.exceptions.InvalidTimePeriodException;
 import reactor.core.publisher.Mono;
 
@@ -54,6 +57,45 @@ public class ArgumentNotValidExceptionHandler {
         return Mono.just(ResponseEntity.status(status).body(err));
     }
 
+    @ExceptionHandler(InvalidBatchException.class)
+    public Mono<ResponseEntity<StandardError>> handleInvalidBatchException(InvalidBatchException e,
+            ServerWebExchange exchange) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError(
+                Instant.now(),
+                status.value(),
+                "Invalid batch",
+                e.getMessage(),
+                exchange.getRequest().getPath().toString());
+        return Mono.just(ResponseEntity.status(status).body(err));
+    }
+
+    @ExceptionHandler(InvalidReadingException.class)
+    public Mono<ResponseEntity<StandardError>> handleInvalidReadingException(InvalidReadingException e,
+            ServerWebExchange exchange) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError(
+                Instant.now(),
+                status.value(),
+                "Invalid reading",
+                e.getMessage(),
+                exchange.getRequest().getPath().toString());
+        return Mono.just(ResponseEntity.status(status).body(err));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public Mono<ResponseEntity<StandardError>> handleInvalidCursorException(InvalidCursorException e,
+            ServerWebExchange exchange) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError(
+                Instant.now(),
+                status.value(),
+                "Invalid cursor",
+                e.getMessage(),
+                exchange.getRequest().getPath().toString());
+        return Mono.just(ResponseEntity.status(status).body(err));
+    }
+
     private record DataErrorValidation(String field, String message) {
         public DataErrorValidation(FieldError error) {
             this(error.getField(), error.getDefaultMessage());
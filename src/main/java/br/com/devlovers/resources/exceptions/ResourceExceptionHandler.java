@@ -2,6 +2,7 @@ package br.com.devlovers.resources.exceptions;
 
 import java.time.Instant;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,6 +14,8 @@ import org.springframework.web.server.ServerWebExchange;
 import br.com.devlovers.services.exceptions.DeviceAlreadyExistsException;
 import br.com.devlovers.services.exceptions.EmailSendingException;
 import br.com.devlovers.services.exceptions.FileException;
+import br.com.devlovers.services.exceptions.IngestBufferFullException;
+import br.com.devlovers.services.exceptions.RateLimitExceededException;
 import br.com.devlovers.services.exceptions.ReportGenerationException;
 import br.com.devlovers.services.exceptions.ResourceNotFoundException;
 import br.com.devlovers.services.exceptions.SignatureAlreadyExistsException;
@@ -139,6 +142,36 @@ public class ResourceExceptionHandler {
                 return Mono.just(ResponseEntity.status(status).body(err));
         }
 
+        @ExceptionHandler(IngestBufferFullException.class)
+        public Mono<ResponseEntity<StandardError>> handleIngestBufferFullException(IngestBufferFullException e,
+                        ServerWebExchange exchange) {
+                HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+                StandardError err = new StandardError(
+                                Instant.now(),
+                                status.value(),
+                                "Ingest buffer full",
+                                e.getMessage(),
+                                exchange.getRequest().getPath().toString());
+                return Mono.just(ResponseEntity.status(status)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                                .body(err));
+        }
+
+        @ExceptionHandler(RateLimitExceededException.class)
+        public Mono<ResponseEntity<StandardError>> handleRateLimitExceededException(RateLimitExceededException e,
+                        ServerWebExchange exchange) {
+                HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+                StandardError err = new StandardError(
+                                Instant.now(),
+                                status.value(),
+                                "Rate limit exceeded",
+                                e.getMessage(),
+                                exchange.getRequest().getPath().toString());
+                return Mono.just(ResponseEntity.status(status)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                                .body(err));
+        }
+
         @ExceptionHandler(Exception.class)
         public Mono<ResponseEntity<StandardError>> handleGenericException(Exception e, ServerWebExchange exchange) {
                 HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
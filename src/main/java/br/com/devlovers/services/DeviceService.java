@@ -1,39 +1,88 @@
 package br.com.devlovers.services;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.cassandra.core.InsertOptions;
-import org.springframework.data.cassandra.core.ReactiveCassandraTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.com.devlovers.cache.ClosedDayReadingCache;
+import br.com.devlovers.cache.DeviceIdentityCache;
+import br.com.devlovers.cache.LatestReadingCache;
 import br.com.devlovers.domain.device.Device;
 import br.com.devlovers.domain.device.DeviceByApiKey;
 import br.com.devlovers.domain.device.DeviceByApiKey.DeviceByApiKeyKey;
 import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.device.DeviceIdentity;
 import br.com.devlovers.domain.device.DeviceByUserId;
 import br.com.devlovers.domain.device.DeviceByUserId.DeviceByUserIdKey;
 import br.com.devlovers.domain.device.dto.DeviceUpdateDTO;
+import br.com.devlovers.domain.device.enums.Branch;
 import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.dto.FleetReadingDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBatchItemResultDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBatchResponseDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBucketDTO;
+import br.com.devlovers.domain.reading.dto.ReadingImportProgressDTO;
+import br.com.devlovers.domain.reading.dto.ReadingPageDTO;
+import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
+import br.com.devlovers.domain.reading.dto.ReadingRollupDTO;
+import br.com.devlovers.domain.reading.enums.ReadingBatchItemStatus;
+import br.com.devlovers.domain.reading.enums.ReadingImportFormat;
 import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.infra.ratelimit.IngestRateLimiter;
 import br.com.devlovers.repositories.DeviceByApiKeyRepository;
 import br.com.devlovers.repositories.DeviceByIdRepository;
 import br.com.devlovers.repositories.DeviceByUserIdRepository;
 import br.com.devlovers.repositories.DeviceRepository;
 import br.com.devlovers.repositories.ReadingRepository;
+import br.com.devlovers.repositories.ReadingRollupRepository;
 import br.com.devlovers.repositories.UserByIdRepository;
+import br.com.devlovers.services.alert.ReadingAlertEngine;
 import br.com.devlovers.services.exceptions.DeviceAlreadyExistsException;
+import br.com.devlovers.services.exceptions.IngestBufferFullException;
+import br.com.devlovers.services.exceptions.InvalidBatchException;
+import br.com.devlovers.services.exceptions.InvalidReadingException;
+import br.com.devlovers.services.exceptions.InvalidTimePeriodException;
+import br.com.devlovers.services.exceptions.RateLimitExceededException;
 import br.com.devlovers.services.exceptions.ResourceNotFoundException;
-import br.com.devlovers.util.DateRangePicker;
+import br.com.devlovers.services.reading.PartitionPlanner;
+import br.com.devlovers.services.reading.ReadingBlockStore;
+import br.com.devlovers.services.reading.ReadingDeadband;
+import br.com.devlovers.services.reading.ReadingDownsampler;
+import br.com.devlovers.services.reading.ReadingImportParser;
+import br.com.devlovers.services.reading.ReadingImportProgress;
+import br.com.devlovers.services.reading.ReadingIngestBuffer;
+import br.com.devlovers.services.reading.ReadingPager;
+import br.com.devlovers.services.reading.ReadingSequenceTracker;
+import br.com.devlovers.services.reading.ReadingStream;
+import br.com.devlovers.services.reading.ReadingWriter;
+import br.com.devlovers.services.reading.TasmotaTelemetryParser;
+import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+@Slf4j
 @Service
 public class DeviceService {
 
@@ -52,15 +101,80 @@ public class DeviceService {
     @Autowired
     private UserByIdRepository userByIdRepository;
 
-    @Autowired
-    private ReactiveCassandraTemplate cassandraTemplate;
-
     @Autowired
     private WebClient.Builder webClientBuilder;
 
     @Autowired
     private ReadingRepository readingRepository;
 
+    @Autowired
+    private ReadingRollupRepository readingRollupRepository;
+
+    @Autowired
+    private ReadingWriter readingWriter;
+
+    @Autowired
+    private DeviceIdentityCache deviceIdentityCache;
+
+    @Autowired
+    private ReadingIngestBuffer readingIngestBuffer;
+
+    @Autowired
+    private ReadingSequenceTracker readingSequenceTracker;
+
+    @Autowired
+    private IngestRateLimiter ingestRateLimiter;
+
+    @Autowired
+    private ReadingDeadband readingDeadband;
+
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
+    @Autowired
+    private LatestReadingCache latestReadingCache;
+
+    @Autowired
+    private ReadingStream readingStream;
+
+    @Autowired
+    private ReadingAlertEngine readingAlertEngine;
+
+    @Autowired
+    private ReadingPager readingPager;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Autowired
+    private ClosedDayReadingCache closedDayReadingCache;
+
+    @Autowired
+    private ReadingBlockStore readingBlockStore;
+
+    @Value("${api.readings.batch.max-size:1000}")
+    private int batchMaxSize = 1000;
+
+    @Value("${api.readings.query.concurrency:8}")
+    private int queryConcurrency = 8;
+
+    @Value("${api.readings.fleet.concurrency:8}")
+    private int fleetConcurrency = 8;
+
+    @Value("${api.readings.fleet.partition-timeout:PT10S}")
+    private Duration fleetPartitionTimeout = Duration.ofSeconds(10);
+
+    @Value("${api.readings.import.chunk-size:5000}")
+    private int importChunkSize = 5000;
+
+    @Value("${api.readings.import.concurrency:2}")
+    private int importConcurrency = 2;
+
+    @Value("${api.readings.import.progress-interval:PT1S}")
+    private Duration importProgressInterval = Duration.ofSeconds(1);
+
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
     @Transactional
     public Mono<Device> insertDevice(Device device) {
         return userByIdRepository.findById(device.getOwnerId())
@@ -86,6 +200,7 @@ public class DeviceService {
                                                 return deviceByIdRepository.save(deviceById)
                                                         .then(deviceByApiKeyRepository.save(deviceByApiKey))
                                                         .then(deviceByUserIdRepository.save(deviceByUserId))
+                                                        .doOnSuccess(saved -> deviceIdentityCache.invalidate(savedDevice.getApiKey()))
                                                         .thenReturn(savedDevice);
                                             });
                                 })
@@ -93,38 +208,458 @@ public class DeviceService {
     }
 
     @Transactional
-    public Mono<Reading> insertReading(String apiKey, ReadingType readingType, Double value) {
-        return deviceByApiKeyRepository.findByKeyApiKey(apiKey)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Dispositivo não encontrado: Chave " + apiKey)))
-                .flatMap(deviceByApiKey -> {
-                    Instant now = Instant.now();
-                    Reading reading = new Reading(
-                            new Reading.DeviceReadingKey(deviceByApiKey.getKey().getId(), LocalDate.now(), readingType, now),
-                            value);
-
-                    int ttl = 63072000;
-                    return cassandraTemplate
-                            .insert(reading, InsertOptions.builder().ttl(ttl).build())
-                            .thenReturn(reading);
+    public Mono<Reading> insertReading(String apiKey, ReadingRegisterDTO data) {
+        return resolveDevice(apiKey)
+                .flatMap(device -> admit(device, 1))
+                .flatMap(device -> {
+                    Reading reading = toReading(device.id(), data, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+
+                    if (isRetransmission(device.id(), data)) {
+                        return Mono.empty();
+                    }
+
+                    List<Reading> toStore = compress(device, reading);
+                    return Flux.fromIterable(toStore)
+                            .concatMap(readingWriter::insert)
+                            .then(Mono.just(reading))
+                            .doOnSuccess(inserted -> ingestMetrics.recordReadings(device, 1))
+                            .doOnError(e -> {
+                                releaseSequence(device.id(), data);
+                                toStore.forEach(readingDeadband::rollback);
+                            });
+                });
+    }
+
+    public boolean isBufferedIngest() {
+        return readingIngestBuffer.isEnabled();
+    }
+
+    public Mono<Reading> enqueueReading(String apiKey, ReadingRegisterDTO data) {
+        return resolveDevice(apiKey)
+                .flatMap(device -> enqueue(device, List.of(data)))
+                .flatMap(readings -> Mono.justOrEmpty(readings.stream().findFirst()));
+    }
+
+    public Mono<ReadingBatchResponseDTO> insertReadings(String apiKey, Flux<ReadingRegisterDTO> data) {
+        return data.take(batchMaxSize + 1L)
+                .collectList()
+                .flatMap(items -> {
+                    if (items.isEmpty()) {
+                        return Mono.error(new InvalidBatchException("O lote deve conter ao menos uma leitura"));
+                    }
+
+                    if (items.size() > batchMaxSize) {
+                        return Mono.error(new InvalidBatchException(
+                                "O lote não deve ultrapassar " + batchMaxSize + " leituras"));
+                    }
+
+                    return resolveDevice(apiKey)
+                            .flatMap(device -> admit(device, items.size()))
+                            .flatMap(device -> writeBatch(device, items));
+                });
+    }
+
+    public Flux<ReadingImportProgressDTO> importReadings(UUID deviceId, Flux<String> lines,
+            ReadingImportFormat format) {
+        return findDeviceById(deviceId)
+                .flatMapMany(device -> {
+                    ReadingImportProgress progress = new ReadingImportProgress();
+
+                    Flux<ReadingImportProgressDTO> writes = lines
+                            .index()
+                            .filter(line -> !line.getT2().isBlank() && !ReadingImportParser.isHeader(line.getT2(), format))
+                            .<Reading>handle((line, sink) -> {
+                                try {
+                                    ReadingRegisterDTO item = ReadingImportParser.parse(line.getT2(), format);
+                                    sink.next(toReading(deviceId, item, Instant.now().truncatedTo(ChronoUnit.MILLIS)));
+                                    progress.parsed();
+                                } catch (IllegalArgumentException | InvalidReadingException e) {
+                                    progress.rejected(line.getT1() + 1, e.getMessage());
+                                }
+                            })
+                            .buffer(Math.max(1, importChunkSize))
+                            .flatMap(chunk -> readingWriter.importHistory(chunk).doOnNext(progress::record),
+                                    Math.max(1, importConcurrency))
+                            .map(result -> progress.snapshot(false));
+
+                    return Flux.concat(
+                            writes.sample(importProgressInterval),
+                            Mono.fromSupplier(() -> progress.snapshot(true)));
                 });
     }
 
+    public Mono<ReadingBatchResponseDTO> insertTasmotaTelemetry(String apiKey, JsonNode payload) {
+        return resolveDevice(apiKey)
+                .flatMap(device -> {
+                    List<ReadingRegisterDTO> items = TasmotaTelemetryParser.parse(payload, device.sensor());
+
+                    if (items.isEmpty()) {
+                        return Mono.error(new InvalidBatchException(
+                                "Nenhuma medição do sensor " + device.sensor() + " encontrada na telemetria"));
+                    }
+
+                    return admit(device, items.size())
+                            .flatMap(admitted -> writeBatch(admitted, items));
+                });
+    }
+
+    public Mono<List<Reading>> enqueueTasmotaTelemetry(String apiKey, JsonNode payload) {
+        return resolveDevice(apiKey)
+                .flatMap(device -> enqueue(device, TasmotaTelemetryParser.parse(payload, device.sensor())));
+    }
+
+    public Mono<List<Reading>> enqueueReadings(String apiKey, List<ReadingRegisterDTO> items) {
+        return resolveDevice(apiKey)
+                .flatMap(device -> enqueue(device, items));
+    }
+
+    private Mono<List<Reading>> enqueue(DeviceIdentity device, List<ReadingRegisterDTO> items) {
+        long retryAfterSeconds = ingestRateLimiter.tryAcquire(device, items.size());
+        if (retryAfterSeconds > 0) {
+            return Mono.error(rateLimitExceeded(device, retryAfterSeconds));
+        }
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Reading> readings = new ArrayList<>();
+
+        for (ReadingRegisterDTO item : items) {
+            readings.add(toReading(device.id(), item, now));
+        }
+
+        List<Reading> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ReadingRegisterDTO item = items.get(i);
+            if (isRetransmission(device.id(), item)) {
+                continue;
+            }
+
+            List<Reading> toStore = compress(device, readings.get(i));
+            for (Reading reading : toStore) {
+                if (!readingIngestBuffer.offer(reading)) {
+                    releaseSequence(device.id(), item);
+                    toStore.forEach(readingDeadband::rollback);
+                    return Mono.error(new IngestBufferFullException(
+                            "Buffer de leituras cheio, tente novamente em instantes",
+                            readingIngestBuffer.getRetryAfterSeconds()));
+                }
+            }
+            accepted.add(readings.get(i));
+        }
+
+        ingestMetrics.recordReadings(device, accepted.size());
+        return Mono.just(accepted);
+    }
+
+    // Alertas avaliados antes da banda morta: toda leitura aceita conta, inclusive as não gravadas
+    private List<Reading> compress(DeviceIdentity device, Reading reading) {
+        readingAlertEngine.evaluate(device, reading);
+        return readingDeadband.isEnabled(device) ? readingDeadband.filter(device.id(), reading) : List.of(reading);
+    }
+
+    private Mono<DeviceIdentity> admit(DeviceIdentity device, int readings) {
+        long retryAfterSeconds = ingestRateLimiter.tryAcquire(device, readings);
+        if (retryAfterSeconds > 0) {
+            return Mono.error(rateLimitExceeded(device, retryAfterSeconds));
+        }
+        return Mono.just(device);
+    }
+
+    private static RateLimitExceededException rateLimitExceeded(DeviceIdentity device, long retryAfterSeconds) {
+        return new RateLimitExceededException(
+                "Limite de envio de leituras excedido para o dispositivo " + device.name(), retryAfterSeconds);
+    }
+
+    private Reading toReading(UUID deviceId, ReadingRegisterDTO item, Instant now) {
+        Instant timestamp = item.timestamp() != null ? item.timestamp().truncatedTo(ChronoUnit.MILLIS) : now;
+
+        String error = validateReading(item, timestamp, now);
+        if (error != null) {
+            throw new InvalidReadingException(error);
+        }
+
+        return new Reading(
+                new Reading.DeviceReadingKey(deviceId, partitionPlanner.partitionDate(timestamp), item.type(),
+                        timestamp),
+                item.value());
+    }
+
+    private boolean isRetransmission(UUID deviceId, ReadingRegisterDTO item) {
+        return item.sequence() != null
+                && !readingSequenceTracker.register(deviceId, item.type(), item.sequence(), deviceTimestamp(item));
+    }
+
+    private void releaseSequence(UUID deviceId, ReadingRegisterDTO item) {
+        if (item.sequence() != null) {
+            readingSequenceTracker.release(deviceId, item.type(), item.sequence(), deviceTimestamp(item));
+        }
+    }
+
+    private static Instant deviceTimestamp(ReadingRegisterDTO item) {
+        return item.timestamp() != null ? item.timestamp().truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+
+    private Mono<ReadingBatchResponseDTO> writeBatch(DeviceIdentity device, List<ReadingRegisterDTO> items) {
+        UUID deviceId = device.id();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        ReadingBatchItemResultDTO[] results = new ReadingBatchItemResultDTO[items.size()];
+        Map<Reading, Integer> indexes = new IdentityHashMap<>();
+        Set<BatchKey> keys = new HashSet<>();
+        List<Reading> readings = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            ReadingRegisterDTO item = items.get(i);
+            Instant timestamp = item.timestamp() != null ? item.timestamp().truncatedTo(ChronoUnit.MILLIS) : now;
+
+            String error = validateReading(item, timestamp, now);
+            if (error == null && !keys.add(new BatchKey(item.type(), timestamp))) {
+                error = "Leitura duplicada no lote";
+            }
+
+            if (error != null) {
+                results[i] = new ReadingBatchItemResultDTO(i, ReadingBatchItemStatus.REJECTED, timestamp, error);
+                continue;
+            }
+
+            if (isRetransmission(deviceId, item)) {
+                results[i] = new ReadingBatchItemResultDTO(i, ReadingBatchItemStatus.DUPLICATE, timestamp,
+                        "Leitura já recebida");
+                continue;
+            }
+
+            Reading reading = new Reading(
+                    new Reading.DeviceReadingKey(deviceId, partitionPlanner.partitionDate(timestamp), item.type(),
+                            timestamp),
+                    item.value());
+            indexes.put(reading, i);
+
+            List<Reading> toStore = compress(device, reading);
+            if (toStore.isEmpty()) {
+                results[i] = new ReadingBatchItemResultDTO(i, ReadingBatchItemStatus.SUPPRESSED, timestamp,
+                        "Dentro da banda morta da última leitura gravada");
+            }
+            readings.addAll(toStore);
+        }
+
+        return readingWriter.write(readings)
+                .doOnNext(result -> result.readings().forEach(reading -> {
+                    if (!result.isSuccess()) {
+                        readingDeadband.rollback(reading);
+                    }
+
+                    // Leituras descartadas em envios anteriores, gravadas agora por saída da banda morta
+                    Integer index = indexes.get(reading);
+                    if (index == null) {
+                        return;
+                    }
+
+                    if (result.isSuccess()) {
+                        results[index] = new ReadingBatchItemResultDTO(index, ReadingBatchItemStatus.CREATED,
+                                reading.getTimestamp(), null);
+                    } else {
+                        releaseSequence(deviceId, items.get(index));
+                        results[index] = new ReadingBatchItemResultDTO(index, ReadingBatchItemStatus.FAILED,
+                                reading.getTimestamp(), "Falha ao gravar leitura");
+                    }
+                }))
+                .then(Mono.fromSupplier(() -> {
+                    ReadingBatchResponseDTO response = new ReadingBatchResponseDTO(Arrays.asList(results));
+                    ingestMetrics.recordReadings(device, response.created() + response.suppressed());
+                    ingestMetrics.rejected("invalid", response.rejected());
+                    ingestMetrics.rejected("duplicate", response.duplicate());
+                    return response;
+                }));
+    }
+
+    private String validateReading(ReadingRegisterDTO item, Instant timestamp, Instant now) {
+        if (item.type() == null) {
+            return "Tipo de leitura não informado";
+        }
+
+        if (item.value() == null || item.value().isNaN() || item.value().isInfinite()) {
+            return "Valor de leitura inválido";
+        }
+
+        if (item.sequence() != null && item.sequence() < 0) {
+            return "Sequência de leitura inválida";
+        }
+
+        if (timestamp.isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            return "Momento da leitura está no futuro";
+        }
+
+        if (timestamp.isBefore(now.minusSeconds(ReadingWriter.READING_TTL))) {
+            return "Momento da leitura anterior ao período de retenção";
+        }
+
+        return null;
+    }
+
     public Flux<Reading> findReadings(UUID deviceId, ReadingType readingType, Instant start, Instant end) {
+        return findReadings(deviceId, readingType, start, end, true);
+    }
+
+    /**
+     * Consulta as partições diárias do período em paralelo (até api.readings.query.concurrency).
+     * Com {@code ordered}, as leituras saem na ordem dos dias, como nas consultas sequenciais;
+     * sem ordem (agregações), cada dia é emitido assim que chega.
+     */
+    public Flux<Reading> findReadings(UUID deviceId, ReadingType readingType, Instant start, Instant end,
+            boolean ordered) {
         return findDeviceById(deviceId)
             .switchIfEmpty(Mono.error(new ResourceNotFoundException("Dispositivo não encontrado: ID " + deviceId)))
+            .flatMapMany(device -> queryPartitions(deviceId, readingType, start, end, ordered, queryConcurrency));
+    }
+
+    /**
+     * Leituras do período de todos os dispositivos ativos do usuário (opcionalmente de um setor
+     * ou filial), identificadas pelo dispositivo. No máximo api.readings.fleet.concurrency
+     * dispositivos são consultados ao mesmo tempo, cada um com suas partições em sequência.
+     * Uma partição não lida em api.readings.fleet.partition-timeout interrompe o dispositivo,
+     * que termina com um item {@code truncated} no lugar das leituras restantes; os demais seguem.
+     */
+    public Flux<FleetReadingDTO> findFleetReadings(UUID userId, ReadingType readingType, Instant start, Instant end,
+            String sector, Branch branch) {
+        List<LocalDate> dateRange = partitionPlanner.partitions(start, end);
+
+        return findDevicesByUserId(userId)
+                .filter(device -> sector == null || sector.equalsIgnoreCase(device.getSector()))
+                .filter(device -> branch == null || branch == device.getBranch())
+                .map(device -> device.getKey().getId())
+                .flatMap(deviceId -> {
+                    Mono<Map<LocalDate, ReadingBlock>> blocks = blocks(deviceId, readingType, dateRange);
+
+                    return Flux.fromIterable(dateRange)
+                            .concatMap(date -> fleetPartition(deviceId, date, readingType, start, end, blocks))
+                            .flatMapIterable(readings -> readings)
+                            .map(reading -> new FleetReadingDTO(deviceId, reading.getTimestamp(), reading.getValue()))
+                            .onErrorResume(TimeoutException.class, e -> {
+                                log.warn("Consulta de leituras do dispositivo {} interrompida após {}", deviceId,
+                                        fleetPartitionTimeout);
+                                return Mono.just(FleetReadingDTO.truncated(deviceId));
+                            });
+                }, Math.max(1, fleetConcurrency));
+    }
+
+    // A partição é lida inteira antes de ser entregue: o prazo mede a consulta, não o ritmo do cliente
+    private Mono<List<Reading>> fleetPartition(UUID deviceId, LocalDate date, ReadingType readingType, Instant start,
+            Instant end, Mono<Map<LocalDate, ReadingBlock>> blocks) {
+        return queryPartition(deviceId, date, readingType, start, end, blocks)
+                .collectList()
+                .timeout(fleetPartitionTimeout)
+                .cache();
+    }
+
+    private Flux<Reading> queryPartitions(UUID deviceId, ReadingType readingType, Instant start, Instant end,
+            boolean ordered, int maxConcurrency) {
+        List<LocalDate> dateRange = partitionPlanner.partitions(start, end);
+
+        if (dateRange.isEmpty()) {
+            return Flux.empty();
+        }
+
+        int concurrency = Math.max(1, Math.min(maxConcurrency, dateRange.size()));
+        Flux<LocalDate> dates = Flux.fromIterable(dateRange);
+        Mono<Map<LocalDate, ReadingBlock>> blocks = blocks(deviceId, readingType, dateRange);
+
+        return ordered
+                ? dates.flatMapSequential(date -> queryPartition(deviceId, date, readingType, start, end, blocks),
+                        concurrency)
+                : dates.flatMap(date -> queryPartition(deviceId, date, readingType, start, end, blocks), concurrency);
+    }
+
+    // Dias encerrados não mudam mais e são servidos da memória; os antigos podem estar em blocos
+    private Flux<Reading> queryPartition(UUID deviceId, LocalDate date, ReadingType readingType, Instant start,
+            Instant end, Mono<Map<LocalDate, ReadingBlock>> blocks) {
+        if (closedDayReadingCache.isCacheable(date)) {
+            return closedDayReadingCache.find(deviceId, date, readingType, start, end);
+        }
+
+        return readingBlockStore.mayBeCompacted(date)
+                ? readingBlockStore.find(deviceId, date, readingType, start, end, blocks)
+                : readingRepository.findByAllCriteria(deviceId, date, readingType, start, end);
+    }
+
+    // Blocos de todo o período em uma consulta, sem os dias servidos pelo cache de dias encerrados
+    private Mono<Map<LocalDate, ReadingBlock>> blocks(UUID deviceId, ReadingType readingType,
+            List<LocalDate> dateRange) {
+        return readingBlockStore.blocks(deviceId, readingType, dateRange.stream()
+                .filter(date -> !closedDayReadingCache.isCacheable(date))
+                .toList());
+    }
+
+    /**
+     * Leituras do período reamostradas em buckets de {@code resolution} ou, sem resolução, em
+     * até {@code maxPoints} buckets. As partições são lidas em ordem crescente de momento e
+     * agregadas à medida que chegam.
+     */
+    public Flux<ReadingBucketDTO> findDownsampledReadings(UUID deviceId, ReadingType readingType, Instant start,
+            Instant end, Duration resolution, Integer maxPoints) {
+        Duration bucketSize = ReadingDownsampler.bucketSize(start, end, resolution, maxPoints);
+
+        return findDeviceById(deviceId)
             .flatMapMany(device -> {
-                List<LocalDate> dateRange = DateRangePicker.generate(start, end);
-                
-                if (dateRange.isEmpty()) {
-                    return Flux.empty();
-                }
-                
-                return Flux.concat(dateRange.stream()
-                        .map(date -> readingRepository.findByAllCriteria(deviceId, date, readingType, start, end))
-                        .collect(Collectors.toList()));
+                List<LocalDate> dateRange = partitionPlanner.partitions(start, end);
+                int concurrency = Math.max(1, Math.min(queryConcurrency, dateRange.size()));
+                Mono<Map<LocalDate, ReadingBlock>> blocks = readingBlockStore.blocks(deviceId, readingType, dateRange);
+
+                Flux<Reading> readings = Flux.fromIterable(dateRange)
+                        .flatMapSequential(date -> readingBlockStore.mayBeCompacted(date)
+                                ? readingBlockStore.findAscending(deviceId, date, readingType, start, end, blocks)
+                                : readingRepository.findByAllCriteriaAscending(deviceId, date, readingType, start,
+                                        end), concurrency);
+
+                return ReadingDownsampler.downsample(readings, start, bucketSize);
             });
     }
 
+    /**
+     * Agregados por hora ou por dia do período (buckets iniciados em [start, end)), do mais recente
+     * para o mais antigo.
+     */
+    public Flux<ReadingRollupDTO> findRollups(UUID deviceId, ReadingType readingType, RollupGranularity granularity,
+            Instant start, Instant end) {
+        if (!end.isAfter(start)) {
+            throw new InvalidTimePeriodException("O fim do período deve ser posterior ao início");
+        }
+
+        return findDeviceById(deviceId)
+                .flatMapMany(device -> readingRollupRepository.findByBucketRange(deviceId, readingType, granularity,
+                        start, end))
+                .map(ReadingRollupDTO::new);
+    }
+
+    public Mono<ReadingPageDTO> findReadingsPage(UUID deviceId, ReadingType readingType, Instant start, Instant end,
+            int pageSize, String cursor) {
+        return findDeviceById(deviceId)
+                .flatMap(device -> readingPager.page(deviceId, readingType, start, end, pageSize, cursor));
+    }
+
+    public Flux<Reading> findLatestReadings(UUID deviceId) {
+        return latestReadings(deviceId)
+                .switchIfEmpty(Flux.defer(() -> findDeviceById(deviceId).thenMany(Flux.empty())));
+    }
+
+    public Flux<Reading> findLatestReadingsByUserId(UUID userId) {
+        return findDevicesByUserId(userId)
+                .flatMapSequential(device -> latestReadings(device.getKey().getId()));
+    }
+
+    private Flux<Reading> latestReadings(UUID deviceId) {
+        return Flux.fromArray(ReadingType.values())
+                .concatMap(type -> latestReadingCache.get(deviceId, type));
+    }
+
+    public Flux<Reading> streamReadings(Set<UUID> deviceIds) {
+        return readingStream.subscribe(deviceIds);
+    }
+
+    public Flux<Reading> streamReadingsByUserId(UUID userId) {
+        return findDevicesByUserId(userId)
+                .map(device -> device.getKey().getId())
+                .collect(Collectors.toSet())
+                .flatMapMany(readingStream::subscribe);
+    }
+
     public Flux<DeviceByUserId> findDevicesByUserId(UUID userId) {
         return userByIdRepository.findById(userId)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Usuário de ID " + userId + " não encontrado")))
@@ -132,6 +667,12 @@ public class DeviceService {
                         .filter(DeviceByUserId::getIsActive));
     }
 
+    public Mono<DeviceIdentity> resolveDevice(String apiKey) {
+        return deviceIdentityCache.get(apiKey)
+                .filter(DeviceIdentity::isActive)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Dispositivo não encontrado: Chave " + apiKey)));
+    }
+
     public Mono<DeviceByApiKey> findDeviceByApiKey(String apiKey) {
         return deviceByApiKeyRepository.findByKeyApiKey(apiKey)
                 .filter(DeviceByApiKey::getIsActive)
@@ -179,6 +720,7 @@ public class DeviceService {
                                                 })
                                                 .then(deviceRepository.save(device))
                                                 .then(deviceByIdRepository.save(deviceById))
+                                                .doOnSuccess(saved -> deviceIdentityCache.invalidate(device.getApiKey()))
                                                 .thenReturn(device));
                             });
                 });
@@ -203,6 +745,7 @@ public class DeviceService {
                                         .then(deviceByIdRepository.delete(deviceById))
                                         .then(deviceByApiKeyRepository.deleteById(deviceByApiKeyKey))
                                         .then(deviceByUserIdRepository.deleteById(deviceByUserIdKey))
+                                        .doOnSuccess(deleted -> deviceIdentityCache.invalidate(device.getApiKey()))
                                         .then();
                             });
                 });
@@ -241,4 +784,7 @@ public class DeviceService {
                             .then();
                 });
     }
-}
\ No newline at end of file
+
+    private record BatchKey(ReadingType type, Instant timestamp) {
+    }
+}
@@ -9,7 +9,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,9 +21,13 @@ import br.com.devlovers.domain.device.Device;
 import br.com.devlovers.domain.device.Device.DeviceKey;
 import br.com.devlovers.domain.device.enums.Branch;
 import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingRollup;
 import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import br.com.devlovers.repositories.ReadingRollupRepository;
 import br.com.devlovers.services.exceptions.InvalidTimePeriodException;
 import br.com.devlovers.services.exceptions.ReportGenerationException;
+import br.com.devlovers.services.reading.ReadingDeadband;
 import br.com.devlovers.services.report.dto.ReportDTO;
 import br.com.devlovers.services.report.dto.ReportResponseDTO;
 import br.com.devlovers.services.report.factory.Factory;
@@ -41,6 +47,12 @@ public class ReportService {
     @Autowired
     private SignatureService signatureService;
 
+    @Autowired
+    private ReadingDeadband readingDeadband;
+
+    @Autowired
+    private ReadingRollupRepository readingRollupRepository;
+
     private final String TEMPLATE_PATH = "static/report/template/report-template.pdf";
 
     public Mono<ReportResponseDTO> getAllReports(LocalDate start, LocalDate end, ReadingType type, Branch branch,
@@ -68,12 +80,21 @@ public class ReportService {
                             Instant endTime = DateRangePicker.getMoment(end).plus(Duration.ofDays(1))
                                     .minus(Duration.ofMinutes(3));
 
+                            // Só séries comprimidas na ingestão são ponderadas pelo intervalo entre leituras
+                            boolean timeWeighted = readingDeadband.isEnabled(device.getId(), device.getDeviceType());
+
                             return deviceService.findReadings(device.getId(), type, startTime, endTime)
                                     .collectList()
-                                    .flatMap(readings -> {
+                                    .zipWith(timeWeighted ? Mono.just(List.<ReadingRollup>of())
+                                            : hourlyRollups(device, type, startTime, endTime))
+                                    .flatMap(tuple -> {
+                                        List<Reading> readings = tuple.getT1();
                                         if (!readings.isEmpty()) {
+                                            List<ReadingRollup> rollups = covers(tuple.getT2(), readings)
+                                                    ? tuple.getT2() : null;
                                             return Mono.fromCallable(() -> generateReport(start, end, type, branch,
-                                                    userId, device, signature.encodedSignature(), readings));
+                                                    userId, device, signature.encodedSignature(), readings, rollups,
+                                                    timeWeighted));
                                         }
                                         return Mono.empty();
                                     });
@@ -82,16 +103,42 @@ public class ReportService {
                         .map(reports -> new ReportResponseDTO(reports)));
     }
 
+    // Agregados por hora das horas do período; uma falha apenas faz a tabela usar as leituras
+    private Mono<List<ReadingRollup>> hourlyRollups(Device device, ReadingType type, Instant startTime,
+            Instant endTime) {
+        return readingRollupRepository.findByBucketRange(device.getId(), type, RollupGranularity.HOUR, startTime,
+                endTime)
+                .collectList()
+                .onErrorReturn(List.of());
+    }
+
+    /**
+     * Os agregados substituem as leituras na tabela de métricas só quando cada hora conta
+     * exatamente as leituras dela: horas ainda pendentes de recálculo fazem o relatório usar as
+     * leituras.
+     */
+    private static boolean covers(List<ReadingRollup> rollups, List<Reading> readings) {
+        Map<Instant, Long> countByHour = readings.stream()
+                .collect(Collectors.groupingBy(reading -> reading.getTimestamp().truncatedTo(ChronoUnit.HOURS),
+                        Collectors.counting()));
+
+        return rollups.size() == countByHour.size()
+                && rollups.stream().allMatch(rollup -> rollup.getCount()
+                        .equals(countByHour.get(rollup.getKey().getBucket())));
+    }
+
     private ReportDTO generateReport(LocalDate start, LocalDate end, ReadingType type, Branch branch, UUID userId,
-            Device device, String encodedSignature, List<Reading> readings) {
+            Device device, String encodedSignature, List<Reading> readings, List<ReadingRollup> hourlyRollups,
+            boolean timeWeighted) {
         Document document = Factory.createDoc(TEMPLATE_PATH);
 
         float currentYPosition = document.createMetricsForm(DateRangePicker.getNumberOfDays(start, end));
         document.fillHeader(branch, start, end, device, type);
-        document.fillMetricsForm(start, end, DateRangePicker.getNumberOfDays(start, end), readings, type);
+        document.fillMetricsForm(start, end, DateRangePicker.getNumberOfDays(start, end), readings, hourlyRollups,
+                type, timeWeighted);
 
         currentYPosition = document.insertChartsAndSignature(type, readings, currentYPosition, encodedSignature);
-        document.insertInfoParagraph(device, start, end, type, currentYPosition, readings);
+        document.insertInfoParagraph(device, start, end, type, currentYPosition, readings, timeWeighted);
 
         Template template = (Template) document;
         try {
@@ -0,0 +1,271 @@
+package br.com.devlovers.services.alert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.alert.AlertState;
+import br.com.devlovers.domain.alert.AlertState.AlertStateKey;
+import br.com.devlovers.domain.alert.ReadingAlert;
+import br.com.devlovers.domain.alert.enums.AlertStatus;
+import br.com.devlovers.domain.device.DeviceIdentity;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.repositories.AlertStateRepository;
+import br.com.devlovers.services.report.util.AnalyticsCreator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Avalia na ingestão a regra de faixa de trabalho dos relatórios (leituras consecutivas fora
+ * de {@code minWorkingTemp/maxWorkingTemp} ou {@code minWorkingHumidity/maxWorkingHumidity},
+ * ponderadas pelo intervalo como em {@link AnalyticsCreator}), mantendo um estado de tamanho
+ * fixo por dispositivo e tipo de leitura: nenhuma leitura anterior é consultada.
+ *
+ * Um alerta disparado só é encerrado quando o valor volta à faixa com a margem de histerese,
+ * e um novo disparo da mesma série dentro do cooldown não é notificado. O estado é gravado
+ * em {@code tb_alert_states} em segundo plano, apenas para as séries alteradas, e recarregado
+ * na inicialização.
+ */
+@Slf4j
+@Component
+public class ReadingAlertEngine {
+
+    @Autowired
+    private AlertStateRepository alertStateRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<ReadingAlertListener> alertListeners = List.of();
+
+    @Value("${api.alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.alerts.consecutive-readings:7}")
+    private double consecutiveReadings;
+
+    @Value("${api.alerts.hysteresis.temperature:0.5}")
+    private double temperatureHysteresis;
+
+    @Value("${api.alerts.hysteresis.humidity:2.0}")
+    private double humidityHysteresis;
+
+    @Value("${api.alerts.cooldown:PT1H}")
+    private Duration cooldown;
+
+    @Value("${api.alerts.max-reading-age:PT1H}")
+    private Duration maxReadingAge;
+
+    private final Map<AlertStateKey, SeriesAlert> series = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        // Leituras recebidas antes do fim da carga mantêm o estado criado por elas
+        alertStateRepository.findAll()
+                .subscribe(state -> series.putIfAbsent(state.getKey(), new SeriesAlert(state)),
+                        e -> log.warn("Falha ao carregar o estado dos alertas: {}", e.getMessage()),
+                        () -> log.info("Estado de {} séries de alertas carregado", series.size()));
+    }
+
+    /**
+     * Atualiza o estado da série com a leitura aceita na ingestão e notifica os
+     * {@link ReadingAlertListener} quando um alerta é disparado ou encerrado.
+     */
+    public void evaluate(DeviceIdentity device, Reading reading) {
+        if (!enabled) {
+            return;
+        }
+
+        ReadingType type = reading.getKey().getReadingType();
+        Double min = type == ReadingType.HUMIDITY ? device.minWorkingHumidity() : device.minWorkingTemp();
+        Double max = type == ReadingType.HUMIDITY ? device.maxWorkingHumidity() : device.maxWorkingTemp();
+
+        if (min == null || max == null) {
+            return;
+        }
+
+        // Leituras antigas (reenvio após falta de conexão) não geram notificação tardia
+        if (reading.getTimestamp().isBefore(Instant.now().minus(maxReadingAge))) {
+            return;
+        }
+
+        AlertStateKey key = new AlertStateKey(device.id(), type);
+        SeriesAlert state = series.computeIfAbsent(key, SeriesAlert::new);
+
+        Transition transition = state.offer(reading, min, max, hysteresis(type), consecutiveReadings, cooldown);
+        if (transition == null) {
+            return;
+        }
+
+        ReadingAlert alert = new ReadingAlert(device.id(), device.name(), device.ownerId(), device.function(),
+                device.sector(), type, transition.status(), reading.getValue(), min, max, transition.since(),
+                reading.getTimestamp());
+
+        meterRegistry.counter("terrasense.alerts", "type", type.fromString(), "status",
+                transition.status().fromString()).increment();
+        log.info("Alerta {} para o dispositivo {} ({}): {} fora de [{}, {}] desde {}", transition.status(),
+                device.name(), type, reading.getValue(), min, max, transition.since());
+
+        for (ReadingAlertListener listener : alertListeners) {
+            try {
+                listener.onAlert(alert);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao notificar alerta para {}: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.alerts.flush-interval:PT30S}")
+    public void flush() {
+        List<AlertState> changed = new ArrayList<>();
+        series.values().forEach(state -> {
+            AlertState snapshot = state.drain();
+            if (snapshot != null) {
+                changed.add(snapshot);
+            }
+        });
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Flux.fromIterable(changed)
+                .flatMap(state -> alertStateRepository.save(state), 16)
+                .doOnError(e -> {
+                    log.warn("Falha ao gravar o estado dos alertas: {}", e.getMessage());
+                    changed.forEach(state -> series.get(state.getKey()).markDirty());
+                })
+                .onErrorComplete()
+                .blockLast(Duration.ofSeconds(30));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private double hysteresis(ReadingType type) {
+        return type == ReadingType.HUMIDITY ? humidityHysteresis : temperatureHysteresis;
+    }
+
+    record Transition(AlertStatus status, Instant since) {
+    }
+
+    static final class SeriesAlert {
+
+        private final AlertStateKey key;
+        private double streakWeight;
+        private Instant streakStart;
+        private Instant lastTimestamp;
+        private boolean lastOutOfRange;
+        private boolean firing;
+        private Instant notifiedAt;
+        private boolean dirty;
+
+        SeriesAlert(AlertStateKey key) {
+            this.key = key;
+        }
+
+        SeriesAlert(AlertState state) {
+            this.key = state.getKey();
+            this.streakWeight = state.getStreakWeight() != null ? state.getStreakWeight() : 0;
+            this.streakStart = state.getStreakStart();
+            this.lastTimestamp = state.getLastTimestamp();
+            this.lastOutOfRange = Boolean.TRUE.equals(state.getLastOutOfRange());
+            this.firing = Boolean.TRUE.equals(state.getFiring());
+            this.notifiedAt = state.getNotifiedAt();
+        }
+
+        synchronized Transition offer(Reading reading, double min, double max, double hysteresis,
+                double threshold, Duration cooldown) {
+            Instant timestamp = reading.getTimestamp();
+            double value = reading.getValue();
+
+            // Leitura fora de ordem: a sequência já avançou além dela
+            if (lastTimestamp != null && !timestamp.isAfter(lastTimestamp)) {
+                return null;
+            }
+
+            // O peso da leitura anterior só é conhecido com a chegada da seguinte
+            if (lastOutOfRange) {
+                streakWeight += weight(lastTimestamp, timestamp);
+            }
+
+            boolean outOfRange = value < min || value > max;
+            boolean wasOutOfRange = lastOutOfRange;
+            lastTimestamp = timestamp;
+            lastOutOfRange = outOfRange;
+            dirty = true;
+
+            if (outOfRange) {
+                if (!wasOutOfRange) {
+                    streakWeight = 0;
+                    // Enquanto disparado, o início continua sendo o da sequência que disparou
+                    if (!firing) {
+                        streakStart = timestamp;
+                    }
+                }
+
+                if (firing || streakWeight + 1 < threshold) {
+                    return null;
+                }
+
+                firing = true;
+                if (notifiedAt != null && timestamp.isBefore(notifiedAt.plus(cooldown))) {
+                    return null;
+                }
+
+                notifiedAt = timestamp;
+                return new Transition(AlertStatus.TRIGGERED, streakStart);
+            }
+
+            streakWeight = 0;
+            if (!firing || value < min + hysteresis || value > max - hysteresis) {
+                return null;
+            }
+
+            firing = false;
+            // Encerramento de um disparo silenciado pelo cooldown também não é notificado
+            return notifiedAt != null && !notifiedAt.isBefore(streakStart)
+                    ? new Transition(AlertStatus.RESOLVED, streakStart)
+                    : null;
+        }
+
+        synchronized AlertState drain() {
+            if (!dirty) {
+                return null;
+            }
+
+            dirty = false;
+            return new AlertState(key, streakWeight, streakStart, lastTimestamp, lastOutOfRange, firing, notifiedAt);
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        private static double weight(Instant previous, Instant current) {
+            long gap = Duration.between(previous, current).toMillis();
+            return gap > 0 && gap <= AnalyticsCreator.MAX_READING_GAP.toMillis()
+                    ? (double) gap / AnalyticsCreator.READING_INTERVAL.toMillis()
+                    : 1;
+        }
+    }
+}
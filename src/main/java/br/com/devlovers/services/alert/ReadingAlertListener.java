@@ -0,0 +1,12 @@
+package br.com.devlovers.services.alert;
+
+import br.com.devlovers.domain.alert.ReadingAlert;
+
+/**
+ * Recebe os alertas emitidos pelo {@link ReadingAlertEngine}. Chamado na thread de ingestão:
+ * a implementação não deve bloquear.
+ */
+public interface ReadingAlertListener {
+
+    void onAlert(ReadingAlert alert);
+}
@@ -0,0 +1,15 @@
+package br.com.devlovers.services.exceptions;
+
+public class IngestBufferFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestBufferFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
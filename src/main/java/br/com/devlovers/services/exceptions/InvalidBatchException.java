@@ -0,0 +1,8 @@
+package br.com.devlovers.services.exceptions;
+
+public class InvalidBatchException extends RuntimeException {
+
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
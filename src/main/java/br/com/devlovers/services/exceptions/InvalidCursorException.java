@@ -0,0 +1,8 @@
+package br.com.devlovers.services.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
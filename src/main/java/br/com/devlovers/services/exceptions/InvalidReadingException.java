@@ -0,0 +1,8 @@
+package br.com.devlovers.services.exceptions;
+
+public class InvalidReadingException extends RuntimeException {
+
+    public InvalidReadingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Dono do fuso das partições diárias de {@code tb_sensor_readings}: a escrita calcula a
+ * partição de cada leitura e as consultas, as partições de um período, sempre pelo mesmo fuso
+ * (o dos relatórios, por padrão), independente do fuso do servidor.
+ *
+ * Enquanto houver partições gravadas em outro fuso (legacy-zone), as consultas também leem as
+ * partições desse fuso. Por padrão ({@code system}) é o fuso da JVM, que era o usado antes desta
+ * mudança; depois de rodar a migração ({@code api.readings.partition.migration}) a propriedade
+ * deve receber {@code none}.
+ */
+@Component
+public class PartitionPlanner {
+
+    static final String SYSTEM_ZONE = "system";
+    static final String NO_ZONE = "none";
+
+    @Value("${api.readings.partition.zone:America/Sao_Paulo}")
+    private ZoneId zone = ZoneId.of("America/Sao_Paulo");
+
+    @Value("${api.readings.partition.legacy-zone:" + SYSTEM_ZONE + "}")
+    private String legacyZoneId = SYSTEM_ZONE;
+
+    private ZoneId legacyZone;
+
+    @PostConstruct
+    public void init() {
+        String id = legacyZoneId.trim();
+        if (id.equalsIgnoreCase(NO_ZONE)) {
+            legacyZone = null;
+        } else {
+            // Vazio conta como o padrão: esquecer a propriedade não pode esconder partições antigas
+            legacyZone = id.isEmpty() || id.equalsIgnoreCase(SYSTEM_ZONE) ? ZoneId.systemDefault() : ZoneId.of(id);
+        }
+
+        if (zone.normalized().equals(legacyZone != null ? legacyZone.normalized() : null)) {
+            legacyZone = null;
+        }
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public boolean hasLegacyZone() {
+        return legacyZone != null;
+    }
+
+    public LocalDate partitionDate(Instant moment) {
+        return moment.atZone(zone).toLocalDate();
+    }
+
+    /**
+     * Partições, em ordem crescente, que podem conter leituras de [start, end]: os dias do
+     * fuso de particionamento entre os dois momentos, mais os do fuso legado, se configurado.
+     */
+    public List<LocalDate> partitions(Instant start, Instant end) {
+        if (end.isBefore(start)) {
+            return List.of();
+        }
+
+        List<LocalDate> dates = days(start, end, zone);
+        if (legacyZone == null) {
+            return dates;
+        }
+
+        TreeSet<LocalDate> union = new TreeSet<>(dates);
+        union.addAll(days(start, end, legacyZone));
+        return new ArrayList<>(union);
+    }
+
+    private static List<LocalDate> days(Instant start, Instant end, ZoneId zone) {
+        LocalDate last = end.atZone(zone).toLocalDate();
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = start.atZone(zone).toLocalDate(); !date.isAfter(last); date = date.plusDays(1)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+}
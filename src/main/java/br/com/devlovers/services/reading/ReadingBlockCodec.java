@@ -0,0 +1,230 @@
+package br.com.devlovers.services.reading;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Codificação das leituras de um dia em um blob, no estilo Gorilla: momentos como diferença
+ * da diferença anterior (em milissegundos) e valores como XOR com o valor anterior, gravando
+ * só os bits significativos. Leituras periódicas e valores que mudam pouco ocupam poucos bits.
+ *
+ * Os intervalos de delta-of-delta foram ampliados em relação ao artigo original (que usa
+ * segundos): o relógio dos dispositivos oscila alguns segundos entre envios.
+ */
+public final class ReadingBlockCodec {
+
+    public static final int ENCODING = 1;
+
+    private ReadingBlockCodec() {
+    }
+
+    /**
+     * Codifica leituras em ordem crescente de momento (epoch em milissegundos).
+     */
+    public static ByteBuffer encode(long[] timestamps, double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("Quantidades diferentes de momentos e valores");
+        }
+
+        BitWriter out = new BitWriter(16 + timestamps.length * 4);
+        out.write(timestamps.length, 32);
+        if (timestamps.length == 0) {
+            return out.toByteBuffer();
+        }
+
+        out.write(timestamps[0], 64);
+        out.write(Double.doubleToRawLongBits(values[0]), 64);
+
+        long previousTimestamp = timestamps[0];
+        long previousDelta = 0;
+        long previousBits = Double.doubleToRawLongBits(values[0]);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+
+        for (int i = 1; i < timestamps.length; i++) {
+            long delta = timestamps[i] - previousTimestamp;
+            if (delta <= 0) {
+                throw new IllegalArgumentException("Momentos fora de ordem crescente");
+            }
+            writeDeltaOfDelta(out, delta - previousDelta);
+            previousTimestamp = timestamps[i];
+            previousDelta = delta;
+
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previousBits;
+            previousBits = bits;
+
+            if (xor == 0) {
+                out.write(0, 1);
+                continue;
+            }
+
+            out.write(1, 1);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Os bits significativos cabem na janela do valor anterior
+                out.write(0, 1);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                out.write(1, 1);
+                out.write(leading, 5);
+                out.write(significant - 1, 6);
+                out.write(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        return out.toByteBuffer();
+    }
+
+    public static Columns decode(ByteBuffer data) {
+        BitReader in = new BitReader(data);
+        int count = (int) in.read(32);
+        if (count < 0) {
+            throw new IllegalStateException("Bloco de leituras inválido");
+        }
+
+        long[] timestamps = new long[count];
+        double[] values = new double[count];
+        if (count == 0) {
+            return new Columns(timestamps, values);
+        }
+
+        timestamps[0] = in.read(64);
+        long bits = in.read(64);
+        values[0] = Double.longBitsToDouble(bits);
+
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            timestamps[i] = timestamps[i - 1] + delta;
+
+            if (in.read(1) == 1) {
+                if (in.read(1) == 1) {
+                    leading = (int) in.read(5);
+                    int significant = (int) in.read(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                bits ^= in.read(64 - leading - trailing) << trailing;
+            }
+            values[i] = Double.longBitsToDouble(bits);
+        }
+
+        return new Columns(timestamps, values);
+    }
+
+    private static void writeDeltaOfDelta(BitWriter out, long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            out.write(0b0, 1);
+        } else if (fits(deltaOfDelta, 14)) {
+            out.write(0b10, 2);
+            out.write(deltaOfDelta, 14);
+        } else if (fits(deltaOfDelta, 20)) {
+            out.write(0b110, 3);
+            out.write(deltaOfDelta, 20);
+        } else if (fits(deltaOfDelta, 32)) {
+            out.write(0b1110, 4);
+            out.write(deltaOfDelta, 32);
+        } else {
+            out.write(0b1111, 4);
+            out.write(deltaOfDelta, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (in.read(1) == 0) {
+            return 0;
+        }
+        if (in.read(1) == 0) {
+            return in.readSigned(14);
+        }
+        if (in.read(1) == 0) {
+            return in.readSigned(20);
+        }
+        return in.read(1) == 0 ? in.readSigned(32) : in.read(64);
+    }
+
+    private static boolean fits(long value, int bits) {
+        long limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+
+    /**
+     * Leituras decodificadas, em ordem crescente de momento.
+     */
+    public record Columns(long[] timestamps, double[] values) {
+
+        public int size() {
+            return timestamps.length;
+        }
+    }
+
+    private static final class BitWriter {
+
+        private byte[] buffer;
+        private long position;
+
+        BitWriter(int initialBytes) {
+            buffer = new byte[Math.max(16, initialBytes)];
+        }
+
+        // Grava os {@code bits} bits menos significativos de value, do mais para o menos significativo
+        void write(long value, int bits) {
+            ensureCapacity(bits);
+            for (int i = bits - 1; i >= 0; i--) {
+                if (((value >>> i) & 1L) != 0) {
+                    buffer[(int) (position >>> 3)] |= (byte) (0x80 >>> (position & 7));
+                }
+                position++;
+            }
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(Arrays.copyOf(buffer, (int) ((position + 7) >>> 3)));
+        }
+
+        private void ensureCapacity(int bits) {
+            long required = (position + bits + 7) >>> 3;
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.max(required, buffer.length * 2L));
+            }
+        }
+    }
+
+    private static final class BitReader {
+
+        private final ByteBuffer buffer;
+        private final int offset;
+        private long position;
+
+        BitReader(ByteBuffer data) {
+            this.buffer = data;
+            this.offset = data.position();
+        }
+
+        long read(int bits) {
+            if (position + bits > (long) (buffer.limit() - offset) * 8) {
+                throw new IllegalStateException("Bloco de leituras truncado");
+            }
+
+            long value = 0;
+            for (int i = 0; i < bits; i++) {
+                int current = buffer.get(offset + (int) (position >>> 3));
+                value = (value << 1) | ((current >>> (7 - (position & 7))) & 1);
+                position++;
+            }
+            return value;
+        }
+
+        long readSigned(int bits) {
+            return (read(bits) << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
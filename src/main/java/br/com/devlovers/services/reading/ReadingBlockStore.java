@@ -0,0 +1,331 @@
+package br.com.devlovers.services.reading;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.stereotype.Component;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.ReadingBlock.ReadingBlockKey;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.repositories.ReadingBlockRepository;
+import br.com.devlovers.repositories.ReadingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de dias encerrados guardadas em blocos compactados ({@link ReadingBlock}).
+ *
+ * A compactação grava o bloco do dia e só então apaga as linhas de {@code tb_sensor_readings}
+ * que ele contém, com uma única exclusão de intervalo. Gravações tardias (importações)
+ * continuam indo para as linhas brutas e marcam o bloco do dia como {@code dirty}: só esses
+ * dias (e os ainda não compactados) juntam o bloco com uma leitura das linhas brutas; um dia
+ * compactado e limpo é servido apenas pelo bloco. A próxima compactação do dia incorpora as
+ * linhas tardias ao bloco e limpa a marca.
+ */
+@Component
+public class ReadingBlockStore {
+
+    static final String RAW_CQL = "SELECT timestamp, value, WRITETIME(value) AS written FROM tb_sensor_readings "
+            + "WHERE deviceid = ? AND date = ? AND readingtype = ?";
+
+    // Sombreia só o que foi gravado até a linha mais recente lida: uma gravação posterior fica
+    static final String DELETE_CQL = "DELETE FROM tb_sensor_readings USING TIMESTAMP ? "
+            + "WHERE deviceid = ? AND date = ? AND readingtype = ?";
+
+    static final String MARK_CQL = "UPDATE tb_reading_blocks USING TTL ? SET dirty = true "
+            + "WHERE deviceid = ? AND readingtype = ? AND date = ?";
+
+    static final String CLEAN_CQL = "DELETE dirty FROM tb_reading_blocks USING TIMESTAMP ? "
+            + "WHERE deviceid = ? AND readingtype = ? AND date = ?";
+
+    @Autowired
+    private CqlSession session;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private ReadingBlockRepository readingBlockRepository;
+
+    @Autowired
+    private ReactiveCassandraOperations cassandraOperations;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Mono<PreparedStatement> rawStatement = prepare(RAW_CQL);
+    private final Mono<PreparedStatement> deleteStatement = prepare(DELETE_CQL);
+    private final Mono<PreparedStatement> markStatement = prepare(MARK_CQL);
+    private final Mono<PreparedStatement> cleanStatement = prepare(CLEAN_CQL);
+
+    /**
+     * Dias anteriores ao atual podem ter sido compactados e precisam ser lidos por aqui.
+     */
+    public boolean mayBeCompacted(LocalDate date) {
+        return date.isBefore(partitionPlanner.partitionDate(Instant.now()));
+    }
+
+    /**
+     * Blocos dos dias de {@code dates} que podem ter sido compactados, em uma única consulta de
+     * intervalo sobre a partição do dispositivo e tipo. O resultado é reaproveitado pelas
+     * leituras de cada dia ({@code find}/{@code findAscending} com blocos).
+     */
+    public Mono<Map<LocalDate, ReadingBlock>> blocks(UUID deviceId, ReadingType type, List<LocalDate> dates) {
+        List<LocalDate> closed = dates.stream().filter(this::mayBeCompacted).sorted().toList();
+        if (closed.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        return readingBlockRepository.findByDateRange(deviceId, type, closed.get(0), closed.get(closed.size() - 1))
+                .collectMap(block -> block.getKey().getDate())
+                .cache();
+    }
+
+    /**
+     * Leituras de [start, end] do dia, na ordem da tabela (mais recente primeiro).
+     */
+    public Flux<Reading> find(UUID deviceId, LocalDate date, ReadingType type, Instant start, Instant end) {
+        return find(deviceId, date, type, start, end, blocks(deviceId, type, List.of(date)));
+    }
+
+    public Flux<Reading> find(UUID deviceId, LocalDate date, ReadingType type, Instant start, Instant end,
+            Mono<Map<LocalDate, ReadingBlock>> blocks) {
+        return day(date, blocks, () -> readingRepository.findByAllCriteria(deviceId, date, type, start, end),
+                start, end)
+                .flatMapIterable(readings -> readings.descendingMap().values());
+    }
+
+    public Flux<Reading> findAscending(UUID deviceId, LocalDate date, ReadingType type, Instant start, Instant end) {
+        return findAscending(deviceId, date, type, start, end, blocks(deviceId, type, List.of(date)));
+    }
+
+    public Flux<Reading> findAscending(UUID deviceId, LocalDate date, ReadingType type, Instant start, Instant end,
+            Mono<Map<LocalDate, ReadingBlock>> blocks) {
+        return day(date, blocks, () -> readingRepository.findByAllCriteria(deviceId, date, type, start, end),
+                start, end)
+                .flatMapIterable(Map::values);
+    }
+
+    /**
+     * Todas as leituras do dia, na ordem da tabela.
+     */
+    public Flux<Reading> findDay(UUID deviceId, LocalDate date, ReadingType type) {
+        return day(date, blocks(deviceId, type, List.of(date)),
+                () -> readingRepository.findByPartition(deviceId, date, type), null, null)
+                .flatMapIterable(readings -> readings.descendingMap().values());
+    }
+
+    /**
+     * Marca os blocos dos dias encerrados que receberam as leituras, para que a leitura desses
+     * dias volte a consultar as linhas brutas. Deve ser chamado depois que as leituras foram
+     * gravadas: a marca precisa ser mais recente que elas.
+     */
+    public Mono<Void> markLateWrites(List<Reading> readings) {
+        Map<ReadingBlockKey, Reading> days = new LinkedHashMap<>();
+        for (Reading reading : readings) {
+            Reading.DeviceReadingKey key = reading.getKey();
+            if (mayBeCompacted(key.getDate())) {
+                // A marca dura tanto quanto a leitura mais recente do dia
+                days.merge(new ReadingBlockKey(key.getDeviceId(), key.getReadingType(), key.getDate()), reading,
+                        (current, candidate) -> candidate.getTimestamp().isAfter(current.getTimestamp())
+                                ? candidate : current);
+            }
+        }
+
+        if (days.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Instant now = Instant.now();
+        return markStatement
+                .flatMapMany(statement -> Flux.fromIterable(days.entrySet())
+                        .flatMap(day -> execute(statement.bind(ReadingWriter.ttlFor(day.getValue(), now),
+                                day.getKey().getDeviceId(), day.getKey().getReadingType().name(),
+                                day.getKey().getDate()))))
+                .then();
+    }
+
+    /**
+     * Incorpora ao bloco do dia as linhas brutas que ainda existirem e as apaga. Retorna o
+     * número de linhas compactadas (zero quando não havia linhas brutas).
+     */
+    public Mono<Integer> compact(UUID deviceId, LocalDate date, ReadingType type) {
+        ReadingBlockKey key = new ReadingBlockKey(deviceId, type, date);
+        long scanStart = micros(Instant.now());
+
+        Mono<Optional<ReadingBlock>> existing = readingBlockRepository.findById(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        return Mono.zip(existing, raw(deviceId, date, type))
+                .flatMap(tuple -> {
+                    Optional<ReadingBlock> block = tuple.getT1();
+                    RawRows raw = tuple.getT2();
+
+                    if (raw.readings.isEmpty()) {
+                        // Marca sem linhas brutas (já incorporadas ou expiradas): nada a juntar
+                        return block.filter(found -> Boolean.TRUE.equals(found.getDirty()))
+                                .map(found -> clean(key, scanStart).thenReturn(0))
+                                .orElse(Mono.just(0));
+                    }
+
+                    TreeMap<Long, Reading> readings = new TreeMap<>();
+                    block.filter(found -> found.getData() != null)
+                            .ifPresent(found -> decode(found, null, null, readings));
+                    raw.readings.forEach(reading -> readings.put(reading.getTimestamp().toEpochMilli(), reading));
+
+                    return save(deviceId, date, type, readings)
+                            .then(clean(key, raw.written))
+                            .then(delete(deviceId, date, type, raw.written))
+                            .thenReturn(raw.readings.size());
+                });
+    }
+
+    private Mono<TreeMap<Long, Reading>> day(LocalDate date, Mono<Map<LocalDate, ReadingBlock>> blocks,
+            Supplier<Flux<Reading>> raw, Instant start, Instant end) {
+        return blocks.flatMap(found -> {
+            ReadingBlock block = found.get(date);
+            TreeMap<Long, Reading> readings = new TreeMap<>();
+
+            boolean compacted = block != null && block.getData() != null;
+            if (compacted) {
+                decode(block, start, end, readings);
+                if (!Boolean.TRUE.equals(block.getDirty())) {
+                    return Mono.just(readings);
+                }
+            }
+
+            // Dia não compactado ou com gravações tardias: uma linha bruta com o mesmo momento é a mais recente
+            return raw.get()
+                    .collectList()
+                    .map(rows -> {
+                        for (Reading reading : rows) {
+                            readings.put(reading.getTimestamp().toEpochMilli(), reading);
+                        }
+                        return readings;
+                    });
+        });
+    }
+
+    private static void decode(ReadingBlock block, Instant start, Instant end, Map<Long, Reading> readings) {
+        if (block.getEncoding() == null || block.getEncoding() != ReadingBlockCodec.ENCODING) {
+            throw new IllegalStateException("Codificação de bloco desconhecida: " + block.getEncoding());
+        }
+
+        ReadingBlockKey key = block.getKey();
+        ReadingBlockCodec.Columns columns = ReadingBlockCodec.decode(block.getData());
+        long from = start != null ? start.toEpochMilli() : Long.MIN_VALUE;
+        long to = end != null ? end.toEpochMilli() : Long.MAX_VALUE;
+
+        for (int i = 0; i < columns.size(); i++) {
+            long timestamp = columns.timestamps()[i];
+            if (timestamp >= from && timestamp <= to) {
+                readings.put(timestamp, new Reading(new Reading.DeviceReadingKey(key.getDeviceId(), key.getDate(),
+                        key.getReadingType(), Instant.ofEpochMilli(timestamp)), columns.values()[i]));
+            }
+        }
+    }
+
+    // Linhas brutas do dia e o momento de gravação (WRITETIME) da mais recente
+    private Mono<RawRows> raw(UUID deviceId, LocalDate date, ReadingType type) {
+        return rawStatement
+                .flatMapMany(statement -> Flux.from(session.executeReactive(statement
+                        .bind(deviceId, date, type.name())
+                        .setIdempotent(true))))
+                .collect(RawRows::new, (rows, row) -> {
+                    rows.readings.add(new Reading(new Reading.DeviceReadingKey(deviceId, date, type,
+                            row.getInstant("timestamp")), row.getDouble("value")));
+                    rows.written = Math.max(rows.written, row.getLong("written"));
+                });
+    }
+
+    private Mono<Void> save(UUID deviceId, LocalDate date, ReadingType type, TreeMap<Long, Reading> readings) {
+        long[] timestamps = new long[readings.size()];
+        double[] values = new double[readings.size()];
+        int i = 0;
+        for (Map.Entry<Long, Reading> entry : readings.entrySet()) {
+            timestamps[i] = entry.getKey();
+            values[i++] = entry.getValue().getValue();
+        }
+
+        ByteBuffer data = ReadingBlockCodec.encode(timestamps, values);
+        int bytes = data.remaining();
+        // dirty fica de fora (nulo não é gravado): a marca é limpa à parte, no momento das linhas lidas
+        ReadingBlock block = new ReadingBlock(new ReadingBlockKey(deviceId, type, date), ReadingBlockCodec.ENCODING,
+                timestamps.length, Instant.ofEpochMilli(timestamps[0]),
+                Instant.ofEpochMilli(timestamps[timestamps.length - 1]), data, null);
+
+        // O bloco expira junto com a leitura mais recente que contém
+        InsertOptions options = InsertOptions.builder()
+                .ttl(Duration.ofSeconds(ReadingWriter.ttlFor(readings.lastEntry().getValue(), Instant.now())))
+                .build();
+
+        return cassandraOperations.insert(block, options)
+                .doOnSuccess(result -> {
+                    meterRegistry.counter("terrasense.readings.blocks.readings").increment(timestamps.length);
+                    meterRegistry.counter("terrasense.readings.blocks.bytes").increment(bytes);
+                })
+                .then();
+    }
+
+    // Uma marca mais recente que as linhas lidas (gravação tardia durante a compactação) continua valendo
+    private Mono<Void> clean(ReadingBlockKey key, long written) {
+        return cleanStatement
+                .flatMap(statement -> execute(statement.bind(written, key.getDeviceId(), key.getReadingType().name(),
+                        key.getDate())));
+    }
+
+    /*
+     * Uma exclusão de intervalo (um único tombstone) no lugar de uma por linha. O timestamp da
+     * exclusão é o da linha mais recente lida, então gravações posteriores à leitura ficam;
+     * uma gravação ainda em trânsito com timestamp anterior seria apagada sem estar no bloco,
+     * o que a idade mínima dos dias compactados (min-age-days) torna improvável.
+     */
+    private Mono<Void> delete(UUID deviceId, LocalDate date, ReadingType type, long written) {
+        return deleteStatement
+                .flatMap(statement -> execute(statement.bind(written, deviceId, date, type.name())));
+    }
+
+    private Mono<Void> execute(BoundStatement statement) {
+        return Mono.fromCompletionStage(() -> session.executeAsync(statement.setIdempotent(true))).then();
+    }
+
+    private Mono<PreparedStatement> prepare(String cql) {
+        return Mono.defer(() -> Mono.fromCompletionStage(session.prepareAsync(cql)))
+                .cache(statement -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static final class RawRows {
+
+        private final List<Reading> readings = new ArrayList<>();
+        private long written;
+    }
+}
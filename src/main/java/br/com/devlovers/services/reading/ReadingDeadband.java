@@ -0,0 +1,194 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.device.DeviceIdentity;
+import br.com.devlovers.domain.device.enums.DeviceType;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.services.report.util.AnalyticsCreator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compressão por banda morta na ingestão: uma leitura que difere da última armazenada
+ * (do mesmo dispositivo e tipo) por no máximo a banda configurada não é gravada, a menos
+ * que o heartbeat tenha passado desde a última gravação, o que mantém falhas de envio
+ * detectáveis. Quando o valor sai da banda, a última leitura descartada também é gravada,
+ * preservando o início da variação.
+ *
+ * O erro de mínimo, máximo e média fica limitado à banda: os relatórios dos dispositivos
+ * com compressão ponderam cada leitura pelo intervalo até a próxima (ver {@link AnalyticsCreator}).
+ */
+@Slf4j
+@Component
+public class ReadingDeadband {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.deadband.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.readings.deadband.device-types:}")
+    private List<String> deviceTypes;
+
+    @Value("${api.readings.deadband.devices:}")
+    private List<String> devices;
+
+    @Value("${api.readings.deadband.temperature:0.2}")
+    private double temperatureBand;
+
+    @Value("${api.readings.deadband.humidity:1.0}")
+    private double humidityBand;
+
+    @Value("${api.readings.deadband.heartbeat:PT30M}")
+    private Duration heartbeat;
+
+    private final Set<DeviceType> compressedDeviceTypes = new HashSet<>();
+    private final Set<UUID> compressedDevices = new HashSet<>();
+    private Cache<SeriesKey, SeriesState> series;
+    private Counter suppressedCounter;
+
+    @PostConstruct
+    public void init() {
+        deviceTypes.stream().filter(type -> !type.isBlank()).map(String::trim).map(DeviceType::valueOf)
+                .forEach(compressedDeviceTypes::add);
+        devices.stream().filter(id -> !id.isBlank()).map(String::trim).map(UUID::fromString)
+                .forEach(compressedDevices::add);
+
+        series = Caffeine.newBuilder()
+                .expireAfterAccess(heartbeat.multipliedBy(2))
+                .maximumSize(200_000)
+                .build();
+        suppressedCounter = meterRegistry.counter("terrasense.ingest.suppressed");
+
+        if (heartbeat.plus(AnalyticsCreator.READING_INTERVAL).compareTo(AnalyticsCreator.MAX_READING_GAP) > 0) {
+            log.warn("Heartbeat da banda morta ({}) acima do intervalo contínuo dos relatórios ({}): "
+                    + "períodos estáveis serão tratados como falta de dados", heartbeat, AnalyticsCreator.MAX_READING_GAP);
+        }
+    }
+
+    /**
+     * Compressão habilitada para o dispositivo. Sem tipos nem dispositivos configurados,
+     * vale para todos.
+     */
+    public boolean isEnabled(DeviceIdentity device) {
+        return isEnabled(device.id(), device.deviceType());
+    }
+
+    public boolean isEnabled(UUID deviceId, DeviceType deviceType) {
+        if (!enabled) {
+            return false;
+        }
+
+        if (compressedDeviceTypes.isEmpty() && compressedDevices.isEmpty()) {
+            return true;
+        }
+
+        return compressedDevices.contains(deviceId) || compressedDeviceTypes.contains(deviceType);
+    }
+
+    /**
+     * @return as leituras a gravar: nenhuma (dentro da banda), a própria leitura, ou a última
+     * leitura descartada seguida da atual (saída da banda)
+     */
+    public List<Reading> filter(UUID deviceId, Reading reading) {
+        SeriesKey key = new SeriesKey(deviceId, reading.getKey().getReadingType());
+        SeriesState state = series.get(key, k -> new SeriesState());
+
+        List<Reading> toStore = state.offer(reading, band(key.type()), heartbeat);
+        if (toStore.isEmpty()) {
+            suppressedCounter.increment();
+        }
+        return toStore;
+    }
+
+    /**
+     * Desfaz o avanço do estado quando uma leitura devolvida por {@link #filter} não foi gravada,
+     * para que a próxima leitura seja comparada com a última realmente armazenada.
+     */
+    public void rollback(Reading reading) {
+        Reading.DeviceReadingKey readingKey = reading.getKey();
+        SeriesState state = series.getIfPresent(new SeriesKey(readingKey.getDeviceId(), readingKey.getReadingType()));
+        if (state != null) {
+            state.rollback(reading);
+        }
+    }
+
+    private double band(ReadingType type) {
+        return type == ReadingType.HUMIDITY ? humidityBand : temperatureBand;
+    }
+
+    private record SeriesKey(UUID deviceId, ReadingType type) {
+    }
+
+    static final class SeriesState {
+
+        private Reading lastStored;
+        private Reading lastSuppressed;
+
+        // Estado anterior à última leitura liberada para gravação, restaurado se ela falhar
+        private Reading previousStored;
+        private Reading previousSuppressed;
+
+        synchronized List<Reading> offer(Reading reading, double band, Duration heartbeat) {
+            Instant timestamp = reading.getTimestamp();
+
+            // Leitura atrasada (anterior à última gravada): grava sem alterar o estado
+            if (lastStored != null && !timestamp.isAfter(lastStored.getTimestamp())) {
+                return List.of(reading);
+            }
+
+            boolean withinBand = lastStored != null
+                    && Math.abs(reading.getValue() - lastStored.getValue()) <= band;
+            boolean heartbeatDue = lastStored != null
+                    && !timestamp.isBefore(lastStored.getTimestamp().plus(heartbeat));
+
+            if (withinBand && !heartbeatDue) {
+                lastSuppressed = reading;
+                return List.of();
+            }
+
+            List<Reading> toStore = !withinBand && lastSuppressed != null
+                    ? List.of(lastSuppressed, reading)
+                    : List.of(reading);
+
+            previousStored = lastStored;
+            previousSuppressed = lastSuppressed;
+            lastStored = reading;
+            lastSuppressed = null;
+            return toStore;
+        }
+
+        synchronized void rollback(Reading reading) {
+            if (reading == lastStored) {
+                lastStored = previousStored;
+                // Leituras descartadas depois desta são mais recentes que a descartada anterior
+                if (lastSuppressed == null) {
+                    lastSuppressed = previousSuppressed;
+                }
+                previousStored = null;
+                previousSuppressed = null;
+            } else if (reading == previousSuppressed && lastSuppressed == null) {
+                // Só a leitura da saída da banda falhou: volta a ser gravada na próxima saída
+                lastSuppressed = reading;
+                previousSuppressed = null;
+            }
+        }
+    }
+}
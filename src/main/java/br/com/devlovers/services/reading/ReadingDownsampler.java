@@ -0,0 +1,98 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.dto.ReadingBucketDTO;
+import br.com.devlovers.services.exceptions.InvalidTimePeriodException;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reamostragem por buckets de tempo (mínimo, máximo e média de cada bucket) em uma única
+ * passagem sobre leituras em ordem crescente de momento: cada bucket é fechado quando chega
+ * a primeira leitura do seguinte, mantendo apenas o agregado em memória.
+ *
+ * Buckets sem leituras não são emitidos. O mínimo e o máximo preservam picos e quedas que
+ * uma média isolada (ou a escolha de pontos representativos) esconderia.
+ */
+public final class ReadingDownsampler {
+
+    public static final int DEFAULT_MAX_POINTS = 500;
+    public static final int MAX_POINTS_LIMIT = 10_000;
+
+    private ReadingDownsampler() {
+    }
+
+    /**
+     * Tamanho do bucket: a resolução informada ou, na falta dela, o período dividido por
+     * {@code maxPoints} (arredondado para cima em segundos).
+     */
+    public static Duration bucketSize(Instant start, Instant end, Duration resolution, Integer maxPoints) {
+        if (!end.isAfter(start)) {
+            throw new InvalidTimePeriodException("O fim do período deve ser posterior ao início");
+        }
+
+        if (resolution != null) {
+            if (resolution.compareTo(Duration.ofSeconds(1)) < 0) {
+                throw new InvalidTimePeriodException("A resolução deve ser de pelo menos 1 segundo");
+            }
+
+            if (Duration.between(start, end).dividedBy(resolution) > MAX_POINTS_LIMIT) {
+                throw new InvalidTimePeriodException(
+                        "A resolução gera mais de " + MAX_POINTS_LIMIT + " pontos para o período");
+            }
+
+            return resolution;
+        }
+
+        int points = maxPoints != null ? maxPoints : DEFAULT_MAX_POINTS;
+        if (points < 1 || points > MAX_POINTS_LIMIT) {
+            throw new InvalidTimePeriodException("maxPoints deve estar entre 1 e " + MAX_POINTS_LIMIT);
+        }
+
+        long seconds = (Duration.between(start, end).toSeconds() + points - 1) / points;
+        return Duration.ofSeconds(Math.max(1, seconds));
+    }
+
+    /**
+     * @param readings leituras em ordem crescente de momento
+     * @param start início do primeiro bucket
+     */
+    public static Flux<ReadingBucketDTO> downsample(Flux<Reading> readings, Instant start, Duration bucketSize) {
+        long bucketMillis = bucketSize.toMillis();
+
+        return readings
+                .windowUntilChanged(reading -> Math.floorDiv(
+                        Duration.between(start, reading.getTimestamp()).toMillis(), bucketMillis))
+                .concatMap(window -> window.collect(Bucket::new, Bucket::add))
+                .filter(bucket -> bucket.count > 0)
+                .map(bucket -> bucket.toDTO(start, bucketMillis));
+    }
+
+    private static final class Bucket {
+
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private Instant first;
+
+        void add(Reading reading) {
+            if (first == null) {
+                first = reading.getTimestamp();
+            }
+
+            double value = reading.getValue();
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+
+        ReadingBucketDTO toDTO(Instant start, long bucketMillis) {
+            long index = Math.floorDiv(Duration.between(start, first).toMillis(), bucketMillis);
+            return new ReadingBucketDTO(start.plusMillis(index * bucketMillis), min, max, sum / count, count);
+        }
+    }
+}
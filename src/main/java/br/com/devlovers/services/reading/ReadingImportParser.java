@@ -0,0 +1,87 @@
+package br.com.devlovers.services.reading;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
+import br.com.devlovers.domain.reading.enums.ReadingImportFormat;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+
+/**
+ * Converte uma linha de um arquivo de importação em leitura.
+ *
+ * CSV: {@code timestamp,type,value}, com timestamp em ISO-8601 (UTC) ou epoch millis e type
+ * em qualquer capitalização (ex.: {@code 2024-06-01T10:00:00Z,temperature,24.1}). Uma linha de
+ * cabeçalho iniciada por "timestamp" é ignorada.
+ *
+ * NDJSON: um objeto por linha, no mesmo formato do endpoint de lote
+ * (ex.: {@code {"type":"TEMPERATURE","value":24.1,"timestamp":"2024-06-01T10:00:00Z"}}).
+ */
+public final class ReadingImportParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private ReadingImportParser() {
+    }
+
+    public static boolean isHeader(String line, ReadingImportFormat format) {
+        return format == ReadingImportFormat.CSV && line.regionMatches(true, 0, "timestamp", 0, 9);
+    }
+
+    /**
+     * @throws IllegalArgumentException se a linha não puder ser interpretada
+     */
+    public static ReadingRegisterDTO parse(String line, ReadingImportFormat format) {
+        return format == ReadingImportFormat.CSV ? parseCsv(line) : parseJson(line);
+    }
+
+    private static ReadingRegisterDTO parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 3) {
+            throw new IllegalArgumentException("Esperadas 3 colunas (timestamp,type,value), encontradas " + columns.length);
+        }
+
+        Instant timestamp = parseTimestamp(columns[0].trim());
+        ReadingType type = parseType(columns[1].trim());
+
+        try {
+            return new ReadingRegisterDTO(type, Double.valueOf(columns[2].trim()), timestamp);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + columns[2]);
+        }
+    }
+
+    private static ReadingRegisterDTO parseJson(String line) {
+        try {
+            return MAPPER.readValue(line, ReadingRegisterDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private static Instant parseTimestamp(String value) {
+        try {
+            if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+                return Instant.ofEpochMilli(Long.parseLong(value));
+            }
+            return Instant.parse(value);
+        } catch (DateTimeException | NumberFormatException e) {
+            throw new IllegalArgumentException("Timestamp inválido: " + value);
+        }
+    }
+
+    private static ReadingType parseType(String value) {
+        for (ReadingType type : ReadingType.values()) {
+            if (type.name().equalsIgnoreCase(value) || type.fromString().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de leitura inválido: " + value);
+    }
+}
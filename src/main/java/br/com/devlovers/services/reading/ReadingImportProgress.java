@@ -0,0 +1,46 @@
+package br.com.devlovers.services.reading;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.devlovers.domain.reading.dto.ReadingImportProgressDTO;
+import br.com.devlovers.services.reading.ReadingWriter.ReadingBatchResult;
+
+/**
+ * Contadores de uma importação em andamento, atualizados concorrentemente pelos lotes gravados.
+ */
+public class ReadingImportProgress {
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile String lastError;
+
+    public void parsed() {
+        parsed.incrementAndGet();
+    }
+
+    public void rejected(long line, String error) {
+        rejected.incrementAndGet();
+        lastError = "Linha " + line + ": " + error;
+    }
+
+    public void record(ReadingBatchResult result) {
+        if (result.isSuccess()) {
+            written.addAndGet(result.readings().size());
+        } else {
+            failed.addAndGet(result.readings().size());
+            lastError = "Falha ao gravar lote: " + result.error().getMessage();
+        }
+    }
+
+    public ReadingImportProgressDTO snapshot(boolean done) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        long writtenCount = written.get();
+        double readingsPerSecond = Math.round(writtenCount * 1000d * 10 / elapsedMillis) / 10d;
+
+        return new ReadingImportProgressDTO(parsed.get(), writtenCount, rejected.get(), failed.get(), elapsedMillis,
+                readingsPerSecond, done, lastError);
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.services.reading.ReadingWriter.ReadingBatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffer de escrita assíncrona (write-behind) para leituras.
+ * Quando habilitado, as leituras são aceitas em uma fila limitada e gravadas por uma
+ * thread dedicada em lotes limitados por tamanho (flush-size) e por tempo (linger),
+ * agrupados por partição. Com a fila cheia, novas leituras são recusadas.
+ */
+@Slf4j
+@Component
+public class ReadingIngestBuffer {
+
+    @Autowired
+    private ReadingWriter readingWriter;
+
+    @Autowired
+    private ReadingDeadband readingDeadband;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.readings.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${api.readings.buffer.flush-size:500}")
+    private int flushSize;
+
+    @Value("${api.readings.buffer.linger:PT0.2S}")
+    private Duration linger;
+
+    @Value("${api.readings.buffer.flush-timeout:PT30S}")
+    private Duration flushTimeout;
+
+    @Value("${api.readings.buffer.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    @Value("${api.readings.buffer.retry-after:1}")
+    private long retryAfterSeconds;
+
+    private BlockingQueue<Reading> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+    private Counter flushedCounter;
+    private Counter failedCounter;
+    private Timer flushTimer;
+    private DistributionSummary batchSizeSummary;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(capacity);
+        registerMetrics();
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "reading-ingest-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        log.info("Buffer de ingestão habilitado (capacidade {}, lote {}, linger {})", capacity, flushSize, linger);
+    }
+
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        log.info("Drenando buffer de ingestão ({} leituras pendentes)", queue.size());
+        running = false;
+        flusher.join(shutdownTimeout.toMillis());
+
+        if (!queue.isEmpty()) {
+            log.error("{} leituras não foram gravadas antes do encerramento", queue.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public boolean offer(Reading reading) {
+        if (!running || !queue.offer(reading)) {
+            rejectedCounter.increment();
+            return false;
+        }
+
+        acceptedCounter.increment();
+        return true;
+    }
+
+    private void runFlusher() {
+        long lingerNanos = linger.toNanos();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Reading first = queue.poll(lingerNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<Reading> batch = new ArrayList<>(flushSize);
+                batch.add(first);
+
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < flushSize) {
+                    // Drena o que já está disponível antes de esperar pelo restante do linger
+                    if (queue.drainTo(batch, flushSize - batch.size()) > 0) {
+                        continue;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    Reading next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Thread de gravação do buffer interrompida com {} leituras pendentes", queue.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado na gravação do buffer de ingestão: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void flush(List<Reading> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        batchSizeSummary.record(batch.size());
+
+        List<Reading> failed = write(batch);
+        if (!failed.isEmpty()) {
+            // Uma nova tentativa apenas para os lotes que falharam
+            failed = write(failed);
+        }
+
+        sample.stop(flushTimer);
+        flushedCounter.increment(batch.size() - failed.size());
+
+        if (!failed.isEmpty()) {
+            failed.forEach(readingDeadband::rollback);
+            failedCounter.increment(failed.size());
+            log.error("Falha ao gravar {} leituras do buffer de ingestão", failed.size());
+        }
+    }
+
+    private List<Reading> write(List<Reading> readings) {
+        try {
+            List<Reading> failed = readingWriter.write(readings)
+                    .filter(result -> !result.isSuccess())
+                    .flatMapIterable(ReadingBatchResult::readings)
+                    .collectList()
+                    .block(flushTimeout);
+
+            return failed != null ? failed : List.of();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar lote do buffer de ingestão: {}", e.getMessage());
+            return readings;
+        }
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("terrasense.ingest.buffer.size", queue, BlockingQueue::size)
+                .description("Leituras aguardando gravação")
+                .register(meterRegistry);
+        Gauge.builder("terrasense.ingest.buffer.capacity", () -> capacity)
+                .register(meterRegistry);
+        Gauge.builder("terrasense.ingest.buffer.flush.size.max", () -> flushSize)
+                .register(meterRegistry);
+        Gauge.builder("terrasense.ingest.buffer.linger", () -> linger.toMillis() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        acceptedCounter = meterRegistry.counter("terrasense.ingest.buffer.readings", "outcome", "accepted");
+        rejectedCounter = meterRegistry.counter("terrasense.ingest.buffer.readings", "outcome", "rejected");
+        flushedCounter = meterRegistry.counter("terrasense.ingest.buffer.readings", "outcome", "flushed");
+        failedCounter = meterRegistry.counter("terrasense.ingest.buffer.readings", "outcome", "failed");
+
+        flushTimer = meterRegistry.timer("terrasense.ingest.buffer.flush");
+        batchSizeSummary = DistributionSummary.builder("terrasense.ingest.buffer.flush.size")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.devlovers.services.reading;
+
+import br.com.devlovers.domain.reading.Reading;
+
+/**
+ * Notificado pelo {@link ReadingWriter} a cada leitura gravada com sucesso.
+ * É chamado na thread da gravação: implementações não devem bloquear.
+ */
+public interface ReadingListener {
+
+    void onReadingPersisted(Reading reading);
+
+    /**
+     * Listener ao vivo: recebe só as leituras que chegam agora, não as importadas do histórico
+     * ({@link ReadingWriter#importHistory}).
+     */
+    default boolean isLive() {
+        return false;
+    }
+}
@@ -0,0 +1,229 @@
+package br.com.devlovers.services.reading;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.dto.ReadingPageDTO;
+import br.com.devlovers.domain.reading.dto.ReadingResponseDTO;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.services.exceptions.InvalidCursorException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Paginação por cursor das leituras de um período. As partições diárias são percorridas em
+ * ordem e, dentro de cada uma, as leituras saem em ordem crescente de momento, de modo que a
+ * sequência completa é estável entre páginas.
+ *
+ * O cursor é opaco para o cliente e contém o dia corrente e o paging state do driver (ou, nos
+ * dias que podem estar em blocos, a posição dentro do dia), além de uma assinatura dos
+ * parâmetros da consulta: um cursor só vale para a consulta que o gerou.
+ * Cada requisição lê no máximo {@code pageSize} linhas e {@code max-partitions} partições,
+ * então uma página pode vir incompleta (com próximo cursor) em períodos com muitos dias vazios.
+ */
+@Component
+public class ReadingPager {
+
+    static final String SELECT_CQL = "SELECT timestamp, value FROM tb_sensor_readings "
+            + "WHERE deviceid = ? AND date = ? AND readingtype = ? AND timestamp >= ? AND timestamp <= ? "
+            + "ORDER BY readingtype DESC, timestamp ASC";
+
+    private static final byte CURSOR_VERSION = 2;
+
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    @Autowired
+    private CqlSession session;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Autowired
+    private ReadingBlockStore readingBlockStore;
+
+    @Value("${api.readings.page.max-partitions:31}")
+    private int maxPartitions = 31;
+
+    private final Mono<PreparedStatement> selectStatement = Mono
+            .defer(() -> Mono.fromCompletionStage(session.prepareAsync(SELECT_CQL)))
+            .cache(statement -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+
+    public Mono<ReadingPageDTO> page(UUID deviceId, ReadingType type, Instant start, Instant end, int pageSize,
+            String cursor) {
+        List<LocalDate> days = partitionPlanner.partitions(start, end);
+        if (days.isEmpty()) {
+            return Mono.just(new ReadingPageDTO(List.of(), null));
+        }
+
+        PageQuery query = new PageQuery(deviceId, type, start, end, Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)),
+                days);
+        PagePosition position = cursor != null ? PagePosition.decode(cursor, query.fingerprint())
+                : new PagePosition(days.get(0), null);
+
+        if (!days.contains(position.day())) {
+            throw new InvalidCursorException("Cursor fora do período consultado");
+        }
+
+        // Os blocos dos dias que esta requisição pode ler vêm em uma única consulta
+        int first = days.indexOf(position.day());
+        Mono<Map<LocalDate, ReadingBlock>> blocks = readingBlockStore.blocks(deviceId, type,
+                days.subList(first, Math.min(days.size(), first + Math.max(1, maxPartitions))));
+
+        return fill(query, position, new ArrayList<>(), 1, blocks);
+    }
+
+    private Mono<ReadingPageDTO> fill(PageQuery query, PagePosition position, List<ReadingResponseDTO> readings,
+            int partitions, Mono<Map<LocalDate, ReadingBlock>> blocks) {
+        int remaining = query.pageSize() - readings.size();
+        Mono<Optional<ByteBuffer>> fetch = readingBlockStore.mayBeCompacted(position.day())
+                ? fetchBlockDay(query, position, remaining, readings, blocks)
+                : fetchRows(query, position, remaining, readings);
+
+        return fetch.flatMap(pagingState -> {
+            LocalDate nextDay = pagingState.isPresent() ? position.day() : query.dayAfter(position.day());
+            if (nextDay == null) {
+                return Mono.just(new ReadingPageDTO(readings, null));
+            }
+
+            PagePosition next = new PagePosition(nextDay, pagingState.orElse(null));
+
+            if (readings.size() >= query.pageSize() || partitions >= maxPartitions) {
+                return Mono.just(new ReadingPageDTO(readings, next.encode(query.fingerprint())));
+            }
+
+            return fill(query, next, readings, next.pagingState() == null ? partitions + 1 : partitions, blocks);
+        });
+    }
+
+    private Mono<Optional<ByteBuffer>> fetchRows(PageQuery query, PagePosition position, int remaining,
+            List<ReadingResponseDTO> readings) {
+        return selectStatement
+                .flatMap(statement -> Mono.fromCompletionStage(() -> session.executeAsync(statement
+                        .bind(query.deviceId(), position.day(), query.type().name(), query.start(), query.end())
+                        .setPageSize(remaining)
+                        .setPagingState(position.pagingState())
+                        .setIdempotent(true))))
+                .map(result -> {
+                    collect(result, readings);
+                    return result.hasMorePages()
+                            ? Optional.of(result.getExecutionInfo().getPagingState())
+                            : Optional.empty();
+                });
+    }
+
+    // Dias que podem estar em blocos são lidos inteiros; a posição dentro do dia é um deslocamento
+    private Mono<Optional<ByteBuffer>> fetchBlockDay(PageQuery query, PagePosition position, int remaining,
+            List<ReadingResponseDTO> readings, Mono<Map<LocalDate, ReadingBlock>> blocks) {
+        int offset = blockOffset(position.pagingState());
+
+        return readingBlockStore.findAscending(query.deviceId(), position.day(), query.type(), query.start(),
+                        query.end(), blocks)
+                .skip(offset)
+                .take(remaining + 1L)
+                .collectList()
+                .map(found -> {
+                    found.stream()
+                            .limit(remaining)
+                            .forEach(reading -> readings.add(
+                                    new ReadingResponseDTO(reading.getTimestamp(), reading.getValue())));
+                    return found.size() > remaining
+                            ? Optional.of(ByteBuffer.allocate(4).putInt(0, offset + remaining))
+                            : Optional.empty();
+                });
+    }
+
+    private static int blockOffset(ByteBuffer pagingState) {
+        if (pagingState == null) {
+            return 0;
+        }
+        if (pagingState.remaining() != 4 || pagingState.getInt(pagingState.position()) < 0) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+        return pagingState.getInt(pagingState.position());
+    }
+
+    private static void collect(AsyncResultSet result, List<ReadingResponseDTO> readings) {
+        for (Row row : result.currentPage()) {
+            readings.add(new ReadingResponseDTO(row.getInstant("timestamp"), row.getDouble("value")));
+        }
+    }
+
+    private record PageQuery(UUID deviceId, ReadingType type, Instant start, Instant end, int pageSize,
+            List<LocalDate> days) {
+
+        LocalDate dayAfter(LocalDate day) {
+            int index = days.indexOf(day);
+            return index + 1 < days.size() ? days.get(index + 1) : null;
+        }
+
+        // O tamanho de página fica de fora: o cliente pode mudá-lo entre páginas
+        int fingerprint() {
+            return Objects.hash(deviceId, type, start, end);
+        }
+    }
+
+    private record PagePosition(LocalDate day, ByteBuffer pagingState) {
+
+        String encode(int fingerprint) {
+            int stateLength = pagingState != null ? pagingState.remaining() : 0;
+            ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8 + 4 + stateLength)
+                    .put(CURSOR_VERSION)
+                    .putInt(fingerprint)
+                    .putLong(day.toEpochDay())
+                    .putInt(stateLength);
+
+            if (pagingState != null) {
+                buffer.put(pagingState.duplicate());
+            }
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        }
+
+        static PagePosition decode(String cursor, int fingerprint) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+
+                if (buffer.get() != CURSOR_VERSION || buffer.getInt() != fingerprint) {
+                    throw new InvalidCursorException("Cursor não pertence a esta consulta");
+                }
+
+                LocalDate day = LocalDate.ofEpochDay(buffer.getLong());
+                int stateLength = buffer.getInt();
+                if (stateLength < 0 || stateLength != buffer.remaining()) {
+                    throw new InvalidCursorException("Cursor inválido");
+                }
+
+                ByteBuffer pagingState = null;
+                if (stateLength > 0) {
+                    byte[] state = new byte[stateLength];
+                    buffer.get(state);
+                    pagingState = ByteBuffer.wrap(state);
+                }
+
+                return new PagePosition(day, pagingState);
+            } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException e) {
+                throw new InvalidCursorException("Cursor inválido");
+            }
+        }
+    }
+}
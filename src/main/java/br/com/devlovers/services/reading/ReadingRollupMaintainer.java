@@ -0,0 +1,313 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.ReadingRollup;
+import br.com.devlovers.domain.reading.ReadingRollup.ReadingRollupKey;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import br.com.devlovers.repositories.DeviceByIdRepository;
+import br.com.devlovers.repositories.ReadingRepository;
+import br.com.devlovers.repositories.ReadingRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mantém os agregados por hora e por dia de {@code tb_reading_rollups}.
+ *
+ * Cada leitura gravada marca sua hora como pendente; periodicamente as horas pendentes são
+ * recalculadas a partir das leituras brutas dessa hora (algumas dezenas de linhas) e os dias
+ * que as contêm (no fuso das partições, {@link PartitionPlanner}), a partir das 24 horas. O recálculo é idempotente, então instâncias diferentes
+ * gravando a mesma hora convergem sem leitura-modificação-escrita concorrente; uma hora ou dia
+ * que ficou sem leituras tem o agregado anterior removido. Horas e dias que falham voltam às
+ * pendências. Um job horário marca as últimas horas de todos os dispositivos, cobrindo
+ * pendências perdidas em um reinício. Os jobs não bloqueiam a thread do agendador, compartilhada
+ * com os demais jobs: cada execução é assinada e ignorada enquanto a anterior não terminar.
+ */
+@Slf4j
+@Component
+public class ReadingRollupMaintainer implements ReadingListener {
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private ReadingRollupRepository readingRollupRepository;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Autowired
+    private ReadingBlockStore readingBlockStore;
+
+    @Autowired
+    private DeviceByIdRepository deviceByIdRepository;
+
+    @Autowired
+    private ReactiveCassandraOperations cassandraOperations;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.readings.rollup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${api.readings.rollup.catch-up-hours:3}")
+    private int catchUpHours;
+
+    private final Set<HourKey> pendingHours = ConcurrentHashMap.newKeySet();
+    private final Set<DayKey> pendingDays = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean catchingUp = new AtomicBoolean();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private InsertOptions insertOptions;
+    private Counter rebuiltCounter;
+
+    @PostConstruct
+    public void init() {
+        insertOptions = InsertOptions.builder().ttl(Duration.ofSeconds(ReadingWriter.READING_TTL)).build();
+        rebuiltCounter = meterRegistry.counter("terrasense.readings.rollups.rebuilt");
+    }
+
+    @Override
+    public void onReadingPersisted(Reading reading) {
+        if (enabled) {
+            pendingHours.add(new HourKey(reading.getKey().getDeviceId(), reading.getKey().getReadingType(),
+                    reading.getTimestamp().truncatedTo(ChronoUnit.HOURS)));
+        }
+    }
+
+    /**
+     * Marca para recálculo as horas de {@code start} a {@code end} (ex.: reconstrução após
+     * importação ou alteração de faixa de trabalho).
+     */
+    public void markPending(UUID deviceId, ReadingType type, Instant start, Instant end) {
+        for (Instant hour = start.truncatedTo(ChronoUnit.HOURS); hour.isBefore(end); hour = hour.plus(Duration.ofHours(1))) {
+            pendingHours.add(new HourKey(deviceId, type, hour));
+        }
+    }
+
+    @Scheduled(cron = "0 5 * * * *")
+    public void catchUp() {
+        if (!enabled || !catchingUp.compareAndSet(false, true)) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Instant start = now.truncatedTo(ChronoUnit.HOURS).minus(Duration.ofHours(catchUpHours));
+
+        deviceByIdRepository.findAll()
+                .filter(DeviceById::getIsActive)
+                .doOnNext(device -> {
+                    for (ReadingType type : ReadingType.values()) {
+                        markPending(device.getId(), type, start, now);
+                    }
+                })
+                .then()
+                .timeout(Duration.ofMinutes(1))
+                .doFinally(signal -> catchingUp.set(false))
+                .subscribe(null,
+                        e -> log.warn("Falha ao marcar horas para recálculo dos agregados: {}", e.getMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${api.readings.rollup.flush-interval:PT1M}")
+    public void flush() {
+        if (pendingHours.isEmpty() && pendingDays.isEmpty()) {
+            return;
+        }
+
+        // Recálculo ainda em andamento: as pendências ficam para a próxima execução
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<HourKey> hours = new ArrayList<>(pendingHours);
+        Set<DayKey> days = ConcurrentHashMap.newKeySet();
+        for (DayKey day : new ArrayList<>(pendingDays)) {
+            pendingDays.remove(day);
+            days.add(day);
+        }
+        Map<UUID, Mono<Optional<DeviceById>>> devices = new ConcurrentHashMap<>();
+        ZoneId zone = partitionPlanner.getZone();
+
+        // A hora sai das pendentes antes do recálculo: uma leitura gravada durante ele marca de novo
+        Flux.fromIterable(hours)
+                .doOnNext(pendingHours::remove)
+                .flatMap(hour -> devices
+                        .computeIfAbsent(hour.deviceId(), id -> deviceByIdRepository.findById(id)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .cache())
+                        .flatMap(device -> rebuildHour(hour, device.orElse(null)))
+                        .doOnSuccess(v -> days.add(hour.day(zone)))
+                        .onErrorResume(e -> {
+                            log.warn("Falha ao recalcular o agregado de {} {} às {}: {}", hour.deviceId(),
+                                    hour.type(), hour.start(), e.getMessage());
+                            pendingHours.add(hour);
+                            return Mono.empty();
+                        }), concurrency)
+                .thenMany(Flux.defer(() -> Flux.fromIterable(days)))
+                .flatMap(day -> rebuildDay(day, zone)
+                        .onErrorResume(e -> {
+                            log.warn("Falha ao recalcular o agregado diário de {} {} em {}: {}", day.deviceId(),
+                                    day.type(), day.date(), e.getMessage());
+                            pendingDays.add(day);
+                            return Mono.empty();
+                        }), concurrency)
+                .then()
+                .timeout(Duration.ofMinutes(5))
+                .doFinally(signal -> flushing.set(false))
+                .subscribe(null, e -> log.warn("Recálculo dos agregados interrompido: {}", e.getMessage()));
+    }
+
+    private Mono<Void> rebuildHour(HourKey hour, DeviceById device) {
+        Instant start = hour.start();
+        Instant last = start.plus(Duration.ofHours(1)).minusMillis(1);
+        Double min = device == null ? null
+                : hour.type() == ReadingType.HUMIDITY ? device.getMinWorkingHumidity() : device.getMinWorkingTemp();
+        Double max = device == null ? null
+                : hour.type() == ReadingType.HUMIDITY ? device.getMaxWorkingHumidity() : device.getMaxWorkingTemp();
+
+        // A hora cruza a virada de partição em fusos sem deslocamento inteiro e no fuso legado
+        List<LocalDate> dates = partitionPlanner.partitions(start, last);
+        Mono<Map<LocalDate, ReadingBlock>> blocks = readingBlockStore.blocks(hour.deviceId(), hour.type(), dates);
+
+        return Flux.fromIterable(dates)
+                .concatMap(date -> readingBlockStore.mayBeCompacted(date)
+                        ? readingBlockStore.find(hour.deviceId(), date, hour.type(), start, last, blocks)
+                        : readingRepository.findByAllCriteria(hour.deviceId(), date, hour.type(), start, last))
+                .collect(() -> new RollupAccumulator(min, max), RollupAccumulator::add)
+                .flatMap(accumulator -> store(accumulator,
+                        new ReadingRollupKey(hour.deviceId(), hour.type(), RollupGranularity.HOUR, start)));
+    }
+
+    private Mono<Void> rebuildDay(DayKey day, ZoneId zone) {
+        Instant start = day.date().atStartOfDay(zone).toInstant();
+        Instant end = day.date().plusDays(1).atStartOfDay(zone).toInstant();
+
+        return readingRollupRepository.findByBucketRange(day.deviceId(), day.type(), RollupGranularity.HOUR, start, end)
+                .collect(() -> new RollupAccumulator(null, null), RollupAccumulator::merge)
+                .flatMap(accumulator -> store(accumulator,
+                        new ReadingRollupKey(day.deviceId(), day.type(), RollupGranularity.DAY, start)));
+    }
+
+    // Sem leituras, o agregado anterior (se houver) é removido; a leitura prévia evita uma
+    // lápide a cada hora vazia marcada pelo catch-up
+    private Mono<Void> store(RollupAccumulator accumulator, ReadingRollupKey key) {
+        if (accumulator.count > 0) {
+            return cassandraOperations.insert(accumulator.toRollup(key), insertOptions)
+                    .doOnSuccess(result -> rebuiltCounter.increment())
+                    .then();
+        }
+
+        return readingRollupRepository.existsById(key)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> readingRollupRepository.deleteById(key)
+                        .doOnSuccess(v -> rebuiltCounter.increment()));
+    }
+
+    private record HourKey(UUID deviceId, ReadingType type, Instant start) {
+
+        DayKey day(ZoneId zone) {
+            return new DayKey(deviceId, type, start.atZone(zone).toLocalDate());
+        }
+    }
+
+    private record DayKey(UUID deviceId, ReadingType type, LocalDate date) {
+    }
+
+    static final class RollupAccumulator {
+
+        private final Double minWorking;
+        private final Double maxWorking;
+
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private Instant firstTimestamp;
+        private Instant lastTimestamp;
+        private Long inRangeCount;
+
+        RollupAccumulator(Double minWorking, Double maxWorking) {
+            this.minWorking = minWorking;
+            this.maxWorking = maxWorking;
+            this.inRangeCount = minWorking != null && maxWorking != null ? 0L : null;
+        }
+
+        void add(Reading reading) {
+            double value = reading.getValue();
+            count++;
+            sum += value;
+            sumOfSquares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            extend(reading.getTimestamp(), reading.getTimestamp());
+
+            if (inRangeCount != null && value >= minWorking && value <= maxWorking) {
+                inRangeCount++;
+            }
+        }
+
+        void merge(ReadingRollup rollup) {
+            // Horas sem faixa de trabalho deixam o dia sem contagem dentro da faixa
+            boolean first = count == 0;
+            count += rollup.getCount();
+            sum += rollup.getSum();
+            sumOfSquares += rollup.getSumOfSquares();
+            min = Math.min(min, rollup.getMin());
+            max = Math.max(max, rollup.getMax());
+            extend(rollup.getFirstTimestamp(), rollup.getLastTimestamp());
+
+            if (first) {
+                inRangeCount = rollup.getInRangeCount();
+            } else if (inRangeCount != null) {
+                inRangeCount = rollup.getInRangeCount() != null ? inRangeCount + rollup.getInRangeCount() : null;
+            }
+        }
+
+        ReadingRollup toRollup(ReadingRollupKey key) {
+            return new ReadingRollup(key, count, sum, sumOfSquares, min, max, firstTimestamp, lastTimestamp,
+                    inRangeCount);
+        }
+
+        private void extend(Instant first, Instant last) {
+            if (firstTimestamp == null || first.isBefore(firstTimestamp)) {
+                firstTimestamp = first;
+            }
+
+            if (lastTimestamp == null || last.isAfter(lastTimestamp)) {
+                lastTimestamp = last;
+            }
+        }
+    }
+}
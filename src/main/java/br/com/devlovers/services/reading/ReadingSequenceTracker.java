@@ -0,0 +1,125 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deduplicação de retransmissões pelo número de sequência enviado pelo dispositivo.
+ * Para cada dispositivo e tipo de leitura é mantida em memória uma janela com as últimas
+ * sequências recebidas (e o momento de medição informado junto), de modo que reenvios
+ * dentro da janela sejam descartados sem gravar no Cassandra.
+ * Uma sequência muito abaixo da maior já vista é tratada como reinício do dispositivo.
+ */
+@Component
+public class ReadingSequenceTracker {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.dedupe.window:64}")
+    private int windowSize;
+
+    @Value("${api.readings.dedupe.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${api.readings.dedupe.idle-timeout:PT1H}")
+    private Duration idleTimeout;
+
+    private Cache<SequenceKey, SequenceWindow> windows;
+    private Counter duplicateCounter;
+
+    @PostConstruct
+    public void init() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(idleTimeout)
+                .build();
+
+        duplicateCounter = meterRegistry.counter("terrasense.ingest.duplicates");
+    }
+
+    /**
+     * Registra a sequência recebida.
+     *
+     * @return {@code false} se a leitura já foi recebida (retransmissão)
+     */
+    public boolean register(UUID deviceId, ReadingType type, long sequence, Instant timestamp) {
+        SequenceWindow window = windows.get(new SequenceKey(deviceId, type), key -> new SequenceWindow(windowSize));
+        if (!window.register(sequence, toMillis(timestamp))) {
+            duplicateCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Esquece uma sequência registrada cuja gravação falhou, para que o reenvio seja aceito.
+     */
+    public void release(UUID deviceId, ReadingType type, long sequence, Instant timestamp) {
+        SequenceWindow window = windows.getIfPresent(new SequenceKey(deviceId, type));
+        if (window != null) {
+            window.release(sequence, toMillis(timestamp));
+        }
+    }
+
+    private static long toMillis(Instant timestamp) {
+        return timestamp != null ? timestamp.toEpochMilli() : SequenceWindow.NO_TIMESTAMP;
+    }
+
+    private record SequenceKey(UUID deviceId, ReadingType type) {
+    }
+
+    static final class SequenceWindow {
+
+        static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+        private final long[] sequences;
+        private final long[] timestamps;
+        private long highest = -1;
+
+        SequenceWindow(int size) {
+            sequences = new long[size];
+            timestamps = new long[size];
+            Arrays.fill(sequences, -1);
+        }
+
+        synchronized boolean register(long sequence, long timestamp) {
+            if (highest >= 0 && sequence + sequences.length < highest) {
+                // Sequência reiniciada (reboot do dispositivo): a janela anterior não vale mais
+                Arrays.fill(sequences, -1);
+                highest = -1;
+            }
+
+            int slot = (int) (sequence % sequences.length);
+            if (sequences[slot] == sequence && timestamps[slot] == timestamp) {
+                return false;
+            }
+
+            sequences[slot] = sequence;
+            timestamps[slot] = timestamp;
+            highest = Math.max(highest, sequence);
+            return true;
+        }
+
+        synchronized void release(long sequence, long timestamp) {
+            int slot = (int) (sequence % sequences.length);
+            if (sequences[slot] == sequence && timestamps[slot] == timestamp) {
+                sequences[slot] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.devlovers.services.reading;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.reading.Reading;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Distribui as leituras gravadas para os assinantes ao vivo (SSE dos painéis).
+ * Cada assinante tem um buffer limitado próprio que descarta as leituras mais antigas
+ * quando ele não acompanha o ritmo: a gravação nunca espera por um assinante lento.
+ */
+@Component
+public class ReadingStream implements ReadingListener {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.readings.stream.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    private final Sinks.Many<Reading> sink = Sinks.many().multicast().directBestEffort();
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("terrasense.stream.subscribers", sink, Sinks.Many::currentSubscriberCount)
+                .description("Assinantes do stream de leituras ao vivo")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("terrasense.stream.dropped")
+                .description("Leituras descartadas por assinantes lentos do stream ao vivo")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onReadingPersisted(Reading reading) {
+        // O sink exige emissões serializadas; a emissão só enfileira nos buffers dos assinantes
+        synchronized (sink) {
+            sink.tryEmitNext(reading);
+        }
+    }
+
+    // Um import de histórico não deve inundar os painéis com leituras antigas
+    @Override
+    public boolean isLive() {
+        return true;
+    }
+
+    public Flux<Reading> subscribe(Set<UUID> deviceIds) {
+        return sink.asFlux()
+                .filter(reading -> deviceIds.contains(reading.getKey().getDeviceId()))
+                .onBackpressureBuffer(subscriberBuffer, dropped -> droppedCounter.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .publishOn(Schedulers.parallel(), 32);
+    }
+}
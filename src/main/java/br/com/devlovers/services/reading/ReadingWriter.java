@@ -0,0 +1,230 @@
+package br.com.devlovers.services.reading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingPartition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caminho de escrita das leituras.
+ * Usa um INSERT preparado uma única vez e executado diretamente na CqlSession, sem passar
+ * pelo mapeamento de entidades do Spring Data (a entidade {@link Reading} continua sendo
+ * usada nas consultas). Lotes são agrupados por partição (dispositivo + dia) em batches
+ * UNLOGGED, que o coordenador aplica como uma só mutação. Leituras de dias encerrados marcam
+ * o bloco do dia ({@link ReadingBlockStore#markLateWrites}) depois de gravadas.
+ */
+@Slf4j
+@Component
+public class ReadingWriter {
+
+    public static final int READING_TTL = 63072000;
+
+    static final String INSERT_CQL = "INSERT INTO tb_sensor_readings (deviceid, date, readingtype, timestamp, value) "
+            + "VALUES (?, ?, ?, ?, ?) USING TTL ?";
+
+    @Autowired
+    private CqlSession session;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private List<ReadingListener> readingListeners;
+
+    @Autowired
+    private ReadingBlockStore readingBlockStore;
+
+    @Value("${api.readings.batch.partition-chunk-size:100}")
+    private int partitionChunkSize = 100;
+
+    @Value("${api.readings.batch.concurrency:4}")
+    private int concurrency = 4;
+
+    // Preparado na primeira escrita; uma falha não fica em cache e é tentada novamente na próxima
+    private final Mono<PreparedStatement> insertStatement = Mono
+            .defer(() -> Mono.fromCompletionStage(session.prepareAsync(INSERT_CQL)))
+            .cache(statement -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+
+    private Timer singleWriteTimer;
+    private Timer batchWriteTimer;
+
+    @PostConstruct
+    public void init() {
+        singleWriteTimer = writeTimer("single");
+        batchWriteTimer = writeTimer("batch");
+    }
+
+    public Mono<Reading> insert(Reading reading) {
+        return insertStatement
+                .flatMap(statement -> timed(singleWriteTimer,
+                        Mono.fromCompletionStage(() -> session.executeAsync(bind(statement, reading, Instant.now())))))
+                .then(Mono.defer(() -> readingBlockStore.markLateWrites(List.of(reading))))
+                .doOnSuccess(result -> notifyListeners(reading, true))
+                .thenReturn(reading);
+    }
+
+    public Flux<ReadingBatchResult> write(List<Reading> readings) {
+        return write(readings, Notify.ALL);
+    }
+
+    /**
+     * Grava leituras históricas (import), notificando os agregados e caches mas não os
+     * listeners ao vivo ({@link ReadingListener#isLive}).
+     */
+    public Flux<ReadingBatchResult> importHistory(List<Reading> readings) {
+        return write(readings, Notify.STORED_ONLY);
+    }
+
+    /**
+     * Grava leituras já existentes em outra partição (migração), sem notificar os
+     * {@link ReadingListener}: para os painéis, o stream e os agregados nada mudou.
+     */
+    public Flux<ReadingBatchResult> rewrite(List<Reading> readings) {
+        return write(readings, Notify.NONE);
+    }
+
+    private Flux<ReadingBatchResult> write(List<Reading> readings, Notify notify) {
+        return Flux.fromIterable(groupByPartition(readings).values())
+                .flatMapIterable(this::chunk)
+                .flatMap(chunk -> writeChunk(chunk, notify), Math.max(1, concurrency));
+    }
+
+    public static Map<ReadingPartition, List<Reading>> groupByPartition(List<Reading> readings) {
+        Map<ReadingPartition, List<Reading>> partitions = new LinkedHashMap<>();
+        for (Reading reading : readings) {
+            partitions.computeIfAbsent(ReadingPartition.of(reading), partition -> new ArrayList<>()).add(reading);
+        }
+        return partitions;
+    }
+
+    /**
+     * TTL restante da leitura, para que leituras antigas (importadas ou com momento informado
+     * pelo dispositivo) expirem ao fim do período de retenção contado a partir da medição.
+     */
+    public static int ttlFor(Reading reading, Instant now) {
+        long age = Math.max(0, Duration.between(reading.getTimestamp(), now).getSeconds());
+        return (int) Math.max(1, READING_TTL - age);
+    }
+
+    private List<List<Reading>> chunk(List<Reading> partition) {
+        int size = Math.max(1, partitionChunkSize);
+        List<List<Reading>> chunks = new ArrayList<>();
+        for (int i = 0; i < partition.size(); i += size) {
+            chunks.add(partition.subList(i, Math.min(i + size, partition.size())));
+        }
+        return chunks;
+    }
+
+    private Mono<ReadingBatchResult> writeChunk(List<Reading> chunk, Notify notify) {
+        return insertStatement
+                .flatMap(statement -> {
+                    Instant now = Instant.now();
+                    if (chunk.size() == 1) {
+                        return timed(singleWriteTimer,
+                                Mono.fromCompletionStage(() -> session.executeAsync(bind(statement, chunk.get(0), now))));
+                    }
+
+                    BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.UNLOGGED)
+                            .setIdempotence(true);
+                    for (Reading reading : chunk) {
+                        batch.addStatement(bind(statement, reading, now));
+                    }
+                    BatchStatement batchStatement = batch.build();
+
+                    return timed(batchWriteTimer, Mono.fromCompletionStage(() -> session.executeAsync(batchStatement)));
+                })
+                // Sem a marca o dia compactado não enxergaria as linhas: a falha dela falha o lote
+                .flatMap(result -> readingBlockStore.markLateWrites(chunk).thenReturn(result))
+                .map(result -> {
+                    if (notify != Notify.NONE) {
+                        boolean live = notify == Notify.ALL;
+                        chunk.forEach(reading -> notifyListeners(reading, live));
+                    }
+                    return ReadingBatchResult.success(chunk);
+                })
+                .onErrorResume(e -> Mono.just(ReadingBatchResult.failure(chunk, e)));
+    }
+
+    private void notifyListeners(Reading reading, boolean live) {
+        for (ReadingListener listener : readingListeners) {
+            if (!live && listener.isLive()) {
+                continue;
+            }
+            try {
+                listener.onReadingPersisted(reading);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao notificar {} sobre leitura gravada", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    static BoundStatement bind(PreparedStatement statement, Reading reading, Instant now) {
+        Reading.DeviceReadingKey key = reading.getKey();
+        return statement.bind(
+                key.getDeviceId(),
+                key.getDate(),
+                key.getReadingType().name(),
+                key.getTimestamp(),
+                reading.getValue(),
+                ttlFor(reading, now))
+                // A chave inclui o momento da medição: reexecutar o INSERT grava a mesma linha
+                .setIdempotent(true);
+    }
+
+    private <T> Mono<T> timed(Timer timer, Mono<T> write) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return write.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Timer writeTimer(String kind) {
+        return Timer.builder("terrasense.readings.write")
+                .description("Latência das escritas de leituras no Cassandra")
+                .tag("kind", kind)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private enum Notify {
+        ALL, STORED_ONLY, NONE
+    }
+
+    public record ReadingBatchResult(List<Reading> readings, Throwable error) {
+
+        public static ReadingBatchResult success(List<Reading> readings) {
+            return new ReadingBatchResult(readings, null);
+        }
+
+        public static ReadingBatchResult failure(List<Reading> readings, Throwable error) {
+            return new ReadingBatchResult(readings, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.devlovers.services.reading;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.com.devlovers.domain.device.enums.Sensor;
+import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+
+/**
+ * Extrai as leituras suportadas de uma mensagem de telemetria do Tasmota (tele/<topic>/SENSOR
+ * ou a resposta de "Status 10"), de acordo com o sensor cadastrado no dispositivo.
+ *
+ * Exemplo: {"Time":"2024-06-01T10:00:00","AM2301":{"Temperature":24.1,"Humidity":60.2},"TempUnit":"C"}
+ *
+ * O campo "Time" é ignorado: ele traz a hora local do dispositivo sem fuso horário,
+ * então o momento do recebimento é usado.
+ */
+public final class TasmotaTelemetryParser {
+
+    private TasmotaTelemetryParser() {
+    }
+
+    public static List<ReadingRegisterDTO> parse(JsonNode payload, Sensor sensor) {
+        List<ReadingRegisterDTO> readings = new ArrayList<>();
+        if (payload == null || sensor == null) {
+            return readings;
+        }
+
+        JsonNode telemetry = payload.has("StatusSNS") ? payload.get("StatusSNS") : payload;
+        JsonNode sensorNode = findSensorNode(telemetry, sensor);
+        if (sensorNode == null) {
+            return readings;
+        }
+
+        boolean fahrenheit = "F".equalsIgnoreCase(telemetry.path("TempUnit").asText("C"));
+
+        Double temperature = getNumber(sensorNode, "Temperature");
+        if (temperature != null) {
+            double celsius = fahrenheit ? (temperature - 32) * 5 / 9 : temperature;
+            readings.add(new ReadingRegisterDTO(ReadingType.TEMPERATURE, Math.round(celsius * 100) / 100.0, null));
+        }
+
+        // O DS18B20 mede apenas temperatura
+        if (sensor != Sensor.DS18B20) {
+            Double humidity = getNumber(sensorNode, "Humidity");
+            if (humidity != null) {
+                readings.add(new ReadingRegisterDTO(ReadingType.HUMIDITY, humidity, null));
+            }
+        }
+
+        return readings;
+    }
+
+    private static JsonNode findSensorNode(JsonNode telemetry, Sensor sensor) {
+        String name = sensor.name();
+        if (telemetry.path(name).isObject()) {
+            return telemetry.get(name);
+        }
+
+        // Vários sensores do mesmo modelo são numerados (DS18B20-1, DS18B20-2...): usa o primeiro
+        String first = null;
+        Iterator<String> fields = telemetry.fieldNames();
+        while (fields.hasNext()) {
+            String field = fields.next();
+            if (field.startsWith(name + "-") && telemetry.get(field).isObject()
+                    && (first == null || field.compareTo(first) < 0)) {
+                first = field;
+            }
+        }
+
+        return first != null ? telemetry.get(first) : null;
+    }
+
+    private static Double getNumber(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && value.isNumber() ? value.asDouble() : null;
+    }
+}
@@ -17,6 +17,7 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import br.com.devlovers.domain.device.Device;
 import br.com.devlovers.domain.device.enums.Branch;
 import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingRollup;
 import br.com.devlovers.domain.reading.enums.ReadingType;
 import br.com.devlovers.services.exceptions.ReportGenerationException;
 import br.com.devlovers.services.report.util.ChartsCreator;
@@ -57,9 +58,9 @@ public class Template implements Document {
 
     @Override
     public void fillMetricsForm(LocalDate startDate, LocalDate endDate, int numberOfDays, List<Reading> readings,
-            ReadingType type) {
-        MetricsFormFiller metricsFormFiller = new MetricsFormFiller();
-        metricsFormFiller.fill(document, startDate, endDate, numberOfDays, type, readings);
+            List<ReadingRollup> hourlyRollups, ReadingType type, boolean timeWeighted) {
+        MetricsFormFiller metricsFormFiller = new MetricsFormFiller(timeWeighted);
+        metricsFormFiller.fill(document, startDate, endDate, numberOfDays, type, readings, hourlyRollups);
     }
 
     @Override
@@ -82,10 +83,10 @@ public class Template implements Document {
 
     @Override
     public void insertInfoParagraph(Device device, LocalDate startDate, LocalDate endDate, ReadingType readingType,
-            float currentYPosition, List<Reading> readings) {
+            float currentYPosition, List<Reading> readings, boolean timeWeighted) {
         currentYPosition -= 25f;
         
-        InfoParagraphInserter inserter = new InfoParagraphInserter();
+        InfoParagraphInserter inserter = new InfoParagraphInserter(timeWeighted);
         inserter.insertParagraph(document, startDate, endDate, 25f, currentYPosition, 550f, device, readingType, readings);
     }
 
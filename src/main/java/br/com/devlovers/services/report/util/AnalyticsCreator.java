@@ -1,9 +1,11 @@
 package br.com.devlovers.services.report.util;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -15,21 +17,44 @@ import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import br.com.devlovers.domain.device.Device;
 import br.com.devlovers.domain.device.enums.Function;
 import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingRollup;
 
 public class AnalyticsCreator {
 
-    public Double getMean(List<Reading> readings) {
-        if (!readings.isEmpty()) {
-            Integer numberOfReadings = readings.size();
-            Double sumOfReadings = 0.0;
+    /**
+     * Intervalo nominal entre leituras dos dispositivos.
+     */
+    public static final Duration READING_INTERVAL = Duration.ofMinutes(3);
 
-            for (Reading reading : readings) {
-                sumOfReadings += reading.getValue();
-            }
+    /**
+     * Maior intervalo entre duas leituras armazenadas que ainda é considerado contínuo.
+     * Com a compressão por banda morta na ingestão, uma leitura armazenada representa
+     * todas as descartadas até a próxima (no máximo um heartbeat); acima disso, o
+     * intervalo é tratado como falta de dados.
+     */
+    public static final Duration MAX_READING_GAP = Duration.ofMinutes(35);
+
+    private final boolean timeWeighted;
+
+    public AnalyticsCreator() {
+        this(false);
+    }
+
+    /**
+     * @param timeWeighted pondera cada leitura pelo intervalo até a próxima; só para séries
+     * gravadas com compressão por banda morta, nas quais uma leitura representa as descartadas.
+     * Sem ponderação, cada leitura conta como uma leitura nominal (3 minutos)
+     */
+    public AnalyticsCreator(boolean timeWeighted) {
+        this.timeWeighted = timeWeighted;
+    }
 
-            Double mean = sumOfReadings / numberOfReadings;
+    public Double getMean(List<Reading> readings) {
+        if (!readings.isEmpty()) {
+            List<Reading> sortedReadings = new ArrayList<>(readings);
+            sortedReadings.sort(Comparator.comparing(Reading::getTimestamp));
 
-            return mean;
+            return weightedMean(sortedReadings, getWeights(sortedReadings));
         }
 
         return 0.0;
@@ -60,10 +85,7 @@ public class AnalyticsCreator {
                 String period = periodEntry.getKey();
                 List<Reading> periodReadings = periodEntry.getValue();
 
-                DescriptiveStatistics stats = new DescriptiveStatistics();
-                periodReadings.forEach(reading -> stats.addValue(reading.getValue()));
-
-                double mean = stats.getMean();
+                double mean = weightedMean(periodReadings, getWeights(periodReadings));
 
                 meanByPeriod.put(period, mean);
             }
@@ -89,10 +111,7 @@ public class AnalyticsCreator {
             Integer day = dayEntry.getKey();
             List<Reading> dayReadings = dayEntry.getValue();
 
-            DescriptiveStatistics stats = new DescriptiveStatistics();
-            dayReadings.forEach(reading -> stats.addValue(reading.getValue()));
-
-            double standardDeviation = stats.getStandardDeviation();
+            double standardDeviation = weightedStandardDeviation(dayReadings, getWeights(dayReadings));
 
             standardDeviationByDay.put(day, standardDeviation);
         }
@@ -152,14 +171,86 @@ public class AnalyticsCreator {
         return maxByDay;
     }
 
+    /**
+     * Média por período de 4 horas por dia a partir dos agregados por hora, equivalente a
+     * {@link #getMeans} sem ponderação.
+     */
+    public Map<Integer, Map<String, Double>> getRollupMeans(List<ReadingRollup> hourlyRollups) {
+        Map<Integer, Map<String, List<ReadingRollup>>> rollupsByPeriodByDay = hourlyRollups.stream()
+                .collect(Collectors.groupingBy(
+                        rollup -> getDay(rollup.getKey().getBucket()),
+                        Collectors.groupingBy(
+                                rollup -> getPeriod(rollup.getKey().getBucket()),
+                                Collectors.toList())));
+
+        Map<Integer, Map<String, Double>> meanByPeriodByDay = new HashMap<>();
+
+        for (Map.Entry<Integer, Map<String, List<ReadingRollup>>> dayEntry : rollupsByPeriodByDay.entrySet()) {
+            Map<String, Double> meanByPeriod = new HashMap<>();
+
+            for (Map.Entry<String, List<ReadingRollup>> periodEntry : dayEntry.getValue().entrySet()) {
+                long count = periodEntry.getValue().stream().mapToLong(ReadingRollup::getCount).sum();
+                double sum = periodEntry.getValue().stream().mapToDouble(ReadingRollup::getSum).sum();
+
+                meanByPeriod.put(periodEntry.getKey(), sum / count);
+            }
+
+            meanByPeriodByDay.put(dayEntry.getKey(), meanByPeriod);
+        }
+
+        return meanByPeriodByDay;
+    }
+
+    /**
+     * Desvio padrão amostral por dia a partir dos agregados por hora (soma e soma dos quadrados).
+     */
+    public Map<Integer, Double> getRollupStandardDeviation(List<ReadingRollup> hourlyRollups) {
+        Map<Integer, Double> standardDeviationByDay = new HashMap<>();
+
+        for (Map.Entry<Integer, List<ReadingRollup>> dayEntry : groupByDay(hourlyRollups).entrySet()) {
+            long count = dayEntry.getValue().stream().mapToLong(ReadingRollup::getCount).sum();
+            double sum = dayEntry.getValue().stream().mapToDouble(ReadingRollup::getSum).sum();
+            double sumOfSquares = dayEntry.getValue().stream().mapToDouble(ReadingRollup::getSumOfSquares).sum();
+
+            double variance = count > 1 ? (sumOfSquares - sum * sum / count) / (count - 1) : 0.0;
+
+            standardDeviationByDay.put(dayEntry.getKey(), Math.sqrt(Math.max(0.0, variance)));
+        }
+
+        return standardDeviationByDay;
+    }
+
+    public Map<Integer, Double> getRollupMin(List<ReadingRollup> hourlyRollups) {
+        Map<Integer, Double> minByDay = new HashMap<>();
+        groupByDay(hourlyRollups).forEach((day, rollups) -> minByDay.put(day,
+                rollups.stream().mapToDouble(ReadingRollup::getMin).min().orElse(Double.NaN)));
+        return minByDay;
+    }
+
+    public Map<Integer, Double> getRollupMax(List<ReadingRollup> hourlyRollups) {
+        Map<Integer, Double> maxByDay = new HashMap<>();
+        groupByDay(hourlyRollups).forEach((day, rollups) -> maxByDay.put(day,
+                rollups.stream().mapToDouble(ReadingRollup::getMax).max().orElse(Double.NaN)));
+        return maxByDay;
+    }
+
     public String getWorkingPeriodInCorrectTemperatureRange(Device device, List<Reading> readings) {
         double minTemp = device.getMinWorkingTemp();
         double maxTemp = device.getMaxWorkingTemp();
 
-        long countInRange = readings.stream()
-                .filter(reading -> reading.getValue() >= minTemp && reading.getValue() <= maxTemp).count();
+        List<Reading> sortedReadings = new ArrayList<>(readings);
+        sortedReadings.sort(Comparator.comparing(Reading::getTimestamp));
+        double[] weights = getWeights(sortedReadings);
 
-        long totalMinutesInRange = countInRange * 3;
+        double readingsInRange = 0;
+        for (int i = 0; i < sortedReadings.size(); i++) {
+            double value = sortedReadings.get(i).getValue();
+            if (value >= minTemp && value <= maxTemp) {
+                readingsInRange += weights[i];
+            }
+        }
+
+        long totalMinutesInRange = Math.round(readingsInRange * READING_INTERVAL.toMinutes());
 
         return formatTime(totalMinutesInRange);
     }
@@ -168,10 +259,19 @@ public class AnalyticsCreator {
         double minHumi = device.getMinWorkingHumidity();
         double maxHumi = device.getMaxWorkingHumidity();
 
-        long countInRange = readings.stream()
-                .filter(reading -> reading.getValue() >= minHumi && reading.getValue() <= maxHumi).count();
+        List<Reading> sortedReadings = new ArrayList<>(readings);
+        sortedReadings.sort(Comparator.comparing(Reading::getTimestamp));
+        double[] weights = getWeights(sortedReadings);
+
+        double readingsInRange = 0;
+        for (int i = 0; i < sortedReadings.size(); i++) {
+            double value = sortedReadings.get(i).getValue();
+            if (value >= minHumi && value <= maxHumi) {
+                readingsInRange += weights[i];
+            }
+        }
 
-        long totalMinutesInRange = countInRange * 3;
+        long totalMinutesInRange = Math.round(readingsInRange * READING_INTERVAL.toMinutes());
 
         return formatTime(totalMinutesInRange);
     }
@@ -180,16 +280,21 @@ public class AnalyticsCreator {
         double minTemp = device.getMinWorkingTemp();
         double maxTemp = device.getMaxWorkingTemp();
 
-        int consecutiveOutOfRangeCount = 0;
+        List<Reading> sortedReadings = new ArrayList<>(readings);
+        sortedReadings.sort(Comparator.comparing(Reading::getTimestamp));
+        double[] weights = getWeights(sortedReadings);
 
-        for (Reading reading : readings) {
+        double consecutiveOutOfRangeCount = 0;
+
+        for (int i = 0; i < sortedReadings.size(); i++) {
+            Reading reading = sortedReadings.get(i);
             if (reading.getValue() < minTemp || reading.getValue() > maxTemp) {
-                consecutiveOutOfRangeCount++;
+                consecutiveOutOfRangeCount += weights[i];
             } else {
                 consecutiveOutOfRangeCount = 0;
             }
 
-            if (consecutiveOutOfRangeCount == 7) {
+            if (consecutiveOutOfRangeCount >= 7) {
                 if (device.getFunction() == Function.EQUIPMENT) {
                     return " (Importante: verificar a vedação, evitar deixar o equipamento aberto por muito tempo)";
                 }
@@ -206,22 +311,85 @@ public class AnalyticsCreator {
         double minHumi = device.getMinWorkingHumidity();
         double maxHumi = device.getMaxWorkingHumidity();
 
-        int consecutiveOutOfRangeCount = 0;
+        List<Reading> sortedReadings = new ArrayList<>(readings);
+        sortedReadings.sort(Comparator.comparing(Reading::getTimestamp));
+        double[] weights = getWeights(sortedReadings);
+
+        double consecutiveOutOfRangeCount = 0;
 
-        for (Reading reading : readings) {
+        for (int i = 0; i < sortedReadings.size(); i++) {
+            Reading reading = sortedReadings.get(i);
             if (reading.getValue() < minHumi || reading.getValue() > maxHumi) {
-                consecutiveOutOfRangeCount++;
+                consecutiveOutOfRangeCount += weights[i];
             } else {
                 consecutiveOutOfRangeCount = 0;
             }
 
-            if (consecutiveOutOfRangeCount == 7) {
+            if (consecutiveOutOfRangeCount >= 7) {
                 return " (Importante: valores de umidade fora do limite aceitável foram detectados por, pelo menos, 21 minutos consecutivos. Verifique imediatamente para ajustar as condições)";
             }
         }
         return "";
     }
 
+    /**
+     * Peso de cada leitura (já ordenadas por momento) em número de leituras nominais:
+     * o intervalo até a próxima leitura dividido pelo intervalo nominal. Sem ponderação
+     * todos os pesos valem 1 e as estatísticas equivalem às não ponderadas.
+     */
+    private double[] getWeights(List<Reading> readings) {
+        double[] weights = new double[readings.size()];
+        double interval = READING_INTERVAL.toMillis();
+
+        for (int i = 0; i < readings.size(); i++) {
+            if (!timeWeighted || i == readings.size() - 1) {
+                weights[i] = 1;
+                continue;
+            }
+
+            long gap = Duration.between(readings.get(i).getTimestamp(), readings.get(i + 1).getTimestamp()).toMillis();
+            weights[i] = gap > 0 && gap <= MAX_READING_GAP.toMillis() ? gap / interval : 1;
+        }
+
+        return weights;
+    }
+
+    private double weightedMean(List<Reading> readings, double[] weights) {
+        double sum = 0;
+        double totalWeight = 0;
+
+        for (int i = 0; i < readings.size(); i++) {
+            sum += readings.get(i).getValue() * weights[i];
+            totalWeight += weights[i];
+        }
+
+        return totalWeight > 0 ? sum / totalWeight : Double.NaN;
+    }
+
+    // Desvio padrão amostral com pesos de frequência (igual ao não ponderado quando os pesos valem 1)
+    private double weightedStandardDeviation(List<Reading> readings, double[] weights) {
+        if (readings.size() < 2) {
+            return readings.isEmpty() ? Double.NaN : 0.0;
+        }
+
+        double mean = weightedMean(readings, weights);
+        double sumOfSquares = 0;
+        double totalWeight = 0;
+
+        for (int i = 0; i < readings.size(); i++) {
+            double deviation = readings.get(i).getValue() - mean;
+            sumOfSquares += weights[i] * deviation * deviation;
+            totalWeight += weights[i];
+        }
+
+        return totalWeight > 1 ? Math.sqrt(sumOfSquares / (totalWeight - 1)) : 0.0;
+    }
+
+    private Map<Integer, List<ReadingRollup>> groupByDay(List<ReadingRollup> hourlyRollups) {
+        return hourlyRollups.stream()
+                .collect(Collectors.groupingBy(rollup -> getDay(rollup.getKey().getBucket())));
+    }
+
     private String formatTime(long totalMinutes) {
         long days = totalMinutes / (24 * 60);
         long hours = (totalMinutes % (24 * 60)) / 60;
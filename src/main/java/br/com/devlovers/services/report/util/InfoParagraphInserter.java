@@ -29,8 +29,8 @@ public class InfoParagraphInserter {
 
     private final AnalyticsCreator analyticsCreator;
 
-    public InfoParagraphInserter() {
-        this.analyticsCreator = new AnalyticsCreator();
+    public InfoParagraphInserter(boolean timeWeighted) {
+        this.analyticsCreator = new AnalyticsCreator(timeWeighted);
     }
 
     public void insertParagraph(PDDocument document, LocalDate start, LocalDate end, float xPos, float yPos,
@@ -13,6 +13,7 @@ import org.apache.pdfbox.pdmodel.font.PDFont;
 
 import br.com.devlovers.cache.FontCache;
 import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingRollup;
 import br.com.devlovers.domain.reading.enums.ReadingType;
 import br.com.devlovers.services.exceptions.ReportGenerationException;
 
@@ -33,8 +34,8 @@ public class MetricsFormFiller {
     private static final String FONT_PATH_BOLD = "static/fonts/Arial-Bold.ttf";
     private static final String FONT_PATH_REGULAR = "static/fonts/Arial.ttf";
 
-    public MetricsFormFiller() {
-        this.analyticsCreator = new AnalyticsCreator();
+    public MetricsFormFiller(boolean timeWeighted) {
+        this.analyticsCreator = new AnalyticsCreator(timeWeighted);
     }
 
     public void fill(
@@ -43,14 +44,28 @@ public class MetricsFormFiller {
             LocalDate endDate,
             int numberOfDays,
             ReadingType type,
-            List<Reading> readings) {
+            List<Reading> readings,
+            List<ReadingRollup> hourlyRollups) {
 
         addTitle(document, type);
 
-        Map<Integer, Map<String, Double>> means = analyticsCreator.getMeans(readings);
-        Map<Integer, Double> standardDeviations = analyticsCreator.getStandardDeviation(readings);
-        Map<Integer, Double> minMeasures = analyticsCreator.getMin(readings);
-        Map<Integer, Double> maxMeasures = analyticsCreator.getMax(readings);
+        Map<Integer, Map<String, Double>> means;
+        Map<Integer, Double> standardDeviations;
+        Map<Integer, Double> minMeasures;
+        Map<Integer, Double> maxMeasures;
+
+        // Com agregados por hora atualizados para o período, a tabela não percorre as leituras
+        if (hourlyRollups != null) {
+            means = analyticsCreator.getRollupMeans(hourlyRollups);
+            standardDeviations = analyticsCreator.getRollupStandardDeviation(hourlyRollups);
+            minMeasures = analyticsCreator.getRollupMin(hourlyRollups);
+            maxMeasures = analyticsCreator.getRollupMax(hourlyRollups);
+        } else {
+            means = analyticsCreator.getMeans(readings);
+            standardDeviations = analyticsCreator.getStandardDeviation(readings);
+            minMeasures = analyticsCreator.getMin(readings);
+            maxMeasures = analyticsCreator.getMax(readings);
+        }
 
         addDayData(document, startDate, numberOfDays);
         addNestedMetricData(document, means, startDate, numberOfDays);
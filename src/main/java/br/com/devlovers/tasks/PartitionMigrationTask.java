@@ -0,0 +1,159 @@
+package br.com.devlovers.tasks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.repositories.DeviceByIdRepository;
+import br.com.devlovers.repositories.ReadingRepository;
+import br.com.devlovers.services.reading.PartitionPlanner;
+import br.com.devlovers.services.reading.ReadingWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Move para a partição do {@link PartitionPlanner} as leituras gravadas com o dia de outro fuso
+ * (from-zone, normalmente o antigo fuso do servidor). Roda uma vez na inicialização quando
+ * habilitada, percorrendo as partições dos últimos {@code days} dias de todos os dispositivos.
+ *
+ * Cada leitura fora do lugar é regravada na partição correta (com o TTL restante) e só então
+ * apagada da antiga, então a migração pode ser interrompida e executada de novo. Até terminar,
+ * as consultas devem ler os dois fusos ({@code api.readings.partition.legacy-zone}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.readings.partition.migration.enabled", havingValue = "true")
+public class PartitionMigrationTask {
+
+    @Autowired
+    private DeviceByIdRepository deviceByIdRepository;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private ReadingWriter readingWriter;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Value("${api.readings.partition.migration.from-zone}")
+    private ZoneId fromZone;
+
+    @Value("${api.readings.partition.migration.days:730}")
+    private int days;
+
+    @Value("${api.readings.partition.migration.concurrency:2}")
+    private int concurrency;
+
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (fromZone.equals(partitionPlanner.getZone())) {
+            log.info("Migração de partições ignorada: o fuso {} já é o fuso das partições", fromZone);
+            return;
+        }
+
+        LocalDate to = Instant.now().atZone(fromZone).toLocalDate();
+        LocalDate from = to.minusDays(Math.max(1, days) - 1L);
+
+        log.info("Iniciando migração das partições de {} a {} do fuso {} para {}", from, to, fromZone,
+                partitionPlanner.getZone());
+
+        subscription = deviceByIdRepository.findAll()
+                .map(DeviceById::getId)
+                .concatMap(deviceId -> migrate(deviceId, from, to)
+                        .doOnNext(result -> log.info("Partições do dispositivo {} migradas: {}", deviceId, result)))
+                .reduce(MigrationResult::plus)
+                .subscribe(
+                        total -> log.info("Migração de partições concluída: {}", total),
+                        e -> log.error("Migração de partições interrompida: {}", e.getMessage(), e));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Migra as partições de {@code from} a {@code to} (dias do fuso de origem) do dispositivo.
+     */
+    public Mono<MigrationResult> migrate(UUID deviceId, LocalDate from, LocalDate to) {
+        List<Partition> partitions = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (ReadingType type : ReadingType.values()) {
+                partitions.add(new Partition(deviceId, date, type));
+            }
+        }
+
+        return Flux.fromIterable(partitions)
+                .flatMap(this::migrate, Math.max(1, concurrency))
+                .reduce(new MigrationResult(0, 0, 0), MigrationResult::plus);
+    }
+
+    private Mono<MigrationResult> migrate(Partition partition) {
+        AtomicLong scanned = new AtomicLong();
+
+        return readingRepository.findByPartition(partition.deviceId(), partition.date(), partition.type())
+                .doOnNext(reading -> scanned.incrementAndGet())
+                .filter(reading -> !partitionPlanner.partitionDate(reading.getTimestamp()).equals(partition.date()))
+                .map(reading -> new Reading(new Reading.DeviceReadingKey(partition.deviceId(),
+                        partitionPlanner.partitionDate(reading.getTimestamp()), partition.type(),
+                        reading.getTimestamp()), reading.getValue()))
+                .collectList()
+                .flatMapMany(readingWriter::rewrite)
+                .concatMap(result -> {
+                    if (!result.isSuccess()) {
+                        log.warn("Falha ao regravar {} leituras de {} {} em {}: {}", result.readings().size(),
+                                partition.deviceId(), partition.type(), partition.date(), result.error().getMessage());
+                        return Mono.just(new MigrationResult(0, 0, result.readings().size()));
+                    }
+
+                    // Com a cópia gravada, a linha antiga pode sair; uma falha aqui deixa só uma duplicata
+                    List<Reading> moved = result.readings().stream()
+                            .map(reading -> new Reading(new Reading.DeviceReadingKey(partition.deviceId(),
+                                    partition.date(), partition.type(), reading.getTimestamp()), reading.getValue()))
+                            .toList();
+
+                    return readingRepository.deleteAll(moved)
+                            .thenReturn(new MigrationResult(0, moved.size(), 0));
+                })
+                .reduce(new MigrationResult(0, 0, 0), MigrationResult::plus)
+                .map(result -> result.plus(new MigrationResult(scanned.get(), 0, 0)))
+                .onErrorResume(e -> {
+                    log.warn("Falha ao migrar a partição {} {} de {}: {}", partition.deviceId(), partition.type(),
+                            partition.date(), e.getMessage());
+                    return Mono.just(new MigrationResult(scanned.get(), 0, 1));
+                });
+    }
+
+    private record Partition(UUID deviceId, LocalDate date, ReadingType type) {
+    }
+
+    public record MigrationResult(long scanned, long moved, long failed) {
+
+        MigrationResult plus(MigrationResult other) {
+            return new MigrationResult(scanned + other.scanned, moved + other.moved, failed + other.failed);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.devlovers.tasks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.repositories.DeviceByIdRepository;
+import br.com.devlovers.services.reading.PartitionPlanner;
+import br.com.devlovers.services.reading.ReadingBlockStore;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compacta em blocos ({@code tb_reading_blocks}) as leituras dos dias com pelo menos
+ * {@code min-age-days} dias, percorrendo os últimos {@code lookback-days} desses dias de todos
+ * os dispositivos. Dias já compactados e sem linhas brutas novas custam uma consulta vazia.
+ * Para compactar o histórico existente, aumente lookback-days na primeira execução.
+ */
+@Slf4j
+@Component
+public class ReadingCompactionTask {
+
+    @Autowired
+    private DeviceByIdRepository deviceByIdRepository;
+
+    @Autowired
+    private ReadingBlockStore readingBlockStore;
+
+    @Autowired
+    private PartitionPlanner partitionPlanner;
+
+    @Value("${api.readings.blocks.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.readings.blocks.min-age-days:3}")
+    private int minAgeDays;
+
+    @Value("${api.readings.blocks.lookback-days:7}")
+    private int lookbackDays;
+
+    @Value("${api.readings.blocks.concurrency:2}")
+    private int concurrency;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${api.readings.blocks.cron:0 20 3 * * *}", zone = "America/Sao_Paulo")
+    public void compact() {
+        // Os blocos usam o dia do fuso atual das partições; com partições legadas, a migração vem antes
+        if (!enabled || partitionPlanner.hasLegacyZone()) {
+            return;
+        }
+
+        // Execução longa (histórico): roda fora da thread do agendador e não se sobrepõe
+        if (!running.compareAndSet(false, true)) {
+            log.info("Compactação de leituras ainda em andamento, execução ignorada");
+            return;
+        }
+
+        LocalDate last = partitionPlanner.partitionDate(Instant.now()).minusDays(Math.max(1, minAgeDays));
+        LocalDate first = last.minusDays(Math.max(1, lookbackDays) - 1L);
+
+        deviceByIdRepository.findAll()
+                .map(DeviceById::getId)
+                .concatMap(deviceId -> compact(deviceId, first, last))
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        total -> log.info("Compactação de leituras de {} a {} concluída: {} leituras", first, last, total),
+                        e -> log.error("Compactação de leituras interrompida: {}", e.getMessage(), e));
+    }
+
+    private Mono<Long> compact(UUID deviceId, LocalDate first, LocalDate last) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            dates.add(date);
+        }
+
+        return Flux.fromIterable(dates)
+                .flatMap(date -> Flux.fromArray(ReadingType.values())
+                        .concatMap(type -> readingBlockStore.compact(deviceId, date, type)
+                                .onErrorResume(e -> {
+                                    log.warn("Falha ao compactar as leituras de {} {} em {}: {}", deviceId, type,
+                                            date, e.getMessage());
+                                    return Mono.just(0);
+                                })), Math.max(1, concurrency))
+                .reduce(0L, (total, compacted) -> total + compacted);
+    }
+}
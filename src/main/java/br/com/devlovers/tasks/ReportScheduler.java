@@ -1,6 +1,7 @@
 package br.com.devlovers.tasks;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -47,7 +48,7 @@ public class ReportScheduler {
 
     @Scheduled(cron = "0 30 0 * * *", zone = "America/Sao_Paulo")
     public void generateAndSendDailyReports() {
-        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate yesterday = LocalDate.now(ZoneId.of("America/Sao_Paulo")).minusDays(1);
 
         log.info("Iniciando geração e envio de relatórios do dia {}", yesterday);
 
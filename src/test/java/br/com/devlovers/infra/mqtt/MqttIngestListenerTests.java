@@ -0,0 +1,197 @@
+package br.com.devlovers.infra.mqtt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.dto.ReadingBatchItemResultDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBatchResponseDTO;
+import br.com.devlovers.domain.reading.enums.ReadingBatchItemStatus;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.services.DeviceService;
+import br.com.devlovers.services.exceptions.InvalidBatchException;
+import br.com.devlovers.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exercita o callback do cliente MQTT sem broker: as mensagens são entregues diretamente
+ * a {@link MqttIngestListener#messageArrived}.
+ */
+class MqttIngestListenerTests {
+
+    private static final String TELEMETRY = "{\"Time\":\"2024-05-10T12:00:00\",\"AM2301\":{\"Temperature\":24.5,\"Humidity\":60.1}}";
+
+    private final DeviceService deviceService = mock(DeviceService.class);
+    private final IngestMetrics ingestMetrics = mock(IngestMetrics.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Semaphore inFlight = new Semaphore(4);
+
+    private MqttIngestListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(ingestMetrics.instrument(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        listener = new MqttIngestListener();
+        ReflectionTestUtils.setField(listener, "deviceService", deviceService);
+        ReflectionTestUtils.setField(listener, "ingestMetrics", ingestMetrics);
+        ReflectionTestUtils.setField(listener, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(listener, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(listener, "deviceTopicLevel", 1);
+        ReflectionTestUtils.setField(listener, "inFlight", inFlight);
+        ReflectionTestUtils.setField(listener, "topicIdentifier", MqttIngestListener.TopicIdentifier.API_KEY);
+        listener.init();
+    }
+
+    @Test
+    @DisplayName("Should resolve the API key from the device ID in the topic and cache it")
+    void messageArrivedDeviceIdCase1() throws Exception {
+        ReflectionTestUtils.setField(listener, "topicIdentifier", MqttIngestListener.TopicIdentifier.DEVICE_ID);
+        UUID deviceId = UUID.randomUUID();
+        DeviceById device = new DeviceById();
+        device.setApiKey("chave");
+        when(deviceService.findDeviceById(deviceId)).thenReturn(Mono.just(device));
+        when(deviceService.insertTasmotaTelemetry(eq("chave"), any(JsonNode.class)))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.CREATED, ReadingBatchItemStatus.CREATED)));
+
+        listener.messageArrived("tele/" + deviceId + "/SENSOR", message(TELEMETRY));
+        listener.messageArrived("tele/" + deviceId + "/SENSOR", message(TELEMETRY));
+
+        verify(deviceService, times(1)).findDeviceById(deviceId);
+        verify(deviceService, times(2)).insertTasmotaTelemetry(eq("chave"), any(JsonNode.class));
+        assertEquals(2.0, count("ingested"));
+        assertEquals(4, inFlight.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should reject a topic level that is not a device ID and fail an unknown device")
+    void messageArrivedDeviceIdCase2() throws Exception {
+        ReflectionTestUtils.setField(listener, "topicIdentifier", MqttIngestListener.TopicIdentifier.DEVICE_ID);
+        UUID deviceId = UUID.randomUUID();
+        when(deviceService.findDeviceById(deviceId))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Dispositivo não encontrado: ID " + deviceId)));
+
+        listener.messageArrived("tele/chave/SENSOR", message(TELEMETRY));
+        listener.messageArrived("tele/" + deviceId + "/SENSOR", message(TELEMETRY));
+
+        verify(deviceService, never()).insertTasmotaTelemetry(any(), any());
+        assertEquals(1.0, count("rejected"));
+        assertEquals(1.0, count("failed"));
+        assertEquals(4, inFlight.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should write the telemetry with the API key from the topic")
+    void messageArrivedCase1() throws Exception {
+        when(deviceService.insertTasmotaTelemetry(eq("chave"), any(JsonNode.class)))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.CREATED, ReadingBatchItemStatus.CREATED)));
+
+        listener.messageArrived("tele/chave/SENSOR", message(TELEMETRY));
+
+        verify(deviceService).insertTasmotaTelemetry(eq("chave"), any(JsonNode.class));
+        assertEquals(1.0, count("ingested"));
+        assertEquals(4, inFlight.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should enqueue the telemetry when the ingest buffer is enabled")
+    void messageArrivedCase2() throws Exception {
+        when(deviceService.isBufferedIngest()).thenReturn(true);
+        when(deviceService.enqueueTasmotaTelemetry(eq("chave"), any(JsonNode.class)))
+                .thenReturn(Mono.just(List.of(new Reading(new Reading.DeviceReadingKey(UUID.randomUUID(),
+                        LocalDate.of(2024, 5, 10), ReadingType.TEMPERATURE, Instant.now()), 24.5))));
+
+        listener.messageArrived("tele/chave/SENSOR", message(TELEMETRY));
+
+        verify(deviceService, never()).insertTasmotaTelemetry(any(), any());
+        assertEquals(1.0, count("ingested"));
+    }
+
+    @Test
+    @DisplayName("Should count a payload that yields no readings as empty instead of ingested")
+    void messageArrivedCase3() throws Exception {
+        when(deviceService.isBufferedIngest()).thenReturn(true);
+        when(deviceService.enqueueTasmotaTelemetry(eq("chave"), any(JsonNode.class))).thenReturn(Mono.just(List.of()));
+
+        listener.messageArrived("tele/chave/SENSOR", message("{\"Time\":\"2024-05-10T12:00:00\"}"));
+
+        when(deviceService.isBufferedIngest()).thenReturn(false);
+        when(deviceService.insertTasmotaTelemetry(eq("chave"), any(JsonNode.class)))
+                .thenReturn(Mono.error(new InvalidBatchException("Nenhuma medição do sensor AM2301 encontrada na telemetria")))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.DUPLICATE, ReadingBatchItemStatus.REJECTED)));
+
+        listener.messageArrived("tele/chave/SENSOR", message("{\"Time\":\"2024-05-10T12:00:00\"}"));
+        listener.messageArrived("tele/chave/SENSOR", message(TELEMETRY));
+
+        assertEquals(3.0, count("empty"));
+        assertEquals(0.0, count("ingested"));
+    }
+
+    @Test
+    @DisplayName("Should count failed writes and release the in-flight permit")
+    void messageArrivedCase4() throws Exception {
+        when(deviceService.insertTasmotaTelemetry(eq("chave"), any(JsonNode.class)))
+                .thenReturn(Mono.error(new IllegalStateException("Cassandra indisponível")))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.CREATED, ReadingBatchItemStatus.FAILED)));
+
+        listener.messageArrived("tele/chave/SENSOR", message(TELEMETRY));
+        listener.messageArrived("tele/chave/SENSOR", message(TELEMETRY));
+
+        assertEquals(2.0, count("failed"));
+        assertEquals(4, inFlight.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid JSON and topics without the device level")
+    void messageArrivedCase5() throws Exception {
+        listener.messageArrived("tele/chave/SENSOR", message("{não é json"));
+        listener.messageArrived("tele", message(TELEMETRY));
+
+        verify(deviceService, never()).insertTasmotaTelemetry(any(), any());
+        assertEquals(1.0, meterRegistry.counter("terrasense.mqtt.messages", "topic", "tele/+/SENSOR",
+                "outcome", "rejected").count());
+        assertEquals(1.0, meterRegistry.counter("terrasense.mqtt.messages", "topic", "tele",
+                "outcome", "rejected").count());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("terrasense.mqtt.messages", "topic", "tele/+/SENSOR", "outcome", outcome).count();
+    }
+
+    private static MqttMessage message(String payload) {
+        return new MqttMessage(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReadingBatchResponseDTO response(ReadingBatchItemStatus... statuses) {
+        ReadingBatchItemResultDTO[] results = new ReadingBatchItemResultDTO[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            results[i] = new ReadingBatchItemResultDTO(i, statuses[i], null, null);
+        }
+        return new ReadingBatchResponseDTO(List.of(results));
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.devlovers.infra.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.devlovers.domain.device.DeviceIdentity;
+import br.com.devlovers.domain.device.enums.DeviceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IngestRateLimiterTests {
+
+    private static final int BATCH_MAX_SIZE = 1000;
+
+    private static final DeviceIdentity DEVICE = new DeviceIdentity(UUID.randomUUID(), "api-key", "Sensor 1",
+            UUID.randomUUID(), null, null, null, null, DeviceType.ESP8266, null, null, null, null, null, true);
+
+    private IngestRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new IngestRateLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "capacity", (long) BATCH_MAX_SIZE);
+        ReflectionTestUtils.setField(limiter, "perSecond", 1.0);
+        ReflectionTestUtils.setField(limiter, "deviceTypeLimits", List.of());
+        ReflectionTestUtils.setField(limiter, "deviceLimits", List.of());
+        ReflectionTestUtils.setField(limiter, "idleTimeout", Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should admit a max-size batch and ask a following reading to wait only one interval")
+    void tryAcquireCase1() {
+        limiter.init();
+
+        assertEquals(0, limiter.tryAcquire(DEVICE, BATCH_MAX_SIZE));
+        assertEquals(1, limiter.tryAcquire(DEVICE, 1));
+    }
+
+    @Test
+    @DisplayName("Should not leave the device in debt after a batch larger than a device type capacity")
+    void tryAcquireCase2() {
+        ReflectionTestUtils.setField(limiter, "deviceTypeLimits", List.of("ESP8266=30/1"));
+        limiter.init();
+
+        assertEquals(0, limiter.tryAcquire(DEVICE, BATCH_MAX_SIZE));
+        assertEquals(1, limiter.tryAcquire(DEVICE, 1));
+    }
+}
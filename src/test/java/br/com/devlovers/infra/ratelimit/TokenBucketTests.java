@@ -0,0 +1,71 @@
+package br.com.devlovers.infra.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+    @Test
+    @DisplayName("Should admit a burst up to the capacity and then ask to wait one interval")
+    void tryAcquireCase1() {
+        TokenBucket bucket = new TokenBucket(5, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire());
+        }
+
+        long waitNanos = bucket.tryAcquire();
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(900));
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Should refill at the sustained rate")
+    void tryAcquireCase2() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 20);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+
+        Thread.sleep(60);
+
+        assertEquals(0, bucket.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should admit a batch larger than the capacity only from a full bucket without leaving debt")
+    void tryAcquireCase3() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+
+        assertEquals(0, bucket.tryAcquire(30));
+        assertTrue(bucket.tryAcquire(30) > 0);
+
+        // O lote esvazia o bucket, mas o próximo token volta em ~1s
+        long waitNanos = bucket.tryAcquire();
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(900));
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Should not consume tokens from a rejected batch")
+    void tryAcquireCase4() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+
+        assertEquals(0, bucket.tryAcquire(6));
+        assertTrue(bucket.tryAcquire(5) > 0);
+        assertEquals(0, bucket.tryAcquire(4));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive capacity or rate")
+    void constructorCase1() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.devlovers.infra.security;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Testa a cadeia de segurança do actuator isolada, contra rotas falsas de health e prometheus.
+ */
+class ActuatorSecurityTests {
+
+    @Test
+    @DisplayName("Should keep health public and require the scrape credential for prometheus")
+    void actuatorCase1() {
+        WebTestClient client = client("segredo");
+
+        client.get().uri("/actuator/health").exchange().expectStatus().isOk();
+        client.get().uri("/actuator/prometheus").exchange().expectStatus().isUnauthorized();
+        client.get().uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", "errada"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        client.get().uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", "segredo"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Should close the metrics endpoints when no scrape password is configured")
+    void actuatorCase2() {
+        WebTestClient client = client("");
+
+        client.get().uri("/actuator/health").exchange().expectStatus().isOk();
+        client.get().uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", ""))
+                .exchange()
+                .expectStatus().is4xxClientError();
+    }
+
+    private static WebTestClient client(String password) {
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "passwordEncoder", new BCryptPasswordEncoder());
+        ReflectionTestUtils.setField(config, "scrapeUsername", "prometheus");
+        ReflectionTestUtils.setField(config, "scrapePassword", password);
+
+        WebFilterChainProxy security = new WebFilterChainProxy(
+                config.actuatorSecurityWebFilterChain(ServerHttpSecurity.http()));
+
+        return WebTestClient
+                .bindToRouterFunction(route(RequestPredicates.GET("/actuator/{endpoint}"),
+                        request -> ServerResponse.ok().bodyValue("ok")))
+                .webFilter(security)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.devlovers.infra.udp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+class ReadingDatagramTests {
+
+    @Test
+    @DisplayName("Should decode the binary datagram fields")
+    void decodeCase1() {
+        ReadingDatagram datagram = ReadingDatagram.decode(datagram(1, "chave-123", 1, 65.4f, 1715310000123L));
+
+        assertEquals("chave-123", datagram.apiKey());
+        assertEquals(ReadingType.HUMIDITY, datagram.type());
+        assertEquals(65.4, datagram.value());
+        assertEquals(1715310000123L, datagram.timestampMillis());
+
+        ReadingRegisterDTO register = datagram.toRegister();
+        assertEquals(ReadingType.HUMIDITY, register.type());
+        assertEquals(Instant.ofEpochMilli(1715310000123L), register.timestamp());
+    }
+
+    @Test
+    @DisplayName("Should leave the timestamp to the server when the datagram carries zero")
+    void decodeCase2() {
+        ReadingDatagram datagram = ReadingDatagram.decode(datagram(1, "chave", 0, -3.25f, 0));
+
+        assertEquals(ReadingType.TEMPERATURE, datagram.type());
+        assertEquals(-3.25, datagram.value());
+        assertFalse(datagram.hasTimestamp());
+        assertNull(datagram.toRegister().timestamp());
+    }
+
+    @Test
+    @DisplayName("Should reject truncated or oversized datagrams")
+    void decodeCase3() {
+        ByteBuf complete = datagram(1, "chave", 0, 20f, 1715310000123L);
+
+        for (int length = 0; length < complete.readableBytes(); length++) {
+            ByteBuf truncated = complete.copy(0, length);
+            assertThrows(IllegalArgumentException.class, () -> ReadingDatagram.decode(truncated));
+        }
+
+        ByteBuf oversized = Unpooled.buffer().writeBytes(complete.copy()).writeByte(0);
+        assertThrows(IllegalArgumentException.class, () -> ReadingDatagram.decode(oversized));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown versions, metrics, empty keys and non-finite values")
+    void decodeCase4() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingDatagram.decode(datagram(2, "chave", 0, 20f, 1715310000123L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingDatagram.decode(datagram(1, "chave", 2, 20f, 1715310000123L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingDatagram.decode(datagram(1, "", 0, 20f, 1715310000123L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingDatagram.decode(datagram(1, "chave", 0, Float.NaN, 1715310000123L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingDatagram.decode(datagram(1, "chave", 0, Float.POSITIVE_INFINITY, 1715310000123L)));
+        assertTrue(ReadingDatagram.decode(datagram(1, "k".repeat(64), 0, 20f, 1)).hasTimestamp());
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingDatagram.decode(datagram(1, "k".repeat(65), 0, 20f, 1)));
+    }
+
+    static ByteBuf datagram(int version, String apiKey, int metric, float value, long timestampMillis) {
+        byte[] key = apiKey.getBytes(StandardCharsets.US_ASCII);
+        return Unpooled.buffer()
+                .writeByte(version)
+                .writeByte(key.length)
+                .writeBytes(key)
+                .writeByte(metric)
+                .writeFloat(value)
+                .writeLong(timestampMillis);
+    }
+}
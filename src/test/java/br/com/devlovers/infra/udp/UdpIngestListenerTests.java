@@ -0,0 +1,120 @@
+package br.com.devlovers.infra.udp;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.devlovers.domain.reading.dto.ReadingBatchItemResultDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBatchResponseDTO;
+import br.com.devlovers.domain.reading.enums.ReadingBatchItemStatus;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.services.DeviceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+/**
+ * Testa o listener contra datagramas reais enviados a uma porta local efêmera.
+ */
+class UdpIngestListenerTests {
+
+    private final DeviceService deviceService = mock(DeviceService.class);
+    private final IngestMetrics ingestMetrics = mock(IngestMetrics.class);
+
+    private UdpIngestListener listener;
+    private InetSocketAddress address;
+
+    @BeforeEach
+    void setUp() {
+        when(ingestMetrics.instrument(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        listener = new UdpIngestListener();
+        ReflectionTestUtils.setField(listener, "deviceService", deviceService);
+        ReflectionTestUtils.setField(listener, "ingestMetrics", ingestMetrics);
+        ReflectionTestUtils.setField(listener, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(listener, "host", "127.0.0.1");
+        ReflectionTestUtils.setField(listener, "port", 0);
+        ReflectionTestUtils.setField(listener, "maxInFlight", 16);
+        ReflectionTestUtils.setField(listener, "rateLimitCapacity", 100L);
+        ReflectionTestUtils.setField(listener, "rateLimitPerSecond", 100d);
+        ReflectionTestUtils.setField(listener, "dedupeWindow", Duration.ofMinutes(5));
+        listener.start();
+
+        Connection connection = (Connection) ReflectionTestUtils.getField(listener, "connection");
+        address = (InetSocketAddress) connection.address();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("Should drop a retransmission of a reading that was written")
+    void ingestCase1() throws Exception {
+        when(deviceService.insertReadings(eq("chave"), any())).thenReturn(Mono.just(response(ReadingBatchItemStatus.CREATED)));
+
+        send(ReadingDatagramTests.datagram(1, "chave", 0, 21.5f, 1715310000123L));
+        verify(deviceService, timeout(2000).times(1)).insertReadings(eq("chave"), any());
+
+        send(ReadingDatagramTests.datagram(1, "chave", 0, 21.5f, 1715310000123L));
+        verify(deviceService, after(300).times(1)).insertReadings(eq("chave"), any());
+    }
+
+    @Test
+    @DisplayName("Should accept a retransmission after the write failed")
+    void ingestCase2() throws Exception {
+        when(deviceService.insertReadings(eq("chave"), any()))
+                .thenReturn(Mono.error(new IllegalStateException("Cassandra indisponível")))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.CREATED)));
+
+        send(ReadingDatagramTests.datagram(1, "chave", 0, 21.5f, 1715310000123L));
+        verify(deviceService, timeout(2000).times(1)).insertReadings(eq("chave"), any());
+
+        send(ReadingDatagramTests.datagram(1, "chave", 0, 21.5f, 1715310000123L));
+        verify(deviceService, timeout(2000).times(2)).insertReadings(eq("chave"), any());
+    }
+
+    @Test
+    @DisplayName("Should accept a retransmission after the reading failed inside the batch")
+    void ingestCase3() throws Exception {
+        when(deviceService.insertReadings(eq("chave"), any()))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.FAILED)))
+                .thenReturn(Mono.just(response(ReadingBatchItemStatus.CREATED)));
+
+        send(ReadingDatagramTests.datagram(1, "chave", 1, 70f, 1715310000123L));
+        verify(deviceService, timeout(2000).times(1)).insertReadings(eq("chave"), any());
+
+        send(ReadingDatagramTests.datagram(1, "chave", 1, 70f, 1715310000123L));
+        verify(deviceService, timeout(2000).times(2)).insertReadings(eq("chave"), any());
+    }
+
+    private void send(ByteBuf datagram) throws Exception {
+        byte[] bytes = new byte[datagram.readableBytes()];
+        datagram.readBytes(bytes);
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.send(new DatagramPacket(bytes, bytes.length, address));
+        }
+    }
+
+    private static ReadingBatchResponseDTO response(ReadingBatchItemStatus status) {
+        return new ReadingBatchResponseDTO(List.of(new ReadingBatchItemResultDTO(0, status, null, null)));
+    }
+}
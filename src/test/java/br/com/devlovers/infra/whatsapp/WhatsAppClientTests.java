@@ -0,0 +1,109 @@
+package br.com.devlovers.infra.whatsapp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import br.com.devlovers.infra.whatsapp.exceptions.WhatsAppUnavailableException;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+/**
+ * Testa o cliente contra um gateway local (stub) que responde com os status configurados.
+ */
+class WhatsAppClientTests {
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    private DisposableServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should post the message to the session with the API key")
+    void sendMessageCase1() {
+        WhatsAppClient client = client(5);
+
+        StepVerifier.create(client.sendMessage("123@g.us", "Teste"))
+                .verifyComplete();
+
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).startsWith("/client/sendMessage/session|secret|"));
+        assertTrue(requests.get(0).contains("\"chatId\":\"123@g.us\""));
+        assertTrue(requests.get(0).contains("\"content\":\"Teste\""));
+    }
+
+    @Test
+    @DisplayName("Should retry when the gateway is temporarily unavailable")
+    void sendMessageCase2() {
+        failuresLeft.set(2);
+        WhatsAppClient client = client(5);
+
+        StepVerifier.create(client.sendMessage("123@g.us", "Teste"))
+                .verifyComplete();
+
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    @DisplayName("Should fail fast without calling the gateway when the circuit is open")
+    void sendMessageCase3() {
+        failuresLeft.set(Integer.MAX_VALUE);
+        WhatsAppClient client = client(2);
+
+        StepVerifier.create(client.sendMessage("123@g.us", "Teste"))
+                .expectError()
+                .verify();
+
+        int attempts = requests.size();
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        StepVerifier.create(client.sendMessage("123@g.us", "Teste"))
+                .expectError(WhatsAppUnavailableException.class)
+                .verify();
+
+        assertEquals(attempts, requests.size());
+    }
+
+    private WhatsAppClient client(int failureThreshold) {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/client/sendMessage/{sessionId}", (request, response) -> request
+                        .receive()
+                        .aggregate()
+                        .asString()
+                        .flatMap(body -> {
+                            requests.add(request.uri() + "|" + request.requestHeaders().get("x-api-key") + "|" + body);
+                            HttpResponseStatus status = failuresLeft.getAndDecrement() > 0
+                                    ? HttpResponseStatus.SERVICE_UNAVAILABLE
+                                    : HttpResponseStatus.OK;
+                            return Mono.from(response.status(status).sendString(Mono.just("{\"success\":true}")));
+                        })))
+                .bindNow();
+
+        WhatsAppClient client = new WhatsAppClient(WebClient.builder(), "http://localhost:" + server.port(),
+                "session", "secret", 2, Duration.ofSeconds(5), failureThreshold, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(client, "minBackoff", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(client, "maxBackoff", Duration.ofMillis(50));
+        return client;
+    }
+}
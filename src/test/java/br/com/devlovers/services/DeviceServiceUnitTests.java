@@ -1,13 +1,18 @@
 package br.com.devlovers.services;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,19 +22,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.cassandra.core.EntityWriteResult;
-import org.springframework.data.cassandra.core.InsertOptions;
 import org.springframework.data.cassandra.core.ReactiveCassandraTemplate;
 import org.springframework.data.cassandra.core.query.Query;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.devlovers.cache.ClosedDayReadingCache;
+import br.com.devlovers.cache.DeviceIdentityCache;
+import br.com.devlovers.cache.LatestReadingCache;
 import br.com.devlovers.domain.device.Device;
 import br.com.devlovers.domain.device.DeviceByApiKey;
 import br.com.devlovers.domain.device.DeviceByApiKey.DeviceByApiKeyKey;
 import br.com.devlovers.domain.device.DeviceById;
+import br.com.devlovers.domain.device.DeviceIdentity;
 import br.com.devlovers.domain.device.DeviceByUserId;
 import br.com.devlovers.domain.device.DeviceByUserId.DeviceByUserIdKey;
 import br.com.devlovers.domain.device.dto.DeviceUpdateDTO;
@@ -38,18 +49,42 @@ import br.com.devlovers.domain.device.enums.DeviceType;
 import br.com.devlovers.domain.device.enums.Function;
 import br.com.devlovers.domain.device.enums.Sensor;
 import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.ReadingRollup;
+import br.com.devlovers.domain.reading.dto.FleetReadingDTO;
+import br.com.devlovers.domain.reading.dto.ReadingBucketDTO;
+import br.com.devlovers.domain.reading.dto.ReadingRegisterDTO;
+import br.com.devlovers.domain.reading.enums.ReadingBatchItemStatus;
+import br.com.devlovers.domain.reading.enums.ReadingImportFormat;
 import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
 import br.com.devlovers.domain.user.UserById;
 import br.com.devlovers.domain.user.enums.Role;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.infra.ratelimit.IngestRateLimiter;
 import br.com.devlovers.repositories.DeviceByApiKeyRepository;
 import br.com.devlovers.repositories.DeviceByIdRepository;
 import br.com.devlovers.repositories.DeviceByUserIdRepository;
 import br.com.devlovers.repositories.DeviceRepository;
 import br.com.devlovers.repositories.ReadingRepository;
+import br.com.devlovers.repositories.ReadingRollupRepository;
 import br.com.devlovers.repositories.UserByIdRepository;
+import br.com.devlovers.services.alert.ReadingAlertEngine;
 import br.com.devlovers.services.exceptions.DeviceAlreadyExistsException;
+import br.com.devlovers.services.exceptions.IngestBufferFullException;
+import br.com.devlovers.services.exceptions.InvalidBatchException;
+import br.com.devlovers.services.exceptions.InvalidReadingException;
+import br.com.devlovers.services.exceptions.RateLimitExceededException;
 import br.com.devlovers.services.exceptions.ResourceNotFoundException;
-import br.com.devlovers.util.DateRangePicker;
+import br.com.devlovers.services.reading.PartitionPlanner;
+import br.com.devlovers.services.reading.ReadingBlockStore;
+import br.com.devlovers.services.reading.ReadingDeadband;
+import br.com.devlovers.services.reading.ReadingIngestBuffer;
+import br.com.devlovers.services.reading.ReadingSequenceTracker;
+import br.com.devlovers.services.reading.ReadingPager;
+import br.com.devlovers.services.reading.ReadingStream;
+import br.com.devlovers.services.reading.ReadingWriter;
+import br.com.devlovers.services.reading.ReadingWriter.ReadingBatchResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -77,6 +112,9 @@ class DeviceServiceUnitTests {
         @Mock
         private ReadingRepository readingRepository;
 
+        @Mock
+        private ReadingRollupRepository readingRollupRepository;
+
         @Mock
         private WebClient.Builder webClientBuilder;
 
@@ -95,6 +133,48 @@ class DeviceServiceUnitTests {
         @Mock
         private ReactiveCassandraTemplate cassandraTemplate;
 
+        @Mock
+        private ReadingWriter readingWriter;
+
+        @Mock
+        private DeviceIdentityCache deviceIdentityCache;
+
+        @Mock
+        private ReadingIngestBuffer readingIngestBuffer;
+
+        @Mock
+        private ReadingSequenceTracker readingSequenceTracker;
+
+        @Spy
+        private PartitionPlanner partitionPlanner = new PartitionPlanner();
+
+        @Mock
+        private IngestRateLimiter ingestRateLimiter;
+
+        @Mock
+        private ReadingDeadband readingDeadband;
+
+        @Mock
+        private IngestMetrics ingestMetrics;
+
+        @Mock
+        private LatestReadingCache latestReadingCache;
+
+        @Mock
+        private ClosedDayReadingCache closedDayReadingCache;
+
+        @Mock
+        private ReadingStream readingStream;
+
+        @Mock
+        private ReadingAlertEngine readingAlertEngine;
+
+        @Mock
+        private ReadingPager readingPager;
+
+        @Mock
+        private ReadingBlockStore readingBlockStore;
+
         @InjectMocks
         private DeviceService deviceService;
 
@@ -178,34 +258,278 @@ class DeviceServiceUnitTests {
                 verify(deviceByUserIdRepository, never()).save(any(DeviceByUserId.class));
         }
 
-        @SuppressWarnings("unchecked")
         @Test
         @DisplayName("Should insert reading when everything is OK")
         void insertReadingCase1() {
-                when(deviceByApiKeyRepository.findByKeyApiKey(API_KEY)).thenReturn(Mono.just(deviceByApiKey));
-                when(cassandraTemplate.insert(any(Reading.class), any(InsertOptions.class)))
-                                .thenReturn(Mono.just(mock(EntityWriteResult.class)));
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingWriter.insert(any(Reading.class)))
+                                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
-                StepVerifier.create(deviceService.insertReading(API_KEY, ReadingType.TEMPERATURE, 25.0))
+                StepVerifier.create(deviceService.insertReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
                                 .expectNextMatches(r -> r.getKey().getDeviceId().equals(DEVICE_ID)
                                                 && r.getValue().equals(25.0))
                                 .verifyComplete();
 
-                verify(deviceByApiKeyRepository, times(1)).findByKeyApiKey(API_KEY);
-                verify(cassandraTemplate, times(1)).insert(any(Reading.class), any(InsertOptions.class));
+                verify(deviceIdentityCache, times(1)).get(API_KEY);
+                verify(readingWriter, times(1)).insert(any(Reading.class));
         }
 
         @Test
         @DisplayName("Should throw exception when API key is not found for device")
         void insertReadingCase2() {
-                when(deviceByApiKeyRepository.findByKeyApiKey(API_KEY)).thenReturn(Mono.empty());
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.empty());
 
-                StepVerifier.create(deviceService.insertReading(API_KEY, ReadingType.TEMPERATURE, 25.0))
+                StepVerifier.create(deviceService.insertReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
                                 .expectErrorMatches(throwable -> throwable instanceof ResourceNotFoundException)
                                 .verify();
 
-                verify(deviceByApiKeyRepository, times(1)).findByKeyApiKey(API_KEY);
-                verify(cassandraTemplate, never()).insert(any(Reading.class), any(InsertOptions.class));
+                verify(deviceIdentityCache, times(1)).get(API_KEY);
+                verify(readingWriter, never()).insert(any(Reading.class));
+        }
+
+        @Test
+        @DisplayName("Should not write reading again when device retransmits the same sequence")
+        void insertReadingCase3() {
+                Instant timestamp = Instant.now().minusSeconds(60);
+                ReadingRegisterDTO data = new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, timestamp, 42L);
+
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingSequenceTracker.register(eq(DEVICE_ID), eq(ReadingType.TEMPERATURE), eq(42L), any(Instant.class)))
+                                .thenReturn(false);
+
+                StepVerifier.create(deviceService.insertReading(API_KEY, data))
+                                .verifyComplete();
+
+                verify(readingWriter, never()).insert(any(Reading.class));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when reading timestamp is in the future")
+        void insertReadingCase4() {
+                ReadingRegisterDTO data = new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0,
+                                Instant.now().plusSeconds(3600), 1L);
+
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+
+                StepVerifier.create(deviceService.insertReading(API_KEY, data))
+                                .expectErrorMatches(throwable -> throwable instanceof InvalidReadingException)
+                                .verify();
+
+                verify(readingSequenceTracker, never()).register(any(), any(), anyLong(), any());
+                verify(readingWriter, never()).insert(any(Reading.class));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when device exceeds its ingest rate limit")
+        void insertReadingCase5() {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(ingestRateLimiter.tryAcquire(any(DeviceIdentity.class), eq(1))).thenReturn(3L);
+
+                StepVerifier.create(deviceService.insertReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
+                                .expectErrorMatches(throwable -> throwable instanceof RateLimitExceededException
+                                                && ((RateLimitExceededException) throwable).getRetryAfterSeconds() == 3L)
+                                .verify();
+
+                verify(readingWriter, never()).insert(any(Reading.class));
+        }
+
+        @Test
+        @DisplayName("Should accept reading without writing it when it is within the deadband")
+        void insertReadingCase6() {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingDeadband.isEnabled(any(DeviceIdentity.class))).thenReturn(true);
+                when(readingDeadband.filter(eq(DEVICE_ID), any(Reading.class))).thenReturn(List.of());
+
+                StepVerifier.create(deviceService.insertReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
+                                .expectNextMatches(r -> r.getValue().equals(25.0))
+                                .verifyComplete();
+
+                verify(readingWriter, never()).insert(any(Reading.class));
+        }
+
+        @Test
+        @DisplayName("Should roll back the deadband state when the reading write fails")
+        void insertReadingCase7() {
+                Reading stored = new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.now(), ReadingType.TEMPERATURE,
+                                Instant.now()), 25.0);
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingDeadband.isEnabled(any(DeviceIdentity.class))).thenReturn(true);
+                when(readingDeadband.filter(eq(DEVICE_ID), any(Reading.class))).thenReturn(List.of(stored));
+                when(readingWriter.insert(stored)).thenReturn(Mono.error(new RuntimeException("Cassandra indisponível")));
+
+                StepVerifier.create(deviceService.insertReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
+                                .expectError(RuntimeException.class)
+                                .verify();
+
+                verify(readingDeadband).rollback(stored);
+        }
+
+        @Test
+        @DisplayName("Should enqueue reading when ingest buffer accepts it")
+        void enqueueReadingCase1() {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingIngestBuffer.offer(any(Reading.class))).thenReturn(true);
+
+                StepVerifier.create(deviceService.enqueueReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
+                                .expectNextMatches(r -> r.getKey().getDeviceId().equals(DEVICE_ID)
+                                                && r.getValue().equals(25.0))
+                                .verifyComplete();
+
+                verify(readingWriter, never()).insert(any(Reading.class));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when ingest buffer is full")
+        void enqueueReadingCase2() {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingIngestBuffer.offer(any(Reading.class))).thenReturn(false);
+                when(readingIngestBuffer.getRetryAfterSeconds()).thenReturn(1L);
+
+                StepVerifier.create(deviceService.enqueueReading(API_KEY, new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, null)))
+                                .expectErrorMatches(throwable -> throwable instanceof IngestBufferFullException
+                                                && ((IngestBufferFullException) throwable).getRetryAfterSeconds() == 1L)
+                                .verify();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("Should insert valid readings of a batch and reject invalid ones")
+        void insertReadingsCase1() {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingWriter.write(anyList())).thenAnswer(invocation -> Flux
+                                .just(ReadingBatchResult.success((List<Reading>) invocation.getArgument(0))));
+
+                Instant timestamp = Instant.now().minusSeconds(600);
+                Flux<ReadingRegisterDTO> data = Flux.just(
+                                new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.0, timestamp),
+                                new ReadingRegisterDTO(ReadingType.HUMIDITY, 55.0, timestamp),
+                                new ReadingRegisterDTO(ReadingType.HUMIDITY, null, timestamp),
+                                new ReadingRegisterDTO(ReadingType.TEMPERATURE, 25.1, timestamp));
+
+                StepVerifier.create(deviceService.insertReadings(API_KEY, data))
+                                .expectNextMatches(response -> response.created() == 2
+                                                && response.rejected() == 2
+                                                && response.results().get(0).status() == ReadingBatchItemStatus.CREATED
+                                                && response.results().get(2).status() == ReadingBatchItemStatus.REJECTED
+                                                && response.results().get(3).status() == ReadingBatchItemStatus.REJECTED)
+                                .verifyComplete();
+
+                verify(deviceIdentityCache, times(1)).get(API_KEY);
+                verify(readingWriter, times(1)).write(anyList());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("Should insert every metric of a Tasmota SENSOR telemetry message")
+        void insertTasmotaTelemetryCase1() throws Exception {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+                when(readingWriter.write(anyList())).thenAnswer(invocation -> Flux
+                                .just(ReadingBatchResult.success((List<Reading>) invocation.getArgument(0))));
+
+                String telemetry = "{\"Time\":\"2024-06-01T10:00:00\",\"AM2301\":{\"Temperature\":15.5,\"Humidity\":50.1,\"DewPoint\":5.2},\"TempUnit\":\"C\"}";
+
+                StepVerifier.create(deviceService.insertTasmotaTelemetry(API_KEY, new ObjectMapper().readTree(telemetry)))
+                                .expectNextMatches(response -> response.created() == 2 && response.rejected() == 0)
+                                .verifyComplete();
+
+                verify(readingWriter, times(1)).write(anyList());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when Tasmota telemetry has no metric of the device sensor")
+        void insertTasmotaTelemetryCase2() throws Exception {
+                when(deviceIdentityCache.get(API_KEY)).thenReturn(Mono.just(new DeviceIdentity(deviceByApiKey)));
+
+                String telemetry = "{\"Time\":\"2024-06-01T10:00:00\",\"DS18B20\":{\"Id\":\"01144A0CB2AA\",\"Temperature\":21.5},\"TempUnit\":\"C\"}";
+
+                StepVerifier.create(deviceService.insertTasmotaTelemetry(API_KEY, new ObjectMapper().readTree(telemetry)))
+                                .expectErrorMatches(throwable -> throwable instanceof InvalidBatchException)
+                                .verify();
+
+                verify(readingWriter, never()).write(anyList());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("Should import CSV lines and report rejected ones in the final progress")
+        void importReadingsCase1() {
+                when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+                when(readingWriter.importHistory(anyList())).thenAnswer(invocation -> Flux
+                                .just(ReadingBatchResult.success((List<Reading>) invocation.getArgument(0))));
+
+                Instant timestamp = Instant.now().minusSeconds(86400);
+                Flux<String> lines = Flux.just(
+                                "timestamp,type,value",
+                                timestamp + ",temperature,24.1",
+                                timestamp.toEpochMilli() + ",HUMIDITY,55.0",
+                                "not-a-timestamp,temperature,24.1",
+                                "");
+
+                StepVerifier.create(deviceService.importReadings(DEVICE_ID, lines, ReadingImportFormat.CSV).last())
+                                .expectNextMatches(progress -> progress.done()
+                                                && progress.parsed() == 2
+                                                && progress.written() == 2
+                                                && progress.rejected() == 1
+                                                && progress.lastError().startsWith("Linha 4"))
+                                .verifyComplete();
+
+                verify(readingWriter, times(1)).importHistory(anyList());
+                verify(readingWriter, never()).write(anyList());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when reading batch is empty")
+        void insertReadingsCase2() {
+                StepVerifier.create(deviceService.insertReadings(API_KEY, Flux.empty()))
+                                .expectErrorMatches(throwable -> throwable instanceof InvalidBatchException)
+                                .verify();
+
+                verify(deviceIdentityCache, never()).get(anyString());
+                verify(readingWriter, never()).write(anyList());
+        }
+
+        @Test
+        @DisplayName("Should return the latest reading of each type from the cache")
+        void findLatestReadingsCase1() {
+                Reading reading = new Reading(
+                                new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.now(), ReadingType.TEMPERATURE, Instant.now()), 25.0);
+
+                when(latestReadingCache.get(DEVICE_ID, ReadingType.TEMPERATURE)).thenReturn(Mono.just(reading));
+                when(latestReadingCache.get(DEVICE_ID, ReadingType.HUMIDITY)).thenReturn(Mono.empty());
+
+                StepVerifier.create(deviceService.findLatestReadings(DEVICE_ID))
+                                .expectNext(reading)
+                                .verifyComplete();
+
+                verify(deviceByIdRepository, never()).findById(any(UUID.class));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when device without latest readings does not exist")
+        void findLatestReadingsCase2() {
+                when(latestReadingCache.get(eq(DEVICE_ID), any(ReadingType.class))).thenReturn(Mono.empty());
+                when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.empty());
+
+                StepVerifier.create(deviceService.findLatestReadings(DEVICE_ID))
+                                .expectErrorMatches(throwable -> throwable instanceof ResourceNotFoundException)
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should stream readings of the devices linked to user")
+        void streamReadingsByUserIdCase1() {
+                DeviceByUserId deviceByUserId = new DeviceByUserId(device, new DeviceByUserIdKey(USER_ID, DEVICE_ID));
+                Reading reading = new Reading(
+                                new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.now(), ReadingType.TEMPERATURE, Instant.now()), 25.0);
+                when(userByIdRepository.findById(USER_ID)).thenReturn(Mono.just(userById));
+                when(deviceByUserIdRepository.findByKeyOwnerId(USER_ID)).thenReturn(Flux.just(deviceByUserId));
+                when(readingStream.subscribe(Set.of(DEVICE_ID))).thenReturn(Flux.just(reading));
+
+                StepVerifier.create(deviceService.streamReadingsByUserId(USER_ID))
+                                .expectNext(reading)
+                                .verifyComplete();
+
+                verify(readingStream, times(1)).subscribe(Set.of(DEVICE_ID));
         }
 
         @Test
@@ -217,7 +541,7 @@ class DeviceServiceUnitTests {
             Reading reading = new Reading(
                     new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.now(), ReadingType.TEMPERATURE, Instant.now()), 25.0);
 
-            List<LocalDate> dateRange = DateRangePicker.generate(start, end);
+            List<LocalDate> dateRange = partitionPlanner.partitions(start, end);
 
             when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
 
@@ -234,6 +558,224 @@ class DeviceServiceUnitTests {
                     .findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE), eq(start), eq(end));
         }
 
+        @Test
+        @DisplayName("Should keep the day order when partitions are fetched concurrently")
+        void findReadingsCase3() {
+            Instant start = Instant.now().minus(Duration.ofDays(1));
+            Instant end = Instant.now();
+
+            List<LocalDate> dateRange = partitionPlanner.partitions(start, end);
+            LocalDate firstDay = dateRange.get(0);
+            LocalDate lastDay = dateRange.get(dateRange.size() - 1);
+
+            Reading firstReading = new Reading(
+                    new Reading.DeviceReadingKey(DEVICE_ID, firstDay, ReadingType.TEMPERATURE, start), 20.0);
+            Reading lastReading = new Reading(
+                    new Reading.DeviceReadingKey(DEVICE_ID, lastDay, ReadingType.TEMPERATURE, end), 25.0);
+
+            when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+            when(readingRepository.findByAllCriteria(DEVICE_ID, firstDay, ReadingType.TEMPERATURE, start, end))
+                    .thenReturn(Flux.just(firstReading).delayElements(Duration.ofMillis(100)));
+            when(readingRepository.findByAllCriteria(DEVICE_ID, lastDay, ReadingType.TEMPERATURE, start, end))
+                    .thenReturn(Flux.just(lastReading));
+
+            StepVerifier.create(deviceService.findReadings(DEVICE_ID, ReadingType.TEMPERATURE, start, end))
+                    .expectNext(firstReading)
+                    .expectNext(lastReading)
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should query only the partition of the bucketing zone's day")
+        void findReadingsCase4() {
+            // 22:00-23:00 de 09/05 em São Paulo: em UTC o período já cai em 10/05
+            Instant start = Instant.parse("2024-05-10T01:00:00Z");
+            Instant end = Instant.parse("2024-05-10T02:00:00Z");
+            LocalDate date = LocalDate.of(2024, 5, 9);
+
+            Reading reading = new Reading(
+                    new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE, start), 25.0);
+
+            when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+            when(readingRepository.findByAllCriteria(DEVICE_ID, date, ReadingType.TEMPERATURE, start, end))
+                    .thenReturn(Flux.just(reading));
+
+            StepVerifier.create(deviceService.findReadings(DEVICE_ID, ReadingType.TEMPERATURE, start, end))
+                    .expectNext(reading)
+                    .verifyComplete();
+
+            verify(readingRepository, times(1))
+                    .findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE), eq(start), eq(end));
+        }
+
+        @Test
+        @DisplayName("Should serve closed days from the cache without querying Cassandra")
+        void findReadingsCase5() {
+            Instant start = Instant.parse("2024-05-09T04:00:00Z");
+            Instant end = Instant.parse("2024-05-09T05:00:00Z");
+            LocalDate date = LocalDate.of(2024, 5, 9);
+
+            Reading reading = new Reading(
+                    new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE, start), 25.0);
+
+            when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+            when(closedDayReadingCache.isCacheable(date)).thenReturn(true);
+            when(closedDayReadingCache.find(DEVICE_ID, date, ReadingType.TEMPERATURE, start, end))
+                    .thenReturn(Flux.just(reading));
+
+            StepVerifier.create(deviceService.findReadings(DEVICE_ID, ReadingType.TEMPERATURE, start, end))
+                    .expectNext(reading)
+                    .verifyComplete();
+
+            verify(readingRepository, never())
+                    .findByAllCriteria(any(UUID.class), any(LocalDate.class), any(ReadingType.class), any(Instant.class),
+                            any(Instant.class));
+        }
+
+        @Test
+        @DisplayName("Should read old days through the compacted blocks")
+        void findReadingsCase6() {
+            Instant start = Instant.parse("2024-05-09T04:00:00Z");
+            Instant end = Instant.parse("2024-05-09T05:00:00Z");
+            LocalDate date = LocalDate.of(2024, 5, 9);
+
+            Reading reading = new Reading(
+                    new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE, start), 25.0);
+
+            Mono<Map<LocalDate, ReadingBlock>> blocks = Mono.just(Map.of());
+
+            when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+            when(readingBlockStore.mayBeCompacted(date)).thenReturn(true);
+            when(readingBlockStore.blocks(DEVICE_ID, ReadingType.TEMPERATURE, List.of(date))).thenReturn(blocks);
+            when(readingBlockStore.find(DEVICE_ID, date, ReadingType.TEMPERATURE, start, end, blocks))
+                    .thenReturn(Flux.just(reading));
+
+            StepVerifier.create(deviceService.findReadings(DEVICE_ID, ReadingType.TEMPERATURE, start, end))
+                    .expectNext(reading)
+                    .verifyComplete();
+
+            verify(readingRepository, never())
+                    .findByAllCriteria(any(UUID.class), any(LocalDate.class), any(ReadingType.class), any(Instant.class),
+                            any(Instant.class));
+        }
+
+        @Test
+        @DisplayName("Should aggregate readings into min/max/mean time buckets")
+        void findDownsampledReadingsCase1() {
+            Instant start = Instant.parse("2024-05-10T06:00:00Z");
+            Instant end = start.plus(Duration.ofMinutes(30));
+            LocalDate date = partitionPlanner.partitionDate(start);
+
+            Flux<Reading> readings = Flux.just(
+                    new Reading(new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE, start), 20.0),
+                    new Reading(new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE,
+                            start.plus(Duration.ofMinutes(3))), 22.0),
+                    new Reading(new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE,
+                            start.plus(Duration.ofMinutes(21))), 30.0));
+
+            when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+            when(readingRepository.findByAllCriteriaAscending(DEVICE_ID, date, ReadingType.TEMPERATURE, start, end))
+                    .thenReturn(readings);
+
+            StepVerifier.create(deviceService.findDownsampledReadings(DEVICE_ID, ReadingType.TEMPERATURE, start, end,
+                    Duration.ofMinutes(10), null))
+                    .expectNext(new ReadingBucketDTO(start, 20.0, 22.0, 21.0, 2))
+                    .expectNext(new ReadingBucketDTO(start.plus(Duration.ofMinutes(20)), 30.0, 30.0, 30.0, 1))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return rollups with mean and standard deviation derived from the sums")
+        void findRollupsCase1() {
+            Instant start = Instant.parse("2024-05-10T03:00:00Z");
+            Instant end = start.plus(Duration.ofDays(1));
+            ReadingRollup rollup = new ReadingRollup(
+                    new ReadingRollup.ReadingRollupKey(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.DAY, start),
+                    3L, 60.0, 1208.0, 18.0, 22.0, start, end.minusSeconds(60), 2L);
+
+            when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.just(deviceById));
+            when(readingRollupRepository.findByBucketRange(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.DAY,
+                    start, end)).thenReturn(Flux.just(rollup));
+
+            StepVerifier.create(deviceService.findRollups(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.DAY,
+                    start, end))
+                    .expectNextMatches(dto -> dto.count() == 3 && dto.mean() == 20.0
+                            && dto.standardDeviation() == 2.0 && dto.inRangeCount() == 2)
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should stream readings tagged by device for the user's devices in the sector")
+        void findFleetReadingsCase1() {
+            Instant start = Instant.now().minus(Duration.ofHours(1));
+            Instant end = Instant.now();
+            DeviceByUserId deviceByUserId = new DeviceByUserId(device, new DeviceByUserIdKey(USER_ID, DEVICE_ID));
+            Reading reading = new Reading(
+                    new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.now(), ReadingType.TEMPERATURE, end), 15.5);
+
+            when(userByIdRepository.findById(USER_ID)).thenReturn(Mono.just(userById));
+            when(deviceByUserIdRepository.findByKeyOwnerId(USER_ID)).thenReturn(Flux.just(deviceByUserId));
+            when(readingRepository.findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE),
+                    eq(start), eq(end))).thenReturn(Flux.just(reading));
+
+            StepVerifier.create(deviceService.findFleetReadings(USER_ID, ReadingType.TEMPERATURE, start, end,
+                    "laboratório", null))
+                    .expectNextCount(partitionPlanner.partitions(start, end).size())
+                    .verifyComplete();
+
+            StepVerifier.create(deviceService.findFleetReadings(USER_ID, ReadingType.TEMPERATURE, start, end,
+                    "Administração", null))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should end the device with a truncated item when a partition query times out")
+        void findFleetReadingsCase2() {
+            Instant start = Instant.parse("2024-05-10T13:00:00Z");
+            Instant end = Instant.parse("2024-05-10T14:00:00Z");
+            DeviceByUserId deviceByUserId = new DeviceByUserId(device, new DeviceByUserIdKey(USER_ID, DEVICE_ID));
+            ReflectionTestUtils.setField(deviceService, "fleetPartitionTimeout", Duration.ofMillis(100));
+
+            when(userByIdRepository.findById(USER_ID)).thenReturn(Mono.just(userById));
+            when(deviceByUserIdRepository.findByKeyOwnerId(USER_ID)).thenReturn(Flux.just(deviceByUserId));
+            when(readingRepository.findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE),
+                    eq(start), eq(end))).thenReturn(Flux.never());
+
+            StepVerifier.create(deviceService.findFleetReadings(USER_ID, ReadingType.TEMPERATURE, start, end,
+                    null, null))
+                    .expectNext(FleetReadingDTO.truncated(DEVICE_ID))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should not time out a partition already read while the client is slow to request")
+        void findFleetReadingsCase3() {
+            Instant start = Instant.parse("2024-05-10T13:00:00Z");
+            Instant end = Instant.parse("2024-05-10T14:00:00Z");
+            DeviceByUserId deviceByUserId = new DeviceByUserId(device, new DeviceByUserIdKey(USER_ID, DEVICE_ID));
+            Reading first = new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.of(2024, 5, 10),
+                    ReadingType.TEMPERATURE, end), 15.5);
+            Reading second = new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.of(2024, 5, 10),
+                    ReadingType.TEMPERATURE, start), 16.0);
+            ReflectionTestUtils.setField(deviceService, "fleetPartitionTimeout", Duration.ofMillis(100));
+
+            when(userByIdRepository.findById(USER_ID)).thenReturn(Mono.just(userById));
+            when(deviceByUserIdRepository.findByKeyOwnerId(USER_ID)).thenReturn(Flux.just(deviceByUserId));
+            when(readingRepository.findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE),
+                    eq(start), eq(end))).thenReturn(Flux.just(first, second));
+
+            StepVerifier.create(deviceService.findFleetReadings(USER_ID, ReadingType.TEMPERATURE, start, end,
+                    null, null), 0)
+                    .thenAwait(Duration.ofMillis(300))
+                    .thenRequest(1)
+                    .expectNext(new FleetReadingDTO(DEVICE_ID, end, 15.5))
+                    .thenAwait(Duration.ofMillis(300))
+                    .thenRequest(1)
+                    .expectNext(new FleetReadingDTO(DEVICE_ID, start, 16.0))
+                    .thenRequest(1)
+                    .verifyComplete();
+        }
+
         @Test
         @DisplayName("Should throw exception when device does not exist for readings retrieval")
         void findReadingsCase2() {
@@ -408,6 +950,7 @@ class DeviceServiceUnitTests {
                 verify(deviceByIdRepository, times(1)).delete(deviceById);
                 verify(deviceByApiKeyRepository, times(1)).deleteById(any(DeviceByApiKeyKey.class));
                 verify(deviceByUserIdRepository, times(1)).deleteById(any(DeviceByUserIdKey.class));
+                verify(deviceIdentityCache, times(1)).invalidate(API_KEY);
         }
 
         @Test
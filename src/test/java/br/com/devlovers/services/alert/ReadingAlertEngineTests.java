@@ -0,0 +1,185 @@
+package br.com.devlovers.services.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.devlovers.domain.alert.AlertState;
+import br.com.devlovers.domain.alert.AlertState.AlertStateKey;
+import br.com.devlovers.domain.alert.enums.AlertStatus;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.services.alert.ReadingAlertEngine.SeriesAlert;
+import br.com.devlovers.services.alert.ReadingAlertEngine.Transition;
+
+class ReadingAlertEngineTests {
+
+    private static final UUID DEVICE_ID = UUID.fromString("6f1c2a3e-0d4b-4f7e-9a1b-2c3d4e5f6a7b");
+    private static final Instant START = Instant.parse("2024-05-10T12:00:00Z");
+
+    // Faixa [2, 8] °C, histerese 0.5, 7 leituras nominais (21 minutos) e cooldown de 1 hora
+    private static final double MIN = 2.0;
+    private static final double MAX = 8.0;
+    private static final double HYSTERESIS = 0.5;
+    private static final double THRESHOLD = 7;
+    private static final Duration COOLDOWN = Duration.ofHours(1);
+
+    private final SeriesAlert series = new SeriesAlert(new AlertStateKey(DEVICE_ID, ReadingType.TEMPERATURE));
+
+    @Test
+    @DisplayName("Should trigger on the seventh consecutive out of range reading at the nominal interval")
+    void offerCase1() {
+        for (int minute = 0; minute < 18; minute += 3) {
+            assertNull(offer(series, minute, 9.0));
+        }
+
+        assertEquals(new Transition(AlertStatus.TRIGGERED, at(0)), offer(series, 18, 9.0));
+        // Já disparado: as leituras seguintes fora da faixa não notificam de novo
+        assertNull(offer(series, 21, 9.5));
+    }
+
+    @Test
+    @DisplayName("Should trigger when a single stored reading covers the weighted threshold")
+    void offerCase2() {
+        assertNull(offer(series, 0, 1.0));
+        // A leitura de 0 min vale 5 leituras nominais até a de 15 min: 5 + 1 não basta
+        assertNull(offer(series, 15, 1.0));
+        assertEquals(new Transition(AlertStatus.TRIGGERED, at(0)), offer(series, 18, 1.0));
+    }
+
+    @Test
+    @DisplayName("Should restart the streak when a reading returns to the range before the threshold")
+    void offerCase3() {
+        for (int minute = 0; minute < 18; minute += 3) {
+            offer(series, minute, 9.0);
+        }
+        assertNull(offer(series, 18, 7.0));
+
+        for (int minute = 21; minute < 39; minute += 3) {
+            assertNull(offer(series, minute, 9.0));
+        }
+        assertEquals(new Transition(AlertStatus.TRIGGERED, at(21)), offer(series, 39, 9.0));
+    }
+
+    @Test
+    @DisplayName("Should not resolve while the value is inside the hysteresis margin")
+    void offerCase4() {
+        trigger(series, 0);
+
+        assertNull(offer(series, 21, 7.8));
+        assertNull(offer(series, 24, 2.3));
+        // Voltar a sair da faixa enquanto disparado não notifica nem muda o início
+        assertNull(offer(series, 27, 8.5));
+
+        assertEquals(new Transition(AlertStatus.RESOLVED, at(0)), offer(series, 30, 7.5));
+    }
+
+    @Test
+    @DisplayName("Should silence a new trigger within the cooldown and its resolution")
+    void offerCase5() {
+        trigger(series, 0);
+        assertEquals(AlertStatus.RESOLVED, offer(series, 21, 5.0).status());
+
+        // Nova sequência disparada 30 minutos depois da notificação: silenciada
+        for (int minute = 30; minute <= 48; minute += 3) {
+            assertNull(offer(series, minute, 9.0));
+        }
+        assertTrue(series.drain().getFiring());
+        assertNull(offer(series, 51, 5.0));
+
+        // Depois do cooldown a próxima sequência volta a notificar, com o seu próprio início
+        for (int minute = 70; minute < 88; minute += 3) {
+            assertNull(offer(series, minute, 9.0));
+        }
+        assertEquals(new Transition(AlertStatus.TRIGGERED, at(70)), offer(series, 88, 9.0));
+        assertEquals(new Transition(AlertStatus.RESOLVED, at(70)), offer(series, 91, 5.0));
+    }
+
+    @Test
+    @DisplayName("Should ignore out of order readings without breaking the streak")
+    void offerCase6() {
+        for (int minute = 0; minute < 15; minute += 3) {
+            offer(series, minute, 9.0);
+        }
+
+        // Leitura na faixa com momento anterior ao último: ignorada
+        assertNull(offer(series, 6, 5.0));
+        assertNull(offer(series, 12, 5.0));
+
+        assertNull(offer(series, 15, 9.0));
+        assertEquals(new Transition(AlertStatus.TRIGGERED, at(0)), offer(series, 18, 9.0));
+    }
+
+    @Test
+    @DisplayName("Should continue the streak from the state persisted in AlertState")
+    void drainCase1() {
+        for (int minute = 0; minute < 15; minute += 3) {
+            offer(series, minute, 9.0);
+        }
+
+        AlertState state = series.drain();
+        assertEquals(DEVICE_ID, state.getKey().getDeviceId());
+        assertEquals(4.0, state.getStreakWeight(), 1e-9);
+        assertEquals(at(0), state.getStreakStart());
+        assertEquals(at(12), state.getLastTimestamp());
+        assertTrue(state.getLastOutOfRange());
+        assertFalse(state.getFiring());
+        assertNull(series.drain());
+
+        // Reinício da aplicação: o estado recarregado dispara no mesmo ponto
+        SeriesAlert restored = new SeriesAlert(state);
+        assertNull(offer(restored, 15, 9.0));
+        assertEquals(new Transition(AlertStatus.TRIGGERED, at(0)), offer(restored, 18, 9.0));
+
+        // Disparo e cooldown também sobrevivem ao reinício
+        SeriesAlert firing = new SeriesAlert(restored.drain());
+        assertNull(offer(firing, 21, 9.0));
+        assertEquals(new Transition(AlertStatus.RESOLVED, at(0)), offer(firing, 24, 5.0));
+        for (int minute = 30; minute <= 48; minute += 3) {
+            assertNull(offer(firing, minute, 9.0));
+        }
+
+        // O disparo silenciado pelo cooldown continua silencioso ao se encerrar depois do reinício
+        SeriesAlert silenced = new SeriesAlert(firing.drain());
+        assertNull(offer(silenced, 51, 5.0));
+        assertFalse(silenced.drain().getFiring());
+    }
+
+    @Test
+    @DisplayName("Should load an empty persisted state as a new series")
+    void drainCase2() {
+        SeriesAlert restored = new SeriesAlert(new AlertState(new AlertStateKey(DEVICE_ID, ReadingType.TEMPERATURE),
+                null, null, null, null, null, null));
+
+        for (int minute = 0; minute < 18; minute += 3) {
+            assertNull(offer(restored, minute, 9.0));
+        }
+        assertEquals(AlertStatus.TRIGGERED, offer(restored, 18, 9.0).status());
+    }
+
+    private static void trigger(SeriesAlert series, int startMinute) {
+        for (int minute = startMinute; minute < startMinute + 18; minute += 3) {
+            offer(series, minute, 9.0);
+        }
+        assertEquals(AlertStatus.TRIGGERED, offer(series, startMinute + 18, 9.0).status());
+    }
+
+    private static Transition offer(SeriesAlert series, int minute, double value) {
+        Reading reading = new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.of(2024, 5, 10),
+                ReadingType.TEMPERATURE, at(minute)), value);
+        return series.offer(reading, MIN, MAX, HYSTERESIS, THRESHOLD, COOLDOWN);
+    }
+
+    private static Instant at(int minute) {
+        return START.plus(Duration.ofMinutes(minute));
+    }
+}
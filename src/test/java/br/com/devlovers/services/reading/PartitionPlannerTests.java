@@ -0,0 +1,74 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PartitionPlannerTests {
+
+    private TimeZone defaultZone;
+
+    @BeforeEach
+    void setUp() {
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    @DisplayName("Should read the JVM zone partitions by default when it differs from the partition zone")
+    void initCase1() {
+        PartitionPlanner planner = planner("system");
+
+        assertTrue(planner.hasLegacyZone());
+
+        // 22h em São Paulo já é o dia seguinte em UTC: as duas partições podem ter a leitura
+        Instant moment = Instant.parse("2024-05-10T01:00:00Z");
+        assertEquals(List.of(LocalDate.of(2024, 5, 9), LocalDate.of(2024, 5, 10)), planner.partitions(moment, moment));
+        assertEquals(LocalDate.of(2024, 5, 9), planner.partitionDate(moment));
+    }
+
+    @Test
+    @DisplayName("Should treat an empty legacy zone as the default instead of dropping the old partitions")
+    void initCase2() {
+        assertTrue(planner("").hasLegacyZone());
+        assertTrue(planner("  ").hasLegacyZone());
+    }
+
+    @Test
+    @DisplayName("Should ignore the legacy zone when it is none or the partition zone itself")
+    void initCase3() {
+        assertFalse(planner("none").hasLegacyZone());
+        assertFalse(planner("America/Sao_Paulo").hasLegacyZone());
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+        assertFalse(planner("system").hasLegacyZone());
+
+        Instant moment = Instant.parse("2024-05-10T01:00:00Z");
+        assertEquals(List.of(LocalDate.of(2024, 5, 9)), planner("none").partitions(moment, moment));
+    }
+
+    private static PartitionPlanner planner(String legacyZone) {
+        PartitionPlanner planner = new PartitionPlanner();
+        ReflectionTestUtils.setField(planner, "zone", ZoneId.of("America/Sao_Paulo"));
+        ReflectionTestUtils.setField(planner, "legacyZoneId", legacyZone);
+        planner.init();
+        return planner;
+    }
+}
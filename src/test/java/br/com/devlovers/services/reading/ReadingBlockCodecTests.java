@@ -0,0 +1,80 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReadingBlockCodecTests {
+
+    @Test
+    @DisplayName("Should decode exactly the timestamps and values that were encoded")
+    void encodeCase1() {
+        Random random = new Random(42);
+        long[] timestamps = new long[480];
+        double[] values = new double[480];
+        long timestamp = 1715310000123L;
+        double value = 24.3;
+
+        for (int i = 0; i < timestamps.length; i++) {
+            // Envio a cada 3 minutos com alguns segundos de oscilação e falhas ocasionais
+            timestamp += i % 100 == 99 ? 3_600_000 : 180_000 + random.nextInt(4000) - 2000;
+            if (random.nextInt(3) == 0) {
+                value = Math.round((value + random.nextGaussian() * 0.3) * 10) / 10.0;
+            }
+            timestamps[i] = timestamp;
+            values[i] = value;
+        }
+        values[7] = Double.NaN;
+        values[8] = -0.0;
+
+        ReadingBlockCodec.Columns columns = ReadingBlockCodec.decode(ReadingBlockCodec.encode(timestamps, values));
+
+        assertArrayEquals(timestamps, columns.timestamps());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(columns.values()[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("Should store a day of periodic readings in a few bytes per reading")
+    void encodeCase2() {
+        long[] timestamps = new long[480];
+        double[] values = new double[480];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1715310000000L + i * 180_000L;
+            values[i] = 20.0 + (i / 20) * 0.5;
+        }
+
+        ByteBuffer data = ReadingBlockCodec.encode(timestamps, values);
+
+        // Cada linha bruta ocupa dezenas de bytes; o bloco deve ficar bem abaixo de 2 bytes por leitura
+        assertTrue(data.remaining() < timestamps.length * 2);
+        assertEquals(480, ReadingBlockCodec.decode(data).size());
+    }
+
+    @Test
+    @DisplayName("Should encode empty and single-reading days")
+    void encodeCase3() {
+        assertEquals(0, ReadingBlockCodec.decode(ReadingBlockCodec.encode(new long[0], new double[0])).size());
+
+        ReadingBlockCodec.Columns columns = ReadingBlockCodec.decode(
+                ReadingBlockCodec.encode(new long[] { 1715310000000L }, new double[] { 55.5 }));
+
+        assertArrayEquals(new long[] { 1715310000000L }, columns.timestamps());
+        assertArrayEquals(new double[] { 55.5 }, columns.values());
+    }
+
+    @Test
+    @DisplayName("Should reject timestamps out of ascending order")
+    void encodeCase4() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingBlockCodec.encode(new long[] { 2000L, 1000L }, new double[] { 1.0, 2.0 }));
+    }
+}
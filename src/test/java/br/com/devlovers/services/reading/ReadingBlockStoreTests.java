@@ -0,0 +1,230 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscriber;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.datastax.dse.driver.api.core.cql.reactive.ReactiveResultSet;
+import com.datastax.dse.driver.api.core.cql.reactive.ReactiveRow;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingBlock;
+import br.com.devlovers.domain.reading.ReadingBlock.ReadingBlockKey;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.repositories.ReadingBlockRepository;
+import br.com.devlovers.repositories.ReadingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leitura e compactação dos blocos com o Cassandra simulado: repositórios para as consultas
+ * mapeadas e CqlSession para as instruções preparadas (linhas brutas, exclusão e marcas).
+ */
+class ReadingBlockStoreTests {
+
+    private static final UUID DEVICE_ID = UUID.fromString("6f1c2a3e-0d4b-4f7e-9a1b-2c3d4e5f6a7b");
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private static final Instant FROM = Instant.parse("2024-05-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-06-01T00:00:00Z");
+
+    private static final LocalDate DAY_10 = LocalDate.of(2024, 5, 10);
+    private static final LocalDate DAY_11 = LocalDate.of(2024, 5, 11);
+    private static final LocalDate DAY_12 = LocalDate.of(2024, 5, 12);
+
+    private final CqlSession session = mock(CqlSession.class);
+    private final ReadingRepository readingRepository = mock(ReadingRepository.class);
+    private final ReadingBlockRepository readingBlockRepository = mock(ReadingBlockRepository.class);
+    private final ReactiveCassandraOperations cassandraOperations = mock(ReactiveCassandraOperations.class);
+
+    private final PreparedStatement rawStatement = prepared(ReadingBlockStore.RAW_CQL);
+    private final PreparedStatement deleteStatement = prepared(ReadingBlockStore.DELETE_CQL);
+    private final PreparedStatement markStatement = prepared(ReadingBlockStore.MARK_CQL);
+    private final PreparedStatement cleanStatement = prepared(ReadingBlockStore.CLEAN_CQL);
+
+    private ReadingBlockStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(session.executeAsync(any(Statement.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+        when(cassandraOperations.insert(any(ReadingBlock.class), any(InsertOptions.class))).thenReturn(Mono.empty());
+
+        store = new ReadingBlockStore();
+        ReflectionTestUtils.setField(store, "session", session);
+        ReflectionTestUtils.setField(store, "readingRepository", readingRepository);
+        ReflectionTestUtils.setField(store, "readingBlockRepository", readingBlockRepository);
+        ReflectionTestUtils.setField(store, "cassandraOperations", cassandraOperations);
+        ReflectionTestUtils.setField(store, "partitionPlanner", new PartitionPlanner());
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should fetch the blocks of every day in one range query and skip the raw scan of clean blocks")
+    void findCase1() {
+        // Dia 10 compactado e limpo, dia 11 com gravação tardia, dia 12 ainda não compactado
+        when(readingBlockRepository.findByDateRange(DEVICE_ID, ReadingType.TEMPERATURE, DAY_10, DAY_12))
+                .thenReturn(Flux.just(block(DAY_10, false, at(DAY_10, 1), 20.0, at(DAY_10, 2), 21.0),
+                        block(DAY_11, true, at(DAY_11, 1), 22.0, at(DAY_11, 2), 23.0)));
+        when(readingRepository.findByAllCriteria(eq(DEVICE_ID), eq(DAY_11), eq(ReadingType.TEMPERATURE),
+                any(Instant.class), any(Instant.class)))
+                .thenReturn(Flux.just(reading(DAY_11, 2, 23.5), reading(DAY_11, 3, 24.0)));
+        when(readingRepository.findByAllCriteria(eq(DEVICE_ID), eq(DAY_12), eq(ReadingType.TEMPERATURE),
+                any(Instant.class), any(Instant.class)))
+                .thenReturn(Flux.just(reading(DAY_12, 1, 25.0)));
+
+        Mono<Map<LocalDate, ReadingBlock>> blocks = store.blocks(DEVICE_ID, ReadingType.TEMPERATURE,
+                List.of(DAY_12, DAY_10, DAY_11));
+
+        assertEquals(List.of(20.0, 21.0), values(store.findAscending(DEVICE_ID, DAY_10, ReadingType.TEMPERATURE,
+                FROM, TO, blocks)));
+        // A linha bruta tardia substitui a do bloco com o mesmo momento
+        assertEquals(List.of(22.0, 23.5, 24.0), values(store.findAscending(DEVICE_ID, DAY_11,
+                ReadingType.TEMPERATURE, FROM, TO, blocks)));
+        assertEquals(List.of(25.0), values(store.find(DEVICE_ID, DAY_12, ReadingType.TEMPERATURE, FROM,
+                TO, blocks)));
+
+        verify(readingBlockRepository, times(1)).findByDateRange(any(), any(), any(), any());
+        verify(readingRepository, never()).findByAllCriteria(eq(DEVICE_ID), eq(DAY_10), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should mark only the closed days that received readings, once per day and type")
+    void markLateWritesCase1() {
+        LocalDate today = new PartitionPlanner().partitionDate(Instant.now());
+        Reading current = new Reading(new Reading.DeviceReadingKey(DEVICE_ID, today, ReadingType.TEMPERATURE,
+                Instant.now()), 20.0);
+
+        store.markLateWrites(List.of(current)).block();
+        verify(session, never()).executeAsync(any(Statement.class));
+
+        store.markLateWrites(List.of(current, reading(DAY_10, 1, 20.0), reading(DAY_10, 2, 21.0),
+                new Reading(new Reading.DeviceReadingKey(DEVICE_ID, DAY_10, ReadingType.HUMIDITY, at(DAY_10, 1)),
+                        60.0))).block();
+
+        verify(markStatement).bind(any(), eq(DEVICE_ID), eq("TEMPERATURE"), eq(DAY_10));
+        verify(markStatement).bind(any(), eq(DEVICE_ID), eq("HUMIDITY"), eq(DAY_10));
+        verify(session, times(2)).executeAsync(any(Statement.class));
+    }
+
+    @Test
+    @DisplayName("Should merge the raw rows into the block and drop them with a single range delete")
+    void compactCase1() {
+        when(readingBlockRepository.findById(new ReadingBlockKey(DEVICE_ID, ReadingType.TEMPERATURE, DAY_10)))
+                .thenReturn(Mono.just(block(DAY_10, true, at(DAY_10, 1), 20.0, at(DAY_10, 2), 21.0)));
+        rawRows(row(at(DAY_10, 2), 21.5, 1_000L), row(at(DAY_10, 3), 22.0, 3_000L), row(at(DAY_10, 4), 22.5, 2_000L));
+
+        assertEquals(3, store.compact(DEVICE_ID, DAY_10, ReadingType.TEMPERATURE).block());
+
+        ArgumentCaptor<ReadingBlock> saved = ArgumentCaptor.forClass(ReadingBlock.class);
+        verify(cassandraOperations).insert(saved.capture(), any(InsertOptions.class));
+        ReadingBlockCodec.Columns columns = ReadingBlockCodec.decode(saved.getValue().getData());
+        assertArrayEquals(new long[] { at(DAY_10, 1).toEpochMilli(), at(DAY_10, 2).toEpochMilli(),
+                at(DAY_10, 3).toEpochMilli(), at(DAY_10, 4).toEpochMilli() }, columns.timestamps());
+        assertArrayEquals(new double[] { 20.0, 21.5, 22.0, 22.5 }, columns.values());
+
+        // Marca e linhas brutas removidas no momento da linha mais recente lida
+        verify(cleanStatement).bind(3_000L, DEVICE_ID, "TEMPERATURE", DAY_10);
+        verify(deleteStatement).bind(3_000L, DEVICE_ID, DAY_10, "TEMPERATURE");
+        verify(session, times(2)).executeAsync(any(Statement.class));
+    }
+
+    @Test
+    @DisplayName("Should only clear the mark of a dirty block when there are no raw rows left")
+    void compactCase2() {
+        ReadingBlockKey key = new ReadingBlockKey(DEVICE_ID, ReadingType.TEMPERATURE, DAY_10);
+        when(readingBlockRepository.findById(key))
+                .thenReturn(Mono.just(block(DAY_10, false, at(DAY_10, 1), 20.0, at(DAY_10, 2), 21.0)))
+                .thenReturn(Mono.just(block(DAY_10, true, at(DAY_10, 1), 20.0, at(DAY_10, 2), 21.0)));
+        rawRows();
+
+        assertEquals(0, store.compact(DEVICE_ID, DAY_10, ReadingType.TEMPERATURE).block());
+        verify(session, never()).executeAsync(any(Statement.class));
+
+        assertEquals(0, store.compact(DEVICE_ID, DAY_10, ReadingType.TEMPERATURE).block());
+        verify(cleanStatement).bind(anyLong(), eq(DEVICE_ID), eq("TEMPERATURE"), eq(DAY_10));
+        verify(deleteStatement, never()).bind(any(Object[].class));
+        verify(cassandraOperations, never()).insert(any(ReadingBlock.class), any(InsertOptions.class));
+    }
+
+    private PreparedStatement prepared(String cql) {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        BoundStatement bound = mock(BoundStatement.class);
+        when(statement.bind(any(Object[].class))).thenReturn(bound);
+        when(bound.setIdempotent(true)).thenReturn(bound);
+        when(session.prepareAsync(cql)).thenReturn(CompletableFuture.completedFuture(statement));
+        return statement;
+    }
+
+    private void rawRows(ReactiveRow... rows) {
+        ReactiveResultSet result = mock(ReactiveResultSet.class);
+        doAnswer(invocation -> {
+            Subscriber<? super ReactiveRow> subscriber = invocation.getArgument(0);
+            Flux.just(rows).subscribe(subscriber);
+            return null;
+        }).when(result).subscribe(any());
+        when(session.executeReactive(any(Statement.class))).thenReturn(result);
+    }
+
+    private static ReactiveRow row(Instant timestamp, double value, long written) {
+        ReactiveRow row = mock(ReactiveRow.class);
+        when(row.getInstant("timestamp")).thenReturn(timestamp);
+        when(row.getDouble("value")).thenReturn(value);
+        when(row.getLong("written")).thenReturn(written);
+        return row;
+    }
+
+    private static ReadingBlock block(LocalDate date, boolean dirty, Instant first, double firstValue, Instant last,
+            double lastValue) {
+        ByteBuffer data = ReadingBlockCodec.encode(new long[] { first.toEpochMilli(), last.toEpochMilli() },
+                new double[] { firstValue, lastValue });
+        return new ReadingBlock(new ReadingBlockKey(DEVICE_ID, ReadingType.TEMPERATURE, date),
+                ReadingBlockCodec.ENCODING, 2, first, last, data, dirty ? true : null);
+    }
+
+    private static Reading reading(LocalDate date, int hour, double value) {
+        return new Reading(new Reading.DeviceReadingKey(DEVICE_ID, date, ReadingType.TEMPERATURE, at(date, hour)),
+                value);
+    }
+
+    private static Instant at(LocalDate date, int hour) {
+        return date.atTime(hour, 0).atZone(ZONE).toInstant();
+    }
+
+    private static List<Double> values(Flux<Reading> readings) {
+        return readings.map(Reading::getValue).collectList().block();
+    }
+}
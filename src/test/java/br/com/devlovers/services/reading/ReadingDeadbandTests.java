@@ -0,0 +1,123 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+
+class ReadingDeadbandTests {
+
+    private static final UUID DEVICE_ID = UUID.fromString("6f1c2a3e-0d4b-4f7e-9a1b-2c3d4e5f6a7b");
+    private static final Instant START = Instant.parse("2024-05-10T12:00:00Z");
+    private static final double BAND = 0.2;
+    private static final Duration HEARTBEAT = Duration.ofMinutes(30);
+
+    private final ReadingDeadband.SeriesState state = new ReadingDeadband.SeriesState();
+
+    @Test
+    @DisplayName("Should store the first reading and suppress the ones within the band")
+    void offerCase1() {
+        Reading first = reading(0, 20.0);
+
+        assertEquals(List.of(first), offer(first));
+        assertTrue(offer(reading(3, 20.2)).isEmpty());
+        assertTrue(offer(reading(6, 19.8)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should flush the last suppressed reading together with the one leaving the band")
+    void offerCase2() {
+        offer(reading(0, 20.0));
+        offer(reading(3, 20.1));
+        Reading lastSuppressed = reading(6, 20.2);
+        offer(lastSuppressed);
+
+        Reading leaving = reading(9, 21.0);
+        assertEquals(List.of(lastSuppressed, leaving), offer(leaving));
+
+        // A comparação passa a ser com a leitura que saiu da banda
+        assertTrue(offer(reading(12, 21.1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should store a reading within the band once the heartbeat is due")
+    void offerCase3() {
+        offer(reading(0, 20.0));
+        assertTrue(offer(reading(27, 20.0)).isEmpty());
+
+        Reading heartbeat = reading(30, 20.0);
+        assertEquals(List.of(heartbeat), offer(heartbeat));
+        assertTrue(offer(reading(33, 20.0)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should store a late reading without changing the state")
+    void offerCase4() {
+        offer(reading(10, 20.0));
+
+        Reading late = reading(5, 20.0);
+        assertEquals(List.of(late), offer(late));
+        assertTrue(offer(reading(13, 20.1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should compare with the previous stored reading after the write is rolled back")
+    void rollbackCase1() {
+        offer(reading(0, 20.0));
+        Reading failed = reading(3, 21.0);
+        offer(failed);
+
+        state.rollback(failed);
+
+        // Sem o rollback a leitura ficaria na banda de 21.0 e seria descartada
+        Reading next = reading(6, 21.0);
+        assertEquals(List.of(next), offer(next));
+    }
+
+    @Test
+    @DisplayName("Should flush the suppressed reading again when the band exit write fails")
+    void rollbackCase2() {
+        offer(reading(0, 20.0));
+        Reading suppressed = reading(3, 20.1);
+        offer(suppressed);
+        Reading leaving = reading(6, 21.0);
+        offer(leaving);
+
+        state.rollback(suppressed);
+        state.rollback(leaving);
+
+        Reading next = reading(9, 21.0);
+        assertEquals(List.of(suppressed, next), offer(next));
+    }
+
+    @Test
+    @DisplayName("Should ignore the rollback of a reading that is no longer the last stored")
+    void rollbackCase3() {
+        Reading first = reading(0, 20.0);
+        offer(first);
+        offer(reading(3, 21.0));
+
+        state.rollback(first);
+
+        assertTrue(offer(reading(6, 21.1)).isEmpty());
+    }
+
+    private List<Reading> offer(Reading reading) {
+        return state.offer(reading, BAND, HEARTBEAT);
+    }
+
+    private static Reading reading(int minutes, double value) {
+        return new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.of(2024, 5, 10), ReadingType.TEMPERATURE,
+                START.plus(Duration.ofMinutes(minutes))), value);
+    }
+}
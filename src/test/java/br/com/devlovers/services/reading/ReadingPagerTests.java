@@ -0,0 +1,340 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.dto.ReadingPageDTO;
+import br.com.devlovers.domain.reading.dto.ReadingResponseDTO;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.infra.metrics.IngestMetrics;
+import br.com.devlovers.infra.security.KeyGeneratorService;
+import br.com.devlovers.resources.DeviceDataResource;
+import br.com.devlovers.resources.exceptions.ArgumentNotValidExceptionHandler;
+import br.com.devlovers.services.DeviceService;
+import br.com.devlovers.services.exceptions.InvalidCursorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Paginação sobre dias em blocos (ReadingBlockStore simulado) e sobre o paging state do
+ * driver (CqlSession simulada). Formato do cursor v2: versão (1 byte), assinatura da consulta
+ * (4), dia (8), tamanho do estado (4) e o estado: deslocamento no dia (4) ou paging state.
+ */
+class ReadingPagerTests {
+
+    private static final UUID DEVICE_ID = UUID.fromString("6f1c2a3e-0d4b-4f7e-9a1b-2c3d4e5f6a7b");
+
+    // Em São Paulo: dias 10, 11 e 12 de maio
+    private static final Instant START = Instant.parse("2024-05-10T12:00:00Z");
+    private static final Instant END = Instant.parse("2024-05-12T12:00:00Z");
+
+    private static final LocalDate DAY_10 = LocalDate.of(2024, 5, 10);
+    private static final LocalDate DAY_11 = LocalDate.of(2024, 5, 11);
+    private static final LocalDate DAY_12 = LocalDate.of(2024, 5, 12);
+
+    private final CqlSession session = mock(CqlSession.class);
+    private final ReadingBlockStore readingBlockStore = mock(ReadingBlockStore.class);
+
+    // Dia 11 sem leituras
+    private final Map<LocalDate, List<Reading>> blocks = Map.of(
+            DAY_10, List.of(reading(DAY_10, "2024-05-10T12:00:00Z", 1.0), reading(DAY_10, "2024-05-10T13:00:00Z", 2.0),
+                    reading(DAY_10, "2024-05-10T14:00:00Z", 3.0)),
+            DAY_11, List.of(),
+            DAY_12, List.of(reading(DAY_12, "2024-05-12T10:00:00Z", 4.0),
+                    reading(DAY_12, "2024-05-12T11:00:00Z", 5.0)));
+
+    private ReadingPager pager;
+
+    @BeforeEach
+    void setUp() {
+        pager = new ReadingPager();
+        ReflectionTestUtils.setField(pager, "session", session);
+        ReflectionTestUtils.setField(pager, "partitionPlanner", new PartitionPlanner());
+        ReflectionTestUtils.setField(pager, "readingBlockStore", readingBlockStore);
+    }
+
+    @Test
+    @DisplayName("Should walk every reading once across block days, stopping mid-day at the page size")
+    void pageCase1() {
+        blockDays();
+
+        List<ReadingPageDTO> pages = walk(2, null);
+
+        assertEquals(3, pages.size());
+        assertEquals(List.of(1.0, 2.0), values(pages.get(0)));
+        // Sobra do dia 10, dia 11 vazio e a primeira leitura do dia 12 na mesma página
+        assertEquals(List.of(3.0, 4.0), values(pages.get(1)));
+        assertEquals(List.of(5.0), values(pages.get(2)));
+        assertNotNull(pages.get(0).nextCursor());
+        assertNotNull(pages.get(1).nextCursor());
+        assertNull(pages.get(2).nextCursor());
+
+        // O cursor guarda o deslocamento dentro do dia em blocos
+        ByteBuffer cursor = decode(pages.get(0).nextCursor());
+        assertEquals(2, cursor.get(0));
+        assertEquals(DAY_10.toEpochDay(), cursor.getLong(5));
+        assertEquals(4, cursor.getInt(13));
+        assertEquals(2, cursor.getInt(17));
+    }
+
+    @Test
+    @DisplayName("Should start the next page at the following day when a page ends with its day")
+    void pageCase2() {
+        blockDays();
+
+        ReadingPageDTO first = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 3, null).block();
+        assertEquals(List.of(1.0, 2.0, 3.0), values(first));
+
+        ByteBuffer cursor = decode(first.nextCursor());
+        assertEquals(DAY_11.toEpochDay(), cursor.getLong(5));
+        assertEquals(0, cursor.getInt(13));
+
+        ReadingPageDTO second = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 3, first.nextCursor())
+                .block();
+        assertEquals(List.of(4.0, 5.0), values(second));
+        assertNull(second.nextCursor());
+
+        // O último dia preenchendo a página exatamente não gera uma página vazia a mais
+        assertNull(pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 5, null).block().nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should return an incomplete page with a cursor after max-partitions days")
+    void pageCase3() {
+        blockDays();
+        ReflectionTestUtils.setField(pager, "maxPartitions", 2);
+
+        ReadingPageDTO first = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 10, null).block();
+        assertEquals(List.of(1.0, 2.0, 3.0), values(first));
+        assertNotNull(first.nextCursor());
+
+        // O tamanho de página pode mudar entre páginas
+        ReadingPageDTO second = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 1, first.nextCursor())
+                .block();
+        assertEquals(List.of(4.0), values(second));
+        assertEquals(List.of(5.0), values(pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 1,
+                second.nextCursor()).block()));
+    }
+
+    @Test
+    @DisplayName("Should carry the driver paging state in the cursor for days read from the table")
+    void pageCase4() {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        BoundStatement bound = mock(BoundStatement.class);
+        ByteBuffer pagingState = ByteBuffer.wrap(new byte[] { 7, 1, 2, 3, 4, 5 });
+        AsyncResultSet firstResult = result(pagingState, row("2024-05-10T12:00:00Z", 1.0),
+                row("2024-05-10T13:00:00Z", 2.0));
+        AsyncResultSet lastResult = result(null, row("2024-05-10T14:00:00Z", 3.0));
+        AsyncResultSet empty = result(null);
+
+        when(session.prepareAsync(ReadingPager.SELECT_CQL)).thenReturn(CompletableFuture.completedFuture(statement));
+        when(statement.bind(any(Object[].class))).thenReturn(bound);
+        when(bound.setPageSize(anyInt())).thenReturn(bound);
+        when(bound.setPagingState((ByteBuffer) any())).thenReturn(bound);
+        when(bound.setIdempotent(true)).thenReturn(bound);
+        when(session.executeAsync(bound)).thenReturn(CompletableFuture.completedFuture(firstResult),
+                CompletableFuture.completedFuture(lastResult), CompletableFuture.completedFuture(empty));
+
+        ReadingPageDTO first = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 2, null).block();
+        assertEquals(List.of(1.0, 2.0), values(first));
+
+        ByteBuffer cursor = decode(first.nextCursor());
+        assertEquals(DAY_10.toEpochDay(), cursor.getLong(5));
+        assertEquals(pagingState.remaining(), cursor.getInt(13));
+
+        ReadingPageDTO second = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 2, first.nextCursor())
+                .block();
+        assertEquals(List.of(3.0), values(second));
+        verify(bound).setPagingState(pagingState);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor generated by another query")
+    void pageCase5() {
+        blockDays();
+        String cursor = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 2, null).block().nextCursor();
+
+        assertCursorRejected("Cursor não pertence a esta consulta",
+                () -> pager.page(UUID.randomUUID(), ReadingType.TEMPERATURE, START, END, 2, cursor));
+        assertCursorRejected("Cursor não pertence a esta consulta",
+                () -> pager.page(DEVICE_ID, ReadingType.HUMIDITY, START, END, 2, cursor));
+        assertCursorRejected("Cursor não pertence a esta consulta",
+                () -> pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END.plusSeconds(1), 2, cursor));
+
+        // Cursor da versão anterior
+        ByteBuffer v1 = decode(cursor);
+        v1.put(0, (byte) 1);
+        assertCursorRejected("Cursor não pertence a esta consulta", () -> page(encode(v1)));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors")
+    void pageCase6() {
+        blockDays();
+        String cursor = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 2, null).block().nextCursor();
+
+        assertCursorRejected("Cursor inválido", () -> page("não é base64"));
+        assertCursorRejected("Cursor inválido", () -> page(""));
+        assertCursorRejected("Cursor inválido", () -> page(cursor.substring(0, 10)));
+
+        // Tamanho do estado diferente do que sobra no cursor
+        ByteBuffer extended = ByteBuffer.allocate(decode(cursor).remaining() + 1).put(decode(cursor));
+        assertCursorRejected("Cursor inválido", () -> page(encode(extended)));
+
+        // Deslocamento negativo no dia em blocos
+        ByteBuffer negative = decode(cursor);
+        negative.putInt(17, -1);
+        assertCursorRejected("Cursor inválido", () -> page(encode(negative)));
+
+        // Dia alterado para fora do período
+        ByteBuffer outside = decode(cursor);
+        outside.putLong(5, DAY_12.plusDays(1).toEpochDay());
+        assertCursorRejected("Cursor fora do período consultado", () -> page(encode(outside)));
+    }
+
+    @Test
+    @DisplayName("Should answer 400 when the cursor does not belong to the query")
+    void pageCase7() {
+        blockDays();
+        String cursor = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 2, null).block().nextCursor();
+
+        DeviceService service = mock(DeviceService.class);
+        when(service.findReadingsPage(any(), any(), any(), any(), anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(invocation).flatMap(call -> pager.page(call.getArgument(0),
+                        call.getArgument(1), call.getArgument(2), call.getArgument(3), call.getArgument(4),
+                        call.getArgument(5))));
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().registerSingleton("deviceService", service);
+        context.getBeanFactory().registerSingleton("keyGeneratorService", mock(KeyGeneratorService.class));
+        context.getBeanFactory().registerSingleton("ingestMetrics", mock(IngestMetrics.class));
+        context.register(WebConfig.class, DeviceDataResource.class, ArgumentNotValidExceptionHandler.class);
+        context.refresh();
+
+        WebTestClient client = WebTestClient.bindToApplicationContext(context).build();
+
+        client.get()
+                .uri(uri -> uri.path("/api/devices/{deviceId}/readings/page")
+                        .queryParam("type", "HUMIDITY")
+                        .queryParam("start", START)
+                        .queryParam("end", END)
+                        .queryParam("cursor", cursor)
+                        .build(DEVICE_ID))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid cursor")
+                .jsonPath("$.message").isEqualTo("Cursor não pertence a esta consulta");
+
+        verify(service).findReadingsPage(eq(DEVICE_ID), eq(ReadingType.HUMIDITY), eq(START), eq(END), eq(500),
+                eq(cursor));
+        context.close();
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class WebConfig {
+    }
+
+    private void blockDays() {
+        when(readingBlockStore.mayBeCompacted(any(LocalDate.class))).thenReturn(true);
+        when(readingBlockStore.blocks(eq(DEVICE_ID), eq(ReadingType.TEMPERATURE), any())).thenReturn(Mono.just(Map.of()));
+        when(readingBlockStore.findAscending(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE),
+                eq(START), eq(END), any()))
+                .thenAnswer(invocation -> Flux.fromIterable(blocks.get(invocation.getArgument(1, LocalDate.class))));
+    }
+
+    private List<ReadingPageDTO> walk(int pageSize, String cursor) {
+        List<ReadingPageDTO> pages = new ArrayList<>();
+        do {
+            ReadingPageDTO page = pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, pageSize, cursor)
+                    .block(Duration.ofSeconds(5));
+            pages.add(page);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private Mono<ReadingPageDTO> page(String cursor) {
+        return pager.page(DEVICE_ID, ReadingType.TEMPERATURE, START, END, 2, cursor);
+    }
+
+    private static void assertCursorRejected(String message, Supplier<Mono<ReadingPageDTO>> page) {
+        InvalidCursorException e = assertThrows(InvalidCursorException.class, () -> page.get().block());
+        assertEquals(message, e.getMessage());
+    }
+
+    private static List<Double> values(ReadingPageDTO page) {
+        return page.readings().stream().map(ReadingResponseDTO::value).toList();
+    }
+
+    private static ByteBuffer decode(String cursor) {
+        return ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+    }
+
+    private static String encode(ByteBuffer cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.array());
+    }
+
+    private static AsyncResultSet result(ByteBuffer pagingState, Row... rows) {
+        AsyncResultSet result = mock(AsyncResultSet.class);
+        when(result.currentPage()).thenReturn(List.of(rows));
+        when(result.hasMorePages()).thenReturn(pagingState != null);
+        if (pagingState != null) {
+            ExecutionInfo executionInfo = mock(ExecutionInfo.class);
+            when(executionInfo.getPagingState()).thenReturn(pagingState);
+            when(result.getExecutionInfo()).thenReturn(executionInfo);
+        }
+        return result;
+    }
+
+    private static Row row(String timestamp, double value) {
+        Row row = mock(Row.class);
+        when(row.getInstant("timestamp")).thenReturn(Instant.parse(timestamp));
+        when(row.getDouble("value")).thenReturn(value);
+        return row;
+    }
+
+    private static Reading reading(LocalDate day, String timestamp, double value) {
+        return new Reading(new Reading.DeviceReadingKey(DEVICE_ID, day, ReadingType.TEMPERATURE,
+                Instant.parse(timestamp)), value);
+    }
+}
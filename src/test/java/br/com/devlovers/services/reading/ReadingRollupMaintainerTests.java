@@ -0,0 +1,244 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingRollup;
+import br.com.devlovers.domain.reading.ReadingRollup.ReadingRollupKey;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+import br.com.devlovers.repositories.DeviceByIdRepository;
+import br.com.devlovers.repositories.ReadingRepository;
+import br.com.devlovers.repositories.ReadingRollupRepository;
+import br.com.devlovers.services.reading.ReadingRollupMaintainer.RollupAccumulator;
+import br.com.devlovers.util.DateRangePicker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReadingRollupMaintainerTests {
+
+    private static final UUID DEVICE_ID = UUID.fromString("6f1c2a3e-0d4b-4f7e-9a1b-2c3d4e5f6a7b");
+
+    // 12h em São Paulo
+    private static final Instant HOUR = Instant.parse("2024-05-10T15:00:00Z");
+    private static final Instant DAY = DateRangePicker.getMoment(LocalDate.of(2024, 5, 10));
+
+    private static final ReadingRollupKey HOUR_KEY = new ReadingRollupKey(DEVICE_ID, ReadingType.TEMPERATURE,
+            RollupGranularity.HOUR, HOUR);
+    private static final ReadingRollupKey DAY_KEY = new ReadingRollupKey(DEVICE_ID, ReadingType.TEMPERATURE,
+            RollupGranularity.DAY, DAY);
+
+    private final ReadingRepository readingRepository = mock(ReadingRepository.class);
+    private final ReadingRollupRepository readingRollupRepository = mock(ReadingRollupRepository.class);
+    private final ReadingBlockStore readingBlockStore = mock(ReadingBlockStore.class);
+    private final DeviceByIdRepository deviceByIdRepository = mock(DeviceByIdRepository.class);
+    private final ReactiveCassandraOperations cassandraOperations = mock(ReactiveCassandraOperations.class);
+
+    private ReadingRollupMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        when(deviceByIdRepository.findById(DEVICE_ID)).thenReturn(Mono.empty());
+        when(readingRepository.findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE),
+                any(Instant.class), any(Instant.class))).thenReturn(Flux.empty());
+        when(cassandraOperations.insert(any(ReadingRollup.class), any(InsertOptions.class))).thenReturn(Mono.empty());
+        when(readingRollupRepository.deleteById(any(ReadingRollupKey.class))).thenReturn(Mono.empty());
+
+        maintainer = new ReadingRollupMaintainer();
+        ReflectionTestUtils.setField(maintainer, "readingRepository", readingRepository);
+        ReflectionTestUtils.setField(maintainer, "readingRollupRepository", readingRollupRepository);
+        ReflectionTestUtils.setField(maintainer, "partitionPlanner", new PartitionPlanner());
+        ReflectionTestUtils.setField(maintainer, "readingBlockStore", readingBlockStore);
+        ReflectionTestUtils.setField(maintainer, "deviceByIdRepository", deviceByIdRepository);
+        ReflectionTestUtils.setField(maintainer, "cassandraOperations", cassandraOperations);
+        ReflectionTestUtils.setField(maintainer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(maintainer, "enabled", true);
+        ReflectionTestUtils.setField(maintainer, "concurrency", 4);
+        maintainer.init();
+    }
+
+    @Test
+    @DisplayName("Should add the readings and count the ones inside the working range")
+    void addCase1() {
+        RollupAccumulator accumulator = new RollupAccumulator(2.0, 8.0);
+        accumulator.add(reading(30, 9.0));
+        accumulator.add(reading(0, 1.0));
+        accumulator.add(reading(15, 5.0));
+        accumulator.add(reading(45, 8.0));
+
+        ReadingRollup rollup = accumulator.toRollup(HOUR_KEY);
+        assertEquals(4L, rollup.getCount());
+        assertEquals(23.0, rollup.getSum(), 1e-9);
+        assertEquals(81.0 + 1.0 + 25.0 + 64.0, rollup.getSumOfSquares(), 1e-9);
+        assertEquals(1.0, rollup.getMin());
+        assertEquals(9.0, rollup.getMax());
+        assertEquals(at(0), rollup.getFirstTimestamp());
+        assertEquals(at(45), rollup.getLastTimestamp());
+        // Os limites da faixa contam como dentro
+        assertEquals(2L, rollup.getInRangeCount());
+    }
+
+    @Test
+    @DisplayName("Should leave the in range count empty without a complete working range")
+    void addCase2() {
+        RollupAccumulator withoutRange = new RollupAccumulator(null, null);
+        withoutRange.add(reading(0, 5.0));
+        assertNull(withoutRange.toRollup(HOUR_KEY).getInRangeCount());
+
+        RollupAccumulator withoutMax = new RollupAccumulator(2.0, null);
+        withoutMax.add(reading(0, 5.0));
+        assertNull(withoutMax.toRollup(HOUR_KEY).getInRangeCount());
+    }
+
+    @Test
+    @DisplayName("Should merge the hourly rollups into the daily one")
+    void mergeCase1() {
+        RollupAccumulator accumulator = new RollupAccumulator(null, null);
+        accumulator.merge(rollup(1, 4, 20.0, 110.0, 3.0, 7.0, 3L));
+        accumulator.merge(rollup(0, 2, 30.0, 450.0, 14.0, 16.0, 0L));
+
+        ReadingRollup day = accumulator.toRollup(DAY_KEY);
+        assertEquals(6L, day.getCount());
+        assertEquals(50.0, day.getSum(), 1e-9);
+        assertEquals(560.0, day.getSumOfSquares(), 1e-9);
+        assertEquals(3.0, day.getMin());
+        assertEquals(16.0, day.getMax());
+        assertEquals(at(0), day.getFirstTimestamp());
+        assertEquals(at(60 + 45), day.getLastTimestamp());
+        assertEquals(3L, day.getInRangeCount());
+    }
+
+    @Test
+    @DisplayName("Should leave the daily in range count empty when any hour has no count")
+    void mergeCase2() {
+        // Hora sem faixa depois de horas com contagem
+        RollupAccumulator afterCounted = new RollupAccumulator(null, null);
+        afterCounted.merge(rollup(0, 2, 10.0, 50.0, 5.0, 5.0, 2L));
+        afterCounted.merge(rollup(1, 2, 10.0, 50.0, 5.0, 5.0, null));
+        afterCounted.merge(rollup(2, 2, 10.0, 50.0, 5.0, 5.0, 2L));
+        assertNull(afterCounted.toRollup(DAY_KEY).getInRangeCount());
+
+        // Hora sem faixa como a primeira do dia
+        RollupAccumulator firstUncounted = new RollupAccumulator(null, null);
+        firstUncounted.merge(rollup(0, 2, 10.0, 50.0, 5.0, 5.0, null));
+        firstUncounted.merge(rollup(1, 2, 10.0, 50.0, 5.0, 5.0, 2L));
+        assertNull(firstUncounted.toRollup(DAY_KEY).getInRangeCount());
+    }
+
+    @Test
+    @DisplayName("Should delete the stale hourly and daily rollups when the hour has no readings left")
+    void flushCase1() {
+        when(readingRollupRepository.findByBucketRange(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR, DAY,
+                DAY.plus(Duration.ofDays(1)))).thenReturn(Flux.empty());
+        when(readingRollupRepository.existsById(any(ReadingRollupKey.class))).thenReturn(Mono.just(true));
+
+        maintainer.markPending(DEVICE_ID, ReadingType.TEMPERATURE, HOUR, HOUR.plus(Duration.ofHours(1)));
+        maintainer.flush();
+
+        verify(readingRollupRepository).deleteById(HOUR_KEY);
+        verify(readingRollupRepository).deleteById(DAY_KEY);
+        verify(cassandraOperations, never()).insert(any(ReadingRollup.class), any(InsertOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should not write a tombstone for an empty hour that never had a rollup")
+    void flushCase2() {
+        when(readingRollupRepository.findByBucketRange(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR, DAY,
+                DAY.plus(Duration.ofDays(1)))).thenReturn(Flux.empty());
+        when(readingRollupRepository.existsById(any(ReadingRollupKey.class))).thenReturn(Mono.just(false));
+
+        maintainer.markPending(DEVICE_ID, ReadingType.TEMPERATURE, HOUR, HOUR.plus(Duration.ofHours(1)));
+        maintainer.flush();
+
+        verify(readingRollupRepository, never()).deleteById(any(ReadingRollupKey.class));
+    }
+
+    @Test
+    @DisplayName("Should retry a failed daily rebuild on the next flush")
+    void flushCase3() {
+        when(readingRepository.findByAllCriteria(eq(DEVICE_ID), any(LocalDate.class), eq(ReadingType.TEMPERATURE),
+                any(Instant.class), any(Instant.class))).thenReturn(Flux.just(reading(0, 5.0)));
+        when(readingRollupRepository.findByBucketRange(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR, DAY,
+                DAY.plus(Duration.ofDays(1))))
+                .thenReturn(Flux.error(new IllegalStateException("Cassandra indisponível")))
+                .thenReturn(Flux.just(rollup(0, 1, 5.0, 25.0, 5.0, 5.0, null)));
+
+        maintainer.markPending(DEVICE_ID, ReadingType.TEMPERATURE, HOUR, HOUR.plus(Duration.ofHours(1)));
+        maintainer.flush();
+
+        verify(cassandraOperations).insert(argThat((ReadingRollup rollup) -> rollup.getKey().equals(HOUR_KEY)),
+                any(InsertOptions.class));
+        verify(cassandraOperations, never()).insert(argThat((ReadingRollup rollup) -> rollup.getKey().equals(DAY_KEY)),
+                any(InsertOptions.class));
+
+        // Só o dia volta a ser recalculado: a hora já foi gravada
+        maintainer.flush();
+
+        verify(cassandraOperations, times(1)).insert(argThat((ReadingRollup rollup) -> rollup.getKey().equals(HOUR_KEY)),
+                any(InsertOptions.class));
+        verify(cassandraOperations).insert(argThat((ReadingRollup rollup) -> rollup.getKey().equals(DAY_KEY)),
+                any(InsertOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the daily rollup of the partition zone day")
+    void flushCase4() {
+        PartitionPlanner partitionPlanner = new PartitionPlanner();
+        ReflectionTestUtils.setField(partitionPlanner, "zone", ZoneOffset.UTC);
+        ReflectionTestUtils.setField(maintainer, "partitionPlanner", partitionPlanner);
+
+        // 22h do dia 9 em São Paulo, já dia 10 em UTC
+        Instant hour = Instant.parse("2024-05-10T01:00:00Z");
+        Instant utcDay = Instant.parse("2024-05-10T00:00:00Z");
+        when(readingRollupRepository.findByBucketRange(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR,
+                utcDay, utcDay.plus(Duration.ofDays(1)))).thenReturn(Flux.empty());
+        when(readingRollupRepository.existsById(any(ReadingRollupKey.class))).thenReturn(Mono.just(false));
+
+        maintainer.markPending(DEVICE_ID, ReadingType.TEMPERATURE, hour, hour.plus(Duration.ofHours(1)));
+        maintainer.flush();
+
+        verify(readingRollupRepository).findByBucketRange(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR,
+                utcDay, utcDay.plus(Duration.ofDays(1)));
+        verify(readingRollupRepository).existsById(new ReadingRollupKey(DEVICE_ID, ReadingType.TEMPERATURE,
+                RollupGranularity.DAY, utcDay));
+    }
+
+    private static ReadingRollup rollup(int hour, long count, double sum, double sumOfSquares, double min, double max,
+            Long inRangeCount) {
+        Instant bucket = at(hour * 60);
+        return new ReadingRollup(new ReadingRollupKey(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR,
+                bucket), count, sum, sumOfSquares, min, max, bucket, bucket.plus(Duration.ofMinutes(45)), inRangeCount);
+    }
+
+    private static Reading reading(int minute, double value) {
+        return new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.of(2024, 5, 10), ReadingType.TEMPERATURE,
+                at(minute)), value);
+    }
+
+    private static Instant at(int minute) {
+        return HOUR.plus(Duration.ofMinutes(minute));
+    }
+}
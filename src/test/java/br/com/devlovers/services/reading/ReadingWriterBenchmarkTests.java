@@ -0,0 +1,141 @@
+package br.com.devlovers.services.reading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.StatementFactory;
+import org.springframework.data.cassandra.core.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.mapping.CassandraMappingContext;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinition;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+import com.datastax.oss.driver.internal.core.cql.DefaultPreparedStatement;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+
+/**
+ * Custo no cliente de montar o INSERT de uma leitura: mapeamento de entidade do Spring Data
+ * (o que o ReactiveCassandraTemplate fazia) contra o bind do INSERT preparado do
+ * {@link ReadingWriter}. Não precisa de cluster: mede alocação por operação (ThreadMXBean) e a
+ * distribuição de latência de cada montagem. O parse do CQL a cada execução, que o Cassandra
+ * deixa de fazer com o INSERT preparado, não aparece aqui.
+ *
+ * Executar com: mvn test -Dtest=ReadingWriterBenchmarkTests -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReadingWriterBenchmarkTests {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    @DisplayName("Should report allocation and latency of template mapping versus the prepared bind")
+    void benchmarkCase1() {
+        List<Reading> readings = readings(1024);
+        Instant now = Instant.now();
+
+        CassandraMappingContext mappingContext = new CassandraMappingContext();
+        MappingCassandraConverter converter = new MappingCassandraConverter(mappingContext);
+        converter.afterPropertiesSet();
+        StatementFactory statementFactory = new StatementFactory(converter);
+
+        PreparedStatement prepared = prepared();
+
+        Result template = measure(readings, reading -> statementFactory.insert(reading,
+                InsertOptions.builder().ttl(ReadingWriter.ttlFor(reading, now)).build()).build());
+        Result bound = measure(readings, reading -> ReadingWriter.bind(prepared, reading, now));
+
+        System.out.printf("%-9s %10s %10s %10s%n", "caminho", "bytes/op", "p50 (ns)", "p99 (ns)");
+        System.out.printf("%-9s %10d %10d %10d%n", "template", template.bytesPerOp(), template.p50(), template.p99());
+        System.out.printf("%-9s %10d %10d %10d%n", "prepared", bound.bytesPerOp(), bound.p50(), bound.p99());
+
+        assertEquals(ITERATIONS, template.operations());
+        assertEquals(ITERATIONS, bound.operations());
+    }
+
+    private static Result measure(List<Reading> readings, Function<Reading, Statement<?>> build) {
+        Statement<?> sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = build.apply(readings.get(i & (readings.size() - 1)));
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = build.apply(readings.get(i & (readings.size() - 1)));
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            sink = build.apply(readings.get(i & (readings.size() - 1)));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return new Result(ITERATIONS, allocated / ITERATIONS, latencies[ITERATIONS / 2],
+                latencies[(int) (ITERATIONS * 0.99)]);
+    }
+
+    // Mesmas variáveis que o Cassandra devolve ao preparar ReadingWriter.INSERT_CQL
+    private static PreparedStatement prepared() {
+        List<ColumnDefinition> variables = new ArrayList<>();
+        String[] names = { "deviceid", "date", "readingtype", "timestamp", "value", "[ttl]" };
+        int[] types = { ProtocolConstants.DataType.UUID, ProtocolConstants.DataType.DATE,
+                ProtocolConstants.DataType.VARCHAR, ProtocolConstants.DataType.TIMESTAMP,
+                ProtocolConstants.DataType.DOUBLE, ProtocolConstants.DataType.INT };
+        for (int i = 0; i < names.length; i++) {
+            variables.add(new DefaultColumnDefinition(new ColumnSpec("terrasense", "tb_sensor_readings", names[i], i,
+                    RawType.PRIMITIVES.get(types[i])), AttachmentPoint.NONE));
+        }
+
+        return new DefaultPreparedStatement(ByteBuffer.wrap(new byte[16]), ReadingWriter.INSERT_CQL,
+                DefaultColumnDefinitions.valueOf(variables), List.of(0, 1, 2), null,
+                DefaultColumnDefinitions.valueOf(List.of()), null, Map.of(), null, null, null, null, null, Map.of(),
+                null, null, null, 5000, null, null, false, CodecRegistry.DEFAULT, ProtocolVersion.DEFAULT);
+    }
+
+    private static List<Reading> readings(int count) {
+        List<Reading> readings = new ArrayList<>(count);
+        Instant start = Instant.now().minus(Duration.ofDays(1));
+        for (int i = 0; i < count; i++) {
+            UUID deviceId = UUID.randomUUID();
+            Instant timestamp = start.plusSeconds(i * 180L);
+            readings.add(new Reading(new Reading.DeviceReadingKey(deviceId, LocalDate.of(2024, 5, 10),
+                    i % 2 == 0 ? ReadingType.TEMPERATURE : ReadingType.HUMIDITY, timestamp), 20.0 + i % 50 * 0.1));
+        }
+        return readings;
+    }
+
+    private record Result(int operations, long bytesPerOp, long p50, long p99) {
+    }
+}
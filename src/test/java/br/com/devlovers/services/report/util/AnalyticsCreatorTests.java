@@ -0,0 +1,185 @@
+package br.com.devlovers.services.report.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.devlovers.domain.device.Device;
+import br.com.devlovers.domain.device.enums.Function;
+import br.com.devlovers.domain.reading.Reading;
+import br.com.devlovers.domain.reading.ReadingRollup;
+import br.com.devlovers.domain.reading.ReadingRollup.ReadingRollupKey;
+import br.com.devlovers.domain.reading.enums.ReadingType;
+import br.com.devlovers.domain.reading.enums.RollupGranularity;
+
+class AnalyticsCreatorTests {
+
+    private static final UUID DEVICE_ID = UUID.fromString("6f1c2a3e-0d4b-4f7e-9a1b-2c3d4e5f6a7b");
+
+    // 12h em São Paulo: todas as leituras no mesmo dia e período
+    private static final Instant START = Instant.parse("2024-05-10T15:00:00Z");
+
+    private final AnalyticsCreator analyticsCreator = new AnalyticsCreator(true);
+    private final AnalyticsCreator unweightedCreator = new AnalyticsCreator();
+
+    @Test
+    @DisplayName("Should match the plain mean when readings arrive at the nominal interval")
+    void getMeanCase1() {
+        List<Reading> readings = List.of(reading(0, 10.0), reading(3, 20.0), reading(6, 30.0));
+
+        assertEquals(20.0, analyticsCreator.getMean(readings), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should weight each reading by the interval until the next one")
+    void getMeanCase2() {
+        // 10.0 vale por 30 minutos (10 leituras nominais), 20.0 e 30.0 por uma cada
+        List<Reading> readings = List.of(reading(33, 30.0), reading(0, 10.0), reading(30, 20.0));
+
+        assertEquals((10.0 * 10 + 20.0 + 30.0) / 12, analyticsCreator.getMean(readings), 1e-9);
+        assertEquals((10.0 * 10 + 20.0 + 30.0) / 12,
+                analyticsCreator.getMeans(new ArrayList<>(readings)).get(10).get("12-16h"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should count a gap above the maximum continuous interval as a single reading")
+    void getMeanCase3() {
+        List<Reading> readings = List.of(reading(0, 10.0), reading(60, 20.0));
+
+        assertEquals(15.0, analyticsCreator.getMean(readings), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should compute the frequency-weighted sample standard deviation")
+    void getStandardDeviationCase1() {
+        // Pesos 2, 1 e 1: equivale às leituras 10, 10, 20, 30
+        List<Reading> readings = new ArrayList<>(List.of(reading(0, 10.0), reading(6, 20.0), reading(9, 30.0)));
+
+        double mean = 70.0 / 4;
+        double expected = Math.sqrt((2 * Math.pow(10 - mean, 2) + Math.pow(20 - mean, 2) + Math.pow(30 - mean, 2)) / 3);
+        assertEquals(expected, analyticsCreator.getStandardDeviation(readings).get(10), 1e-9);
+
+        assertEquals(0.0, analyticsCreator.getStandardDeviation(new ArrayList<>(List.of(reading(0, 10.0)))).get(10));
+    }
+
+    @Test
+    @DisplayName("Should add the time represented by each reading in range")
+    void getWorkingPeriodCase1() {
+        Device device = device();
+        // 5.0 por 30 minutos, 12.0 (fora) por 3 minutos, 6.0 por 3 minutos (última leitura)
+        List<Reading> readings = List.of(reading(0, 5.0), reading(30, 12.0), reading(33, 6.0));
+
+        assertEquals("33 minutos", analyticsCreator.getWorkingPeriodInCorrectTemperatureRange(device, readings));
+    }
+
+    @Test
+    @DisplayName("Should note a consecutive out of range period from a single stored reading")
+    void getNoteCase1() {
+        Device device = device();
+
+        // Uma leitura fora da faixa representando 21 minutos (7 leituras nominais)
+        List<Reading> longExcursion = List.of(reading(0, 5.0), reading(3, 12.0), reading(24, 5.0));
+        assertEquals(" (Importante: verificar necessidade de manutenção do equipamento)",
+                analyticsCreator.getNoteIfTemperatureNotWorkedInRange(device, longExcursion));
+
+        // A mesma leitura representando 18 minutos não basta
+        List<Reading> shortExcursion = List.of(reading(0, 5.0), reading(3, 12.0), reading(21, 5.0));
+        assertEquals("", analyticsCreator.getNoteIfTemperatureNotWorkedInRange(device, shortExcursion));
+
+        // Uma leitura na faixa zera a contagem
+        List<Reading> interrupted = List.of(reading(0, 12.0), reading(12, 5.0), reading(15, 12.0),
+                reading(24, 5.0));
+        assertEquals("", analyticsCreator.getNoteIfTemperatureNotWorkedInRange(device, interrupted));
+    }
+
+    @Test
+    @DisplayName("Should count every reading once for series stored without compression")
+    void unweightedCase1() {
+        Device device = device();
+        List<Reading> readings = List.of(reading(33, 30.0), reading(0, 10.0), reading(30, 20.0));
+
+        assertEquals(20.0, unweightedCreator.getMean(readings), 1e-9);
+        assertEquals(20.0, unweightedCreator.getMeans(new ArrayList<>(readings)).get(10).get("12-16h"), 1e-9);
+        assertEquals(10.0, unweightedCreator.getStandardDeviation(new ArrayList<>(readings)).get(10), 1e-9);
+
+        // Duas leituras na faixa: 6 minutos, independentemente do intervalo entre elas
+        List<Reading> inRange = List.of(reading(0, 5.0), reading(30, 12.0), reading(33, 6.0));
+        assertEquals("6 minutos", unweightedCreator.getWorkingPeriodInCorrectTemperatureRange(device, inRange));
+    }
+
+    @Test
+    @DisplayName("Should note an out of range period only after 7 consecutive readings for uncompressed series")
+    void unweightedCase2() {
+        Device device = device();
+
+        // Uma leitura fora da faixa seguida de um intervalo longo não basta
+        List<Reading> longGap = List.of(reading(0, 5.0), reading(3, 12.0), reading(24, 5.0));
+        assertEquals("", unweightedCreator.getNoteIfTemperatureNotWorkedInRange(device, longGap));
+
+        List<Reading> sevenReadings = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            sevenReadings.add(reading(i * 3, 12.0));
+        }
+        assertEquals("", unweightedCreator.getNoteIfTemperatureNotWorkedInRange(device, sevenReadings.subList(0, 6)));
+        assertEquals(" (Importante: verificar necessidade de manutenção do equipamento)",
+                unweightedCreator.getNoteIfTemperatureNotWorkedInRange(device, sevenReadings));
+    }
+
+    @Test
+    @DisplayName("Should compute the metrics table from hourly rollups as from the readings")
+    void getRollupMetricsCase1() {
+        // Duas horas do período 12-16h e uma do período 16-20h
+        List<Reading> readings = new ArrayList<>(List.of(reading(0, 10.0), reading(3, 14.0), reading(60, 20.0),
+                reading(63, 21.0), reading(66, 25.0), reading(60 * 4, 30.0)));
+        List<ReadingRollup> rollups = List.of(
+                rollup(0, 10.0, 14.0),
+                rollup(60, 20.0, 21.0, 25.0),
+                rollup(60 * 4, 30.0));
+
+        Map<String, Double> means = unweightedCreator.getMeans(new ArrayList<>(readings)).get(10);
+        Map<String, Double> rollupMeans = unweightedCreator.getRollupMeans(rollups).get(10);
+        assertEquals(means.get("12-16h"), rollupMeans.get("12-16h"), 1e-9);
+        assertEquals(means.get("16-20h"), rollupMeans.get("16-20h"), 1e-9);
+
+        assertEquals(unweightedCreator.getStandardDeviation(new ArrayList<>(readings)).get(10),
+                unweightedCreator.getRollupStandardDeviation(rollups).get(10), 1e-9);
+        assertEquals(10.0, unweightedCreator.getRollupMin(rollups).get(10));
+        assertEquals(30.0, unweightedCreator.getRollupMax(rollups).get(10));
+    }
+
+    private static ReadingRollup rollup(int minutes, double... values) {
+        Instant bucket = START.plus(Duration.ofMinutes(minutes));
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (double value : values) {
+            sum += value;
+            sumOfSquares += value * value;
+        }
+        return new ReadingRollup(new ReadingRollupKey(DEVICE_ID, ReadingType.TEMPERATURE, RollupGranularity.HOUR,
+                bucket), (long) values.length, sum, sumOfSquares, Arrays.stream(values).min().getAsDouble(),
+                Arrays.stream(values).max().getAsDouble(), bucket, bucket, null);
+    }
+
+    private static Device device() {
+        Device device = new Device();
+        device.setFunction(Function.ENVIRONMENT);
+        device.setMinWorkingTemp(2.0);
+        device.setMaxWorkingTemp(8.0);
+        return device;
+    }
+
+    private static Reading reading(int minutes, double value) {
+        return new Reading(new Reading.DeviceReadingKey(DEVICE_ID, LocalDate.of(2024, 5, 10), ReadingType.TEMPERATURE,
+                START.plus(Duration.ofMinutes(minutes))), value);
+    }
+}